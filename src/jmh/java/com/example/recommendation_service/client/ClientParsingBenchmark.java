@@ -0,0 +1,73 @@
+package com.example.recommendation_service.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 외부 API 요청/응답 처리 구간 벤치마크 (Vertex AI payload 직렬화/예측 응답 파싱, Naver 주소 포맷팅).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientParsingBenchmark {
+
+    @Param({"20", "200"})
+    public int predictions;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<PredictionInstance> instances;
+    private byte[] vertexResponse;
+    private byte[] naverResponse;
+    private NaverMapsClient.NaverGeocodeResponse parsedNaverResponse;
+
+    @Setup
+    public void setUp() throws Exception {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder("{\"predictions\":[");
+        for (int i = 0; i < predictions; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"value\":").append(random.nextDouble()).append('}');
+        }
+        sb.append("],\"deployedModelId\":\"1234567890\",\"model\":\"projects/p/locations/l/models/m\"}");
+        vertexResponse = sb.toString().getBytes(StandardCharsets.UTF_8);
+        instances = new ArrayList<>(predictions);
+        for (int i = 0; i < predictions; i++) {
+            instances.add(new PredictionInstance(129.0 + random.nextDouble() * 0.2, 35.1 + random.nextDouble() * 0.1, 40, 2));
+        }
+
+        naverResponse = ("{\"status\":{\"code\":0,\"name\":\"ok\"},\"results\":[{\"name\":\"roadaddr\","
+                + "\"region\":{\"area1\":{\"name\":\"부산광역시\"},\"area2\":{\"name\":\"부산진구\"},\"area3\":{\"name\":\"부전동\"}},"
+                + "\"land\":{\"name\":\"중앙대로\",\"number1\":\"672\",\"number2\":\"\"}}]}")
+                .getBytes(StandardCharsets.UTF_8);
+        parsedNaverResponse = objectMapper.readValue(naverResponse, NaverMapsClient.NaverGeocodeResponse.class);
+    }
+
+    @Benchmark
+    public byte[] writeVertexRequest() {
+        return VertexPredictionCodec.writeRequest(instances);
+    }
+
+    @Benchmark
+    public double[] parseVertexResponse() {
+        return VertexAiClient.parsePredictions(vertexResponse, predictions);
+    }
+
+    @Benchmark
+    public String decodeAndFormatNaverAddress() throws Exception {
+        return NaverMapsClient.formatAddress(objectMapper.readValue(naverResponse, NaverMapsClient.NaverGeocodeResponse.class));
+    }
+
+    @Benchmark
+    public String formatNaverAddress() {
+        return NaverMapsClient.formatAddress(parsedNaverResponse);
+    }
+}
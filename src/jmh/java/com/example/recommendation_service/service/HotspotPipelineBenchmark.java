@@ -0,0 +1,79 @@
+package com.example.recommendation_service.service;
+
+import com.example.recommendation_service.client.PredictionInstance;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 추천 파이프라인의 순수 CPU 구간 벤치마크.
+ * 실행: ./gradlew jmh (gc 프로파일러로 op 당 할당량 gc.alloc.rate.norm 을 함께 기록)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotspotPipelineBenchmark {
+
+    private String csv;
+    private HotspotIndex index;
+    private HotspotIndex.Candidates candidates;
+    private TimeSlot slot;
+    private double[] scores;
+    private double[][] queries;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        csv = new ClassPathResource("hotspots.csv").getContentAsString(StandardCharsets.UTF_8);
+        index = HotspotLoader.parseCsv(new BufferedReader(new StringReader(csv)), 2.0);
+
+        // 부산 도심 근처 기사 위치
+        Random random = new Random(42);
+        queries = new double[1024][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = new double[]{129.0 + random.nextDouble() * 0.2, 35.1 + random.nextDouble() * 0.1};
+        }
+        candidates = index.radius(129.0756, 35.1796, 7.0);
+        slot = TimeSlot.now();
+        scores = new double[candidates.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public HotspotIndex parseHotspotCsv() throws Exception {
+        return HotspotLoader.parseCsv(new BufferedReader(new StringReader(csv)), 2.0);
+    }
+
+    @Benchmark
+    public HotspotIndex.Candidates radiusCandidates() {
+        double[] q = queries[next++ & (queries.length - 1)];
+        return index.radius(q[0], q[1], 7.0);
+    }
+
+    @Benchmark
+    public List<PredictionInstance> buildInstancePayload() {
+        List<PredictionInstance> instances = new ArrayList<>(candidates.size());
+        for (int k = 0; k < candidates.size(); k++) {
+            instances.add(HotspotScorer.buildInstance(candidates.longitude(k), candidates.latitude(k), slot));
+        }
+        return instances;
+    }
+
+    @Benchmark
+    public void argmax(Blackhole blackhole) {
+        blackhole.consume(RecommendationService.argmax(scores));
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.recommendation_service.service;
+
+import com.example.recommendation_service.client.PredictionInstance;
+import com.example.recommendation_service.client.VertexAiClient;
+import com.example.recommendation_service.client.VertexPredictionBatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * 외부 호출을 즉시 응답하는 stub 으로 대체한 getBestLocationRecommendation 전체 구간 벤치마크.
+ * <ul>
+ *     <li>cold: 점수 캐시를 매번 비워 Vertex 요청 payload 조립/응답 병합까지 포함</li>
+ *     <li>warm: 같은 슬롯 점수가 캐시된 정상 상태 (반경 조회 + 캐시 조회 + argmax)</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecommendationEndToEndBenchmark {
+
+    @Param({"false", "true"})
+    public boolean pruning;
+
+    private RecommendationService recommendationService;
+    private PredictionScoreCache scoreCache;
+    private double[][] queries;
+    private int next;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        HotspotIndexHolder holder = new HotspotIndexHolder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ClassPathResource("hotspots.csv").getInputStream()))) {
+            holder.publish(HotspotLoader.parseCsv(reader, 2.0));
+        }
+
+        // stubOnly: 호출 기록을 남기지 않아 측정 중 메모리가 늘지 않음
+        VertexAiClient vertexAiClient = mock(VertexAiClient.class, withSettings().stubOnly());
+        when(vertexAiClient.tryPredictBulk(anyList())).thenAnswer(invocation -> {
+            List<PredictionInstance> instances = invocation.getArgument(0);
+            double[] scores = new double[instances.size()];
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = (double) ((i * 7919) % 1000) / 1000.0;
+            }
+            return Mono.just(scores);
+        });
+        GeocodeCache geocodeCache = mock(GeocodeCache.class, withSettings().stubOnly());
+        when(geocodeCache.reverseGeocode(anyDouble(), anyDouble())).thenReturn(Mono.just("부산광역시 부산진구 부전동 중앙대로 672"));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        scoreCache = new PredictionScoreCache(100_000, meterRegistry);
+        HotspotScoreTables scoreTables = new HotspotScoreTables();
+        HotspotPriors hotspotPriors = new HotspotPriors(holder);
+        RecommendationMetrics metrics = new RecommendationMetrics(meterRegistry);
+        HotspotScorer scorer = new HotspotScorer(
+                new VertexPredictionBatcher(vertexAiClient, false, Duration.ofMillis(10), 200, meterRegistry),
+                scoreCache, scoreTables, hotspotPriors,
+                new LocalDemandModel(holder, new DefaultResourceLoader(), meterRegistry, LocalDemandModel.Mode.FALLBACK, ""),
+                metrics);
+        CandidatePruner candidatePruner = new CandidatePruner(hotspotPriors, scoreTables, meterRegistry,
+                pruning, 40, 80, 3.0, 3.0, 0.0, 0.9);
+        recommendationService = new RecommendationService(scorer, candidatePruner, geocodeCache,
+                mock(ReactiveRedisTemplate.class, withSettings().stubOnly()), holder,
+                new RequestCoalescer(meterRegistry),
+                // 결과 캐시는 끄고 계산 경로만 측정
+                new RecommendationResultCache(mock(ReactiveRedisTemplate.class, withSettings().stubOnly()), meterRegistry,
+                        false, false, 6, 1),
+                new HotspotAssignmentTracker(mock(ReactiveRedisTemplate.class, withSettings().stubOnly()), meterRegistry,
+                        true, false, Duration.ofMinutes(5), Duration.ofSeconds(30), 20),
+                new RequestRecorder(meterRegistry, false, 0.0, "build/recordings", DataSize.ofMegabytes(1), 1),
+                metrics, false, 7,
+                Duration.ofSeconds(3), Duration.ofMillis(500));
+
+        Random random = new Random(42);
+        queries = new double[1024][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = new double[]{129.0 + random.nextDouble() * 0.2, 35.1 + random.nextDouble() * 0.1};
+        }
+    }
+
+    @Benchmark
+    public String cold() {
+        scoreCache.invalidateAll();
+        double[] q = queries[next++ & (queries.length - 1)];
+        return recommendationService.getBestLocationRecommendation(q[0], q[1]).block();
+    }
+
+    @Benchmark
+    public String warm() {
+        double[] q = queries[next++ & (queries.length - 1)];
+        return recommendationService.getBestLocationRecommendation(q[0], q[1]).block();
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.recommendation_service.loadtest;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * /api/recommendations 에 목표 RPS 로 요청을 보내고 p50/p99/p999 지연과 처리량을 보고하는 부하 생성기.
+ * <pre>
+ * ./gradlew loadTest -PloadtestArgs="--rps=300 --duration=60s --warmup=10s"
+ * </pre>
+ * 요청은 응답과 무관하게 예정 시각에 발사되며(open model), 지연은 예정 시각부터 측정해
+ * 서버가 밀릴 때 지연이 과소 측정되는 coordinated omission 을 피합니다.
+ * 기사 위치는 hotspots.csv 의 핫스팟 주변 jitter-km 이내에서 무작위로 뽑습니다.
+ */
+public final class LoadGenerator {
+
+    private static final String UNAVAILABLE_ADDRESS = "주소 확인 불가";
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+
+    private final HttpClient httpClient;
+    private final double[][] hotspots;
+    private final double jitterKm;
+
+    private final Recorder latencyRecorder = new Recorder(TimeUnit.MINUTES.toNanos(1), 3);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder degraded = new LongAdder();
+    private final LongAdder httpErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    LoadGenerator(HttpClient httpClient, double[][] hotspots, double jitterKm) {
+        this.httpClient = httpClient;
+        this.hotspots = hotspots;
+        this.jitterKm = jitterKm;
+    }
+
+    public static void main(String[] argv) throws Exception {
+        LoadTestArgs args = new LoadTestArgs(argv);
+        String target = args.string("target", "http://localhost:8089");
+        int rps = args.integer("rps", 100);
+        Duration duration = args.duration("duration", "60s");
+        Duration warmup = args.duration("warmup", "10s");
+        Duration timeout = args.duration("timeout", "10s");
+        int maxConnections = args.integer("max-connections", 1000);
+
+        ConnectionProvider provider = ConnectionProvider.builder("loadtest")
+                                                        .maxConnections(maxConnections)
+                                                        .pendingAcquireMaxCount(-1)
+                                                        .build();
+        HttpClient httpClient = HttpClient.create(provider)
+                                          .baseUrl(target)
+                                          .responseTimeout(timeout);
+        LoadGenerator generator = new LoadGenerator(httpClient,
+                readHotspots(Path.of(args.string("hotspots", "src/main/resources/hotspots.csv"))),
+                args.decimal("jitter-km", 3.0));
+
+        System.out.printf("대상: %s, 목표 %d RPS, 워밍업 %s, 측정 %s%n", target, rps, warmup, duration);
+        if (!warmup.isZero()) {
+            generator.run(rps, warmup, false);
+            generator.reset();
+        }
+        Histogram total = generator.run(rps, duration, true);
+        generator.report(total, duration);
+        provider.disposeLater().block();
+    }
+
+    /**
+     * 예정 시각마다 요청을 비동기로 발사하고, 마지막 요청의 응답까지 기다린 뒤 전체 지연 히스토그램을 반환합니다.
+     */
+    Histogram run(int rps, Duration duration, boolean printProgress) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+        long total = duration.toNanos() / intervalNanos;
+        LongAdder inFlight = new LongAdder();
+        Histogram accumulated = new Histogram(TimeUnit.MINUTES.toNanos(1), 3);
+        Histogram interval = null;
+
+        long start = System.nanoTime();
+        long nextReport = start + TimeUnit.SECONDS.toNanos(5);
+        for (long i = 0; i < total; i++) {
+            long scheduledAt = start + i * intervalNanos;
+            long wait;
+            while ((wait = scheduledAt - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.increment();
+            send(scheduledAt).doFinally(signal -> inFlight.decrement()).subscribe();
+
+            if (printProgress && System.nanoTime() >= nextReport) {
+                interval = latencyRecorder.getIntervalHistogram(interval);
+                accumulated.add(interval);
+                printLine("진행", interval, interval.getTotalCount() / 5.0);
+                nextReport += TimeUnit.SECONDS.toNanos(5);
+            }
+        }
+        while (inFlight.sum() > 0) {
+            Thread.sleep(10);
+        }
+        accumulated.add(latencyRecorder.getIntervalHistogram(interval));
+        return accumulated;
+    }
+
+    private Mono<Void> send(long scheduledAt) {
+        double[] position = randomPosition();
+        String uri = String.format(Locale.ROOT, "/api/recommendations?lon=%.6f&lat=%.6f", position[0], position[1]);
+        return httpClient.get()
+                         .uri(uri)
+                         .responseSingle((response, body) -> body.asString(StandardCharsets.UTF_8)
+                                                                 .defaultIfEmpty("")
+                                                                 .doOnNext(text -> classify(response.status(), text)))
+                         .doOnError(e -> failures.increment())
+                         .onErrorResume(e -> Mono.empty())
+                         .doFinally(signal -> latencyRecorder.recordValue(
+                                 Math.min(System.nanoTime() - scheduledAt, TimeUnit.MINUTES.toNanos(1))))
+                         .then();
+    }
+
+    private void classify(HttpResponseStatus status, String body) {
+        if (status.code() >= 400) {
+            httpErrors.increment();
+        } else if (body.contains(UNAVAILABLE_ADDRESS)) {
+            // 200 이지만 외부 API Fallback 이 섞인 응답
+            degraded.increment();
+        } else {
+            successes.increment();
+        }
+    }
+
+    private double[] randomPosition() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double[] hotspot = hotspots[random.nextInt(hotspots.length)];
+        double distanceKm = jitterKm * Math.sqrt(random.nextDouble());
+        double bearing = random.nextDouble() * 2 * Math.PI;
+        double dLat = distanceKm * Math.cos(bearing) / KM_PER_DEGREE_LAT;
+        double dLon = distanceKm * Math.sin(bearing) / (KM_PER_DEGREE_LAT * Math.cos(Math.toRadians(hotspot[1])));
+        return new double[]{hotspot[0] + dLon, hotspot[1] + dLat};
+    }
+
+    private void reset() {
+        latencyRecorder.reset();
+        successes.reset();
+        degraded.reset();
+        httpErrors.reset();
+        failures.reset();
+    }
+
+    private void report(Histogram histogram, Duration duration) {
+        System.out.println("==================== 결과 ====================");
+        printLine("전체", histogram, histogram.getTotalCount() / (duration.toMillis() / 1000.0));
+        System.out.printf("성공 %d, Fallback 포함 %d, HTTP 에러 %d, 타임아웃/연결 실패 %d%n",
+                successes.sum(), degraded.sum(), httpErrors.sum(), failures.sum());
+        System.out.printf(Locale.ROOT, "max %.1fms%n", histogram.getMaxValue() / 1e6);
+    }
+
+    static void printLine(String label, Histogram histogram, double throughput) {
+        System.out.printf(Locale.ROOT, "[%s] %.1f req/s, p50 %.1fms, p99 %.1fms, p999 %.1fms (n=%d)%n", label, throughput,
+                histogram.getValueAtPercentile(50) / 1e6,
+                histogram.getValueAtPercentile(99) / 1e6,
+                histogram.getValueAtPercentile(99.9) / 1e6,
+                histogram.getTotalCount());
+    }
+
+    // CSV: latitude,longitude -> {lon, lat}
+    private static double[][] readHotspots(Path csv) throws Exception {
+        List<double[]> rows = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(csv)) {
+            reader.readLine(); // 헤더 스킵
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                String[] parts = line.split(",");
+                rows.add(new double[]{Double.parseDouble(parts[1].trim()), Double.parseDouble(parts[0].trim())});
+            }
+        }
+        return rows.toArray(double[][]::new);
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.recommendation_service.loadtest;
+
+import com.example.recommendation_service.client.PredictionInstance;
+import com.example.recommendation_service.client.VertexAiClient;
+import com.example.recommendation_service.client.VertexPredictionBatcher;
+import com.example.recommendation_service.service.*;
+import com.example.recommendation_service.service.RequestRecorder.RecordedRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.io.BufferedReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * {@link RequestRecorder} 로 기록한 운영 요청을 같은 간격(또는 speed 배속)으로 RecommendationService 에 다시 흘려
+ * 빌드 간 처리량/지연을 비교하는 재생 도구.
+ * <pre>
+ * ./gradlew replayRecording -PloadtestArgs="--recordings=/tmp/recommendation-recordings --speed=4"
+ * </pre>
+ * 서비스는 프로세스 안에서 실제 구성요소(인덱스, 가지치기, 점수 캐시, 결과 캐시, 배정 할인)로 조립하고,
+ * Vertex AI / Naver / Redis 만 stand-in 으로 대체합니다. Vertex stand-in 은 기록된 후보 점수를,
+ * 기록에 없는 핫스팟은 위치 기반 고정 점수를 돌려주며, 두 stand-in 모두 직전에 재생한 요청의 기록된
+ * 채점/주소 변환 시간만큼 지연합니다(--downstream-latency=false 면 즉시 응답).
+ * 지연은 LoadGenerator 와 같이 예정 시각부터 측정합니다.
+ */
+public final class RecordingReplay {
+
+    private record Coordinate(double longitude, double latitude) {
+    }
+
+    private final List<RecordedRequest> requests;
+    private final HotspotIndex index;
+    private final boolean downstreamLatency;
+    private final Map<Coordinate, Integer> positions = new HashMap<>();
+    private final float[] scores;
+    private volatile int scoringMicros;
+    private volatile int geocodeMicros;
+
+    private final Recorder latencyRecorder = new Recorder(TimeUnit.MINUTES.toNanos(1), 3);
+    private final LongAdder failures = new LongAdder();
+
+    RecordingReplay(List<RecordedRequest> requests, HotspotIndex index, boolean downstreamLatency) {
+        this.requests = requests;
+        this.index = index;
+        this.downstreamLatency = downstreamLatency;
+        this.scores = new float[index.size()];
+        for (int i = 0; i < index.size(); i++) {
+            positions.put(new Coordinate(index.longitude(i), index.latitude(i)), i);
+            scores[i] = (float) (((i + 1) * 7919L) % 1000) / 1000.0f;
+        }
+    }
+
+    public static void main(String[] argv) throws Exception {
+        LoadTestArgs args = new LoadTestArgs(argv);
+        Path recordings = Path.of(args.string("recordings", "/tmp/recommendation-recordings"));
+        double speed = args.decimal("speed", 1.0);
+        if (speed <= 0) {
+            throw new IllegalArgumentException("--speed 는 0보다 커야 합니다: " + speed);
+        }
+
+        HotspotIndex index;
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(args.string("hotspots", "src/main/resources/hotspots.csv")))) {
+            index = HotspotLoader.parseCsv(reader, 2.0);
+        }
+        List<RecordedRequest> requests = load(recordings, HotspotLoader.version(index));
+        if (requests.isEmpty()) {
+            System.out.println("재생할 요청이 없습니다: " + recordings);
+            return;
+        }
+
+        RecordingReplay replay = new RecordingReplay(requests, index,
+                Boolean.parseBoolean(args.string("downstream-latency", "true")));
+        long spanMillis = requests.get(requests.size() - 1).epochMillis() - requests.get(0).epochMillis();
+        System.out.printf("요청 %d건, 기록 구간 %s, %.1f배속%n", requests.size(), Duration.ofMillis(spanMillis), speed);
+        Histogram replayed = replay.run(replay.service(), speed);
+        replay.report(replayed, spanMillis / speed);
+    }
+
+    // 세그먼트 파일을 모두 읽어 시각순으로 합침. 핫스팟 버전이 다르면 후보 위치가 어긋날 수 있어 경고
+    static List<RecordedRequest> load(Path recordings, String hotspotVersion) throws Exception {
+        List<Path> files;
+        if (Files.isDirectory(recordings)) {
+            try (Stream<Path> list = Files.list(recordings)) {
+                files = list.filter(p -> p.getFileName().toString().startsWith("recording-")).sorted().toList();
+            }
+        } else {
+            files = List.of(recordings);
+        }
+        List<RecordedRequest> requests = new ArrayList<>();
+        for (Path file : files) {
+            RequestRecorder.Recording recording = RequestRecorder.read(file);
+            if (!recording.hotspotVersion().equals(hotspotVersion)) {
+                System.out.printf("경고: %s 의 핫스팟 버전(%s)이 현재 CSV(%s)와 다릅니다.%n",
+                        file.getFileName(), recording.hotspotVersion(), hotspotVersion);
+            }
+            requests.addAll(recording.requests());
+        }
+        requests.sort(Comparator.comparingLong(RecordedRequest::epochMillis));
+        return requests;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RecommendationService service() {
+        HotspotIndexHolder holder = new HotspotIndexHolder();
+        holder.publish(index);
+
+        VertexAiClient vertexAiClient = mock(VertexAiClient.class, withSettings().stubOnly());
+        when(vertexAiClient.tryPredictBulk(anyList())).thenAnswer(invocation -> {
+            List<PredictionInstance> instances = invocation.getArgument(0);
+            double[] predicted = new double[instances.size()];
+            for (int j = 0; j < predicted.length; j++) {
+                Integer position = positions.get(new Coordinate(instances.get(j).longitude(), instances.get(j).latitude()));
+                predicted[j] = position == null ? 0.0 : scores[position];
+            }
+            return delayed(Mono.just(predicted), scoringMicros);
+        });
+        GeocodeCache geocodeCache = mock(GeocodeCache.class, withSettings().stubOnly());
+        when(geocodeCache.reverseGeocode(anyDouble(), anyDouble()))
+                .thenAnswer(invocation -> delayed(Mono.just("재생 위치"), geocodeMicros));
+        when(geocodeCache.cachedAddress(anyDouble(), anyDouble())).thenReturn(Mono.just("재생 위치"));
+        ReactiveRedisTemplate<String, String> redisTemplate = mock(ReactiveRedisTemplate.class, withSettings().stubOnly());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        HotspotScoreTables scoreTables = new HotspotScoreTables();
+        HotspotPriors hotspotPriors = new HotspotPriors(holder);
+        RecommendationMetrics metrics = new RecommendationMetrics(meterRegistry);
+        HotspotScorer scorer = new HotspotScorer(
+                new VertexPredictionBatcher(vertexAiClient, true, Duration.ofMillis(10), 200, meterRegistry),
+                new PredictionScoreCache(20_000, meterRegistry), scoreTables, hotspotPriors,
+                new LocalDemandModel(holder, new DefaultResourceLoader(), meterRegistry, LocalDemandModel.Mode.FALLBACK, ""),
+                metrics);
+        CandidatePruner candidatePruner = new CandidatePruner(hotspotPriors, scoreTables, meterRegistry,
+                true, 40, 80, 3.0, 3.0, 0.0, 0.9);
+        RecommendationResultCache resultCache = new RecommendationResultCache(redisTemplate, meterRegistry, true, false, 6, 50_000);
+        HotspotAssignmentTracker assignmentTracker = new HotspotAssignmentTracker(redisTemplate, meterRegistry, true, false,
+                Duration.ofMinutes(5), Duration.ofSeconds(30), 20);
+        HotspotIndexChangedEvent loaded = new HotspotIndexChangedEvent(HotspotIndex.EMPTY, index, HotspotLoader.version(index));
+        resultCache.onHotspotIndexChanged(loaded);
+        assignmentTracker.onHotspotIndexChanged(loaded);
+
+        return new RecommendationService(scorer, candidatePruner, geocodeCache, redisTemplate, holder,
+                new RequestCoalescer(meterRegistry), resultCache, assignmentTracker,
+                new RequestRecorder(meterRegistry, false, 0.0, "build/recordings", DataSize.ofMegabytes(1), 1),
+                metrics, true, 7, Duration.ofSeconds(3), Duration.ofMillis(500));
+    }
+
+    private <T> Mono<T> delayed(Mono<T> value, int micros) {
+        return downstreamLatency && micros > 0 ? value.delayElement(Duration.ofNanos(micros * 1000L)) : value;
+    }
+
+    /**
+     * 기록 시각 간격을 speed 로 나눈 예정 시각마다 요청을 발사하고, 마지막 응답까지 기다린 뒤 지연 히스토그램을 반환합니다.
+     */
+    Histogram run(RecommendationService service, double speed) throws InterruptedException {
+        LongAdder inFlight = new LongAdder();
+        long firstMillis = requests.get(0).epochMillis();
+        long start = System.nanoTime();
+        for (RecordedRequest request : requests) {
+            long scheduledAt = start + (long) (TimeUnit.MILLISECONDS.toNanos(request.epochMillis() - firstMillis) / speed);
+            long wait;
+            while ((wait = scheduledAt - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            observe(request);
+            inFlight.increment();
+            service.getBestLocationRecommendation(request.lon(), request.lat())
+                   .doOnError(e -> failures.increment())
+                   .onErrorResume(e -> Mono.empty())
+                   .doFinally(signal -> {
+                       latencyRecorder.recordValue(Math.min(System.nanoTime() - scheduledAt, TimeUnit.MINUTES.toNanos(1)));
+                       inFlight.decrement();
+                   })
+                   .subscribe();
+        }
+        while (inFlight.sum() > 0) {
+            Thread.sleep(10);
+        }
+        return latencyRecorder.getIntervalHistogram();
+    }
+
+    // 재생 직전에 그 요청의 기록 점수/하위 지연을 stand-in 에 반영
+    private void observe(RecordedRequest request) {
+        if (request.outcome() != RequestRecorder.OUTCOME_COMPUTED) {
+            return;
+        }
+        for (int k = 0; k < request.positions().length; k++) {
+            int position = request.positions()[k];
+            if (position >= 0 && position < scores.length) {
+                scores[position] = request.scores()[k];
+            }
+        }
+        scoringMicros = request.scoringMicros();
+        geocodeMicros = request.geocodeMicros();
+    }
+
+    private void report(Histogram replayed, double durationMillis) {
+        Histogram recorded = new Histogram(TimeUnit.MINUTES.toNanos(1), 3);
+        int[] outcomes = new int[3];
+        for (RecordedRequest request : requests) {
+            recorded.recordValue(Math.min(TimeUnit.MICROSECONDS.toNanos(request.totalMicros()), TimeUnit.MINUTES.toNanos(1)));
+            if (request.outcome() >= 0 && request.outcome() < outcomes.length) {
+                outcomes[request.outcome()]++;
+            }
+        }
+        double seconds = Math.max(durationMillis, 1) / 1000.0;
+        System.out.println("==================== 결과 ====================");
+        LoadGenerator.printLine("기록", recorded, requests.size() / seconds);
+        LoadGenerator.printLine("재생", replayed, replayed.getTotalCount() / seconds);
+        System.out.printf("기록: 직접 계산 %d, 캐시/공유 %d, 에러 %d / 재생 실패 %d%n",
+                outcomes[RequestRecorder.OUTCOME_COMPUTED], outcomes[RequestRecorder.OUTCOME_SHARED],
+                outcomes[RequestRecorder.OUTCOME_ERROR], failures.sum());
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.recommendation_service.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * stub 엔드포인트의 응답 특성.
+ * <ul>
+ *     <li>지연: median/p99 로 정한 로그정규 분포 (외부 API 의 긴 꼬리 재현)</li>
+ *     <li>error-rate: 지연 후 5xx 응답 비율</li>
+ *     <li>timeout-rate: timeout-delay 동안 응답하지 않는 비율 (클라이언트 타임아웃/TimeLimiter 검증용)</li>
+ * </ul>
+ */
+record StubBehavior(Duration median, Duration p99, double errorRate, double timeoutRate, Duration timeoutDelay) {
+
+    // 표준정규분포 99 퍼센타일
+    private static final double Z_99 = 2.3263478740408408;
+
+    enum Outcome { OK, ERROR, TIMEOUT }
+
+    static StubBehavior from(LoadTestArgs args, String prefix, String defaultMedian, String defaultP99) {
+        return new StubBehavior(
+                args.duration(prefix + ".latency.median", defaultMedian),
+                args.duration(prefix + ".latency.p99", defaultP99),
+                args.decimal(prefix + ".error-rate", 0.0),
+                args.decimal(prefix + ".timeout-rate", 0.0),
+                args.duration(prefix + ".timeout-delay", "30s"));
+    }
+
+    Outcome nextOutcome() {
+        double r = ThreadLocalRandom.current().nextDouble();
+        if (r < timeoutRate) return Outcome.TIMEOUT;
+        if (r < timeoutRate + errorRate) return Outcome.ERROR;
+        return Outcome.OK;
+    }
+
+    Duration nextLatency() {
+        long medianNanos = median.toNanos();
+        if (medianNanos <= 0) {
+            return Duration.ZERO;
+        }
+        double sigma = p99.compareTo(median) > 0 ? Math.log((double) p99.toNanos() / medianNanos) / Z_99 : 0.0;
+        double sample = medianNanos * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian());
+        return Duration.ofNanos((long) sample);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("median=%s, p99=%s, error-rate=%.4f, timeout-rate=%.4f, timeout-delay=%s",
+                median, p99, errorRate, timeoutRate, timeoutDelay);
+    }
+}
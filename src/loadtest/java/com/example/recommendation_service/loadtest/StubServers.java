@@ -0,0 +1,141 @@
+package com.example.recommendation_service.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vertex AI :predict 와 Naver reverse-geocode 를 흉내 내는 로컬 stub 서버.
+ * 유료 API 호출 없이 추천 서비스 처리량/지연을 측정하기 위해 application-loadtest.yml 과 함께 사용합니다.
+ * <pre>
+ * ./gradlew loadtestStubs -PloadtestArgs="--vertex.latency.median=120ms --vertex.latency.p99=900ms --vertex.error-rate=0.02"
+ * </pre>
+ * 예측 점수와 주소는 좌표로부터 결정적으로 만들어지므로 캐시 효과를 반복 측정할 수 있습니다.
+ */
+public final class StubServers {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final List<String> DISTRICTS = List.of("해운대구", "부산진구", "동래구", "남구", "수영구", "연제구", "사하구", "북구");
+
+    private final StubBehavior vertexBehavior;
+    private final StubBehavior naverBehavior;
+    private final LongAdder vertexRequests = new LongAdder();
+    private final LongAdder vertexInstances = new LongAdder();
+    private final LongAdder naverRequests = new LongAdder();
+
+    StubServers(StubBehavior vertexBehavior, StubBehavior naverBehavior) {
+        this.vertexBehavior = vertexBehavior;
+        this.naverBehavior = naverBehavior;
+    }
+
+    public static void main(String[] argv) {
+        LoadTestArgs args = new LoadTestArgs(argv);
+        StubServers stubs = new StubServers(
+                StubBehavior.from(args, "vertex", "80ms", "400ms"),
+                StubBehavior.from(args, "naver", "30ms", "150ms"));
+
+        DisposableServer vertex = HttpServer.create()
+                                            .port(args.integer("vertex.port", 18081))
+                                            .handle(stubs::handleVertex)
+                                            .bindNow();
+        DisposableServer naver = HttpServer.create()
+                                           .port(args.integer("naver.port", 18082))
+                                           .handle(stubs::handleNaver)
+                                           .bindNow();
+        System.out.printf("Vertex AI stub : http://localhost:%d (%s)%n", vertex.port(), stubs.vertexBehavior);
+        System.out.printf("Naver Maps stub: http://localhost:%d (%s)%n", naver.port(), stubs.naverBehavior);
+
+        Flux.interval(Duration.ofSeconds(10))
+            .subscribe(tick -> System.out.printf("vertex 요청 %d건(instance %d개), naver 요청 %d건%n",
+                    stubs.vertexRequests.sum(), stubs.vertexInstances.sum(), stubs.naverRequests.sum()));
+
+        vertex.onDispose().and(naver.onDispose()).block();
+    }
+
+    private Mono<Void> handleVertex(HttpServerRequest request, HttpServerResponse response) {
+        if (request.method() != HttpMethod.POST || !request.path().endsWith(":predict")) {
+            return response.status(HttpResponseStatus.NOT_FOUND).send();
+        }
+        vertexRequests.increment();
+        return request.receive()
+                      .aggregate()
+                      .asString(StandardCharsets.UTF_8)
+                      .defaultIfEmpty("{}")
+                      .flatMap(body -> respond(response, vertexBehavior, () -> predictions(body)));
+    }
+
+    private Mono<Void> handleNaver(HttpServerRequest request, HttpServerResponse response) {
+        if (request.method() != HttpMethod.GET || !request.fullPath().endsWith("/map-reversegeocode/v2/gc")) {
+            return response.status(HttpResponseStatus.NOT_FOUND).send();
+        }
+        naverRequests.increment();
+        List<String> coords = new QueryStringDecoder(request.uri()).parameters().get("coords");
+        String coord = coords == null || coords.isEmpty() ? "0,0" : coords.get(0);
+        return respond(response, naverBehavior, () -> address(coord));
+    }
+
+    private Mono<Void> respond(HttpServerResponse response, StubBehavior behavior, Callable<String> body) {
+        return switch (behavior.nextOutcome()) {
+            case TIMEOUT -> Mono.delay(behavior.timeoutDelay())
+                                .then(response.status(HttpResponseStatus.GATEWAY_TIMEOUT).send());
+            case ERROR -> Mono.delay(behavior.nextLatency())
+                              .then(response.status(HttpResponseStatus.SERVICE_UNAVAILABLE)
+                                            .header("Content-Type", "application/json")
+                                            .sendString(Mono.just("{\"error\":{\"code\":503,\"message\":\"stub error\"}}"))
+                                            .then());
+            case OK -> Mono.delay(behavior.nextLatency())
+                           .then(Mono.fromCallable(body))
+                           .flatMap(json -> response.status(HttpResponseStatus.OK)
+                                                    .header("Content-Type", "application/json")
+                                                    .sendString(Mono.just(json), StandardCharsets.UTF_8)
+                                                    .then());
+        };
+    }
+
+    private String predictions(String body) throws Exception {
+        JsonNode instances = OBJECT_MAPPER.readTree(body).path("instances");
+        vertexInstances.add(instances.size());
+        StringBuilder sb = new StringBuilder(32 + instances.size() * 32).append("{\"predictions\":[");
+        for (int i = 0; i < instances.size(); i++) {
+            JsonNode instance = instances.get(i);
+            long seed = (instance.path("longitude").asText() + "," + instance.path("latitude").asText()
+                    + "," + instance.path("time_slot").asText() + "," + instance.path("day_of_week").asText()).hashCode();
+            if (i > 0) sb.append(',');
+            sb.append("{\"value\":").append(unitScore(seed) * 50.0).append('}');
+        }
+        return sb.append("],\"deployedModelId\":\"stub\"}").toString();
+    }
+
+    private String address(String coords) {
+        int hash = coords.hashCode();
+        String district = DISTRICTS.get(Math.floorMod(hash, DISTRICTS.size()));
+        int number = Math.floorMod(hash >>> 8, 999) + 1;
+        return "{\"status\":{\"code\":0,\"name\":\"ok\",\"message\":\"done\"},\"results\":[{\"name\":\"roadaddr\","
+                + "\"region\":{\"area1\":{\"name\":\"부산광역시\"},\"area2\":{\"name\":\"" + district + "\"},"
+                + "\"area3\":{\"name\":\"stub동\"}},"
+                + "\"land\":{\"name\":\"stub로\",\"number1\":\"" + number + "\",\"number2\":\"\"}}]}";
+    }
+
+    // 같은 입력이면 항상 같은 [0, 1) 점수
+    private static double unitScore(long seed) {
+        long z = seed * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+}
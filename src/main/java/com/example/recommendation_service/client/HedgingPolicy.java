@@ -0,0 +1,143 @@
+package com.example.recommendation_service.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 지연 백분위 기반 hedged request.
+ * <p>
+ * 첫 호출이 최근 지연의 percentile(기본 p95)을 넘기면 같은 호출을 한 번 더 보내고, 먼저 값을 돌려준 쪽을
+ * 채택한 뒤 나머지는 취소합니다. 추가 호출은 전체 호출의 budget-ratio 이내로 제한하고(토큰 버킷),
+ * 요청 deadline 이 hedge 지연보다 적게 남았으면 보내지 않습니다.
+ * 첫 호출이 hedge 발송 전에 에러로 끝나면 그대로 에러를 전달하고(서킷 오픈 등 빠른 실패),
+ * 이미 hedge 를 보냈다면 hedge 가 성공할 수 있으므로 그 결과를 기다립니다.
+ */
+public class HedgingPolicy {
+
+    private static final int SAMPLE_SIZE = 1024;
+    private static final int MIN_SAMPLES = 100;
+    private static final int RECOMPUTE_EVERY = 64;
+    // 토큰 1개 = hedge 1회. 부동소수 없이 누적하기 위해 1000 배로 저장
+    private static final long TOKEN_SCALE = 1000;
+    private static final long MAX_TOKENS = 10 * TOKEN_SCALE;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long tokensPerCall;
+
+    private final long[] samples = new long[SAMPLE_SIZE];
+    private final AtomicLong recorded = new AtomicLong();
+    private volatile long hedgeDelayNanos = Long.MAX_VALUE;
+    private final AtomicLong tokens = new AtomicLong();
+
+    private final Counter hedgedCounter;
+    private final Counter hedgeWonCounter;
+    private final Counter budgetExhaustedCounter;
+
+    public HedgingPolicy(String client, boolean enabled, double percentile, Duration minDelay, double budgetRatio,
+                         MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.tokensPerCall = Math.round(budgetRatio * TOKEN_SCALE);
+        this.hedgedCounter = hedgeCounter(client, "hedged", meterRegistry);
+        this.hedgeWonCounter = hedgeCounter(client, "won", meterRegistry);
+        this.budgetExhaustedCounter = hedgeCounter(client, "budget-exhausted", meterRegistry);
+        Gauge.builder("recommendation.hedging.delay", this, p -> p.hedgeDelayNanos == Long.MAX_VALUE ? 0 : p.hedgeDelayNanos / 1e6)
+             .description("현재 hedge 발송 기준 지연(ms). 표본이 부족하면 0 (hedge 안 함)")
+             .tag("client", client)
+             .baseUnit("milliseconds")
+             .register(meterRegistry);
+    }
+
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        if (!enabled) {
+            return Mono.defer(call);
+        }
+        return Mono.deferContextual(context -> {
+            long startNanos = System.nanoTime();
+            tokens.getAndUpdate(current -> Math.min(MAX_TOKENS, current + tokensPerCall));
+            // hedge 가 이겨 취소된 첫 호출도 그때까지의 경과 시간(실제 지연의 하한)을 표본으로 남겨,
+            // 느린 호출이 표본에서 빠져 기준 지연이 점점 낮아지지 않도록 함
+            Mono<T> primary = Mono.defer(call)
+                                  .doFinally(signal -> record(System.nanoTime() - startNanos));
+
+            long delay = hedgeDelayNanos;
+            if (delay == Long.MAX_VALUE || RequestDeadline.remainingNanos(context) <= delay) {
+                return primary;
+            }
+
+            // hedge 발송 전에 첫 호출이 실패하면 hedge 를 기다리지 않고 바로 실패 (서킷 오픈 등 빠른 실패)
+            Sinks.One<Long> primaryFailed = Sinks.one();
+            AtomicReference<Throwable> primaryError = new AtomicReference<>();
+            Mono<T> watchedPrimary = primary.doOnError(e -> {
+                primaryError.set(e);
+                primaryFailed.tryEmitError(e);
+            });
+            Mono<T> hedge = Mono.firstWithSignal(Mono.delay(Duration.ofNanos(delay)), primaryFailed.asMono())
+                                .flatMap(tick -> {
+                                    if (!tryAcquireToken()) {
+                                        budgetExhaustedCounter.increment();
+                                        return Mono.<T>empty();
+                                    }
+                                    hedgedCounter.increment();
+                                    return Mono.defer(call)
+                                               .doOnNext(value -> hedgeWonCounter.increment());
+                                });
+            // 먼저 값을 돌려준 쪽을 채택하므로, hedge 발송 후 첫 호출이 실패해도 hedge 결과를 기다림.
+            // 둘 다 값 없이 끝나면 첫 호출의 에러를 그대로 전달
+            return Mono.firstWithValue(watchedPrimary, hedge)
+                       .onErrorMap(NoSuchElementException.class,
+                               e -> primaryError.get() != null ? primaryError.get() : e);
+        });
+    }
+
+    private boolean tryAcquireToken() {
+        while (true) {
+            long current = tokens.get();
+            if (current < TOKEN_SCALE) {
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - TOKEN_SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    // 정확한 동기화보다 비용이 중요하므로 표본 배열은 경합 시 덮어쓰기를 허용
+    private void record(long latencyNanos) {
+        long n = recorded.getAndIncrement();
+        samples[(int) (n % SAMPLE_SIZE)] = latencyNanos;
+        if (n + 1 >= MIN_SAMPLES && (n + 1) % RECOMPUTE_EVERY == 0) {
+            int size = (int) Math.min(n + 1, SAMPLE_SIZE);
+            long[] copy = Arrays.copyOf(samples, size);
+            Arrays.sort(copy);
+            long p = copy[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+            hedgeDelayNanos = Math.max(minDelayNanos, p);
+        }
+    }
+
+    Duration hedgeDelay() {
+        long delay = hedgeDelayNanos;
+        return delay == Long.MAX_VALUE ? null : Duration.ofNanos(delay);
+    }
+
+    private static Counter hedgeCounter(String client, String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("recommendation.hedging.requests")
+                      .description("hedge 요청 수 (hedged: 발송, won: hedge 가 먼저 응답, budget-exhausted: 예산 부족으로 생략)")
+                      .tag("client", client)
+                      .tag("outcome", outcome)
+                      .register(meterRegistry);
+    }
+}
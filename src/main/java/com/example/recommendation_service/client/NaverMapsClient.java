@@ -1,29 +1,44 @@
 package com.example.recommendation_service.client;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Component
 @Slf4j
 public class NaverMapsClient {
 
+    public static final String UNAVAILABLE_ADDRESS = "주소 확인 불가";
+
     private final WebClient webClient;
     private final String clientId;
     private final String clientSecret;
     private final ReactiveCircuitBreaker circuitBreaker;
+    private final int warmConnections;
+    private final HedgingPolicy hedgingPolicy;
+    private final Timer successTimer;
+    private final Timer errorTimer;
+    private final Timer circuitOpenTimer;
 
     @JsonIgnoreProperties(ignoreUnknown = true)
-    private record NaverGeocodeResponse(List<Result> results) {
+    record NaverGeocodeResponse(List<Result> results) {
         @JsonIgnoreProperties(ignoreUnknown = true)
         record Result(Region region, Land land) {}
         @JsonIgnoreProperties(ignoreUnknown = true)
@@ -34,17 +49,55 @@ public class NaverMapsClient {
         record Land(String name, String number1, String number2) {}
     }
 
-    public NaverMapsClient(WebClient.Builder builder,
+    public NaverMapsClient(@Qualifier("webClientBuilder") WebClient.Builder builder,
                            @Value("${naver.api.client-id}") String clientId,
                            @Value("${naver.api.client-secret}") String clientSecret,
-                           ReactiveCircuitBreakerFactory cbFactory) {
-        this.webClient = builder.baseUrl("https://naveropenapi.apigw.ntruss.com").build();
+                           @Value("${naver.api.base-url:https://naveropenapi.apigw.ntruss.com}") String baseUrl,
+                           @Value("${recommendation.http-client.naver.warm-connections:4}") int warmConnections,
+                           ReactiveCircuitBreakerFactory cbFactory,
+                           @Qualifier("naverHedgingPolicy") HedgingPolicy hedgingPolicy,
+                           MeterRegistry meterRegistry) {
+        this.webClient = builder.baseUrl(baseUrl).build();
         this.clientId = clientId;
         this.clientSecret = clientSecret;
+        this.warmConnections = warmConnections;
         this.circuitBreaker = cbFactory.create("naver-service");
+        this.hedgingPolicy = hedgingPolicy;
+        this.successTimer = geocodeTimer("success", meterRegistry);
+        this.errorTimer = geocodeTimer("error", meterRegistry);
+        this.circuitOpenTimer = geocodeTimer("circuit-open", meterRegistry);
+    }
+
+    // 기동 직후 풀에 커넥션을 미리 맺어(TLS 핸드셰이크 포함) 첫 요청들이 연결 비용을 치르지 않도록 함.
+    // 응답 코드는 상관없으며, 실패해도 요청 시점에 다시 연결합니다.
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpConnections() {
+        if (warmConnections <= 0) {
+            return;
+        }
+        Flux.range(0, warmConnections)
+            .flatMap(i -> webClient.head()
+                                   .uri("/")
+                                   .exchangeToMono(response -> response.releaseBody())
+                                   .onErrorResume(e -> Mono.empty()), warmConnections)
+            .then(Mono.fromRunnable(() -> log.info("Naver Maps 커넥션 워밍 완료. 커넥션 수: {}", warmConnections)))
+            .subscribe();
     }
 
     public Mono<String> reverseGeocode(double longitude, double latitude) {
+        return tryReverseGeocode(longitude, latitude)
+                .onErrorResume(throwable -> {
+                    log.warn("네이버 API 서킷 오픈. coords: {},{}", longitude, latitude);
+                    return Mono.just(UNAVAILABLE_ADDRESS);
+                });
+    }
+
+    /**
+     * Fallback 없이 역지오코딩을 수행합니다. 호출 실패나 서킷 오픈 시 에러로 종료되므로,
+     * 호출자가 실제 주소와 Fallback 문자열을 구분해야 할 때(예: 캐싱) 사용합니다.
+     * 요청 deadline 이 있으면 남은 시간만 기다리고, 느린 호출은 p95 를 넘기면 hedge 합니다.
+     */
+    public Mono<String> tryReverseGeocode(double longitude, double latitude) {
         String coords = String.format("%s,%s", longitude, latitude);
 
         Mono<String> apiCall = webClient.get()
@@ -58,16 +111,27 @@ public class NaverMapsClient {
                                         .header("X-NCP-APIGW-API-KEY", clientSecret)
                                         .retrieve()
                                         .bodyToMono(NaverGeocodeResponse.class)
-                                        .map(this::formatAddress)
+                                        .map(NaverMapsClient::formatAddress)
                                         .doOnError(e -> log.error("네이버 지도 API 에러. coords: {}", coords, e));
 
-        return circuitBreaker.run(apiCall, throwable -> {
-            log.warn("네이버 API 서킷 오픈. coords: {}", coords);
-            return Mono.just("주소 확인 불가");
-        });
+        return RequestDeadline.bound(hedgingPolicy.execute(() -> {
+            long startNanos = System.nanoTime();
+            return circuitBreaker.run(apiCall)
+                                 .doOnSuccess(address -> successTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS))
+                                 .doOnError(e -> (e instanceof CallNotPermittedException ? circuitOpenTimer : errorTimer)
+                                         .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS));
+        }));
+    }
+
+    private static Timer geocodeTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("naver.geocode.latency")
+                    .description("Naver Maps 역지오코딩 호출 소요 시간")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
     }
 
-    private String formatAddress(NaverGeocodeResponse response) {
+    static String formatAddress(NaverGeocodeResponse response) {
         if (response == null || response.results() == null || response.results().isEmpty()) {
             return "알 수 없는 주소";
         }
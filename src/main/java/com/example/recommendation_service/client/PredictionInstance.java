@@ -0,0 +1,9 @@
+package com.example.recommendation_service.client;
+
+/**
+ * Vertex AI 수요 예측 모델의 입력 한 건.
+ * 요청 시 {@link VertexPredictionCodec} 이 모델 스키마(모든 값을 문자열로)에 맞춰 직렬화합니다.
+ * record 의 equals/hashCode 는 배치 내 중복 제거 키로도 사용됩니다.
+ */
+public record PredictionInstance(double longitude, double latitude, int timeSlot, int dayOfWeek) {
+}
@@ -0,0 +1,66 @@
+package com.example.recommendation_service.client;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * 요청 단위 종료 시각(deadline)을 Reactor Context 로 전달합니다.
+ * <p>
+ * 진입점에서 {@link #within(Duration)} 으로 예산을 걸면, 하위 외부 호출은 {@link #bound(Mono)} 로
+ * 남은 시간만큼만 기다립니다. 이미 바깥에서 건 deadline 이 있으면 더 이른 쪽을 유지합니다.
+ * deadline 이 없는 호출(사전 채점 등 백그라운드 작업)은 그대로 통과합니다.
+ */
+public final class RequestDeadline {
+
+    private static final Class<RequestDeadline> KEY = RequestDeadline.class;
+
+    private RequestDeadline() {
+    }
+
+    public static Function<Context, Context> within(Duration budget) {
+        return context -> {
+            long deadline = System.nanoTime() + budget.toNanos();
+            if (context.hasKey(KEY) && context.<Long>get(KEY) - deadline <= 0) {
+                return context;
+            }
+            return context.put(KEY, deadline);
+        };
+    }
+
+    /**
+     * @return 남은 시간(ns). deadline 이 없으면 {@link Long#MAX_VALUE}
+     */
+    public static long remainingNanos(ContextView context) {
+        if (!context.hasKey(KEY)) {
+            return Long.MAX_VALUE;
+        }
+        return context.<Long>get(KEY) - System.nanoTime();
+    }
+
+    public static <T> Mono<T> bound(Mono<T> mono) {
+        return bound(mono, Duration.ZERO);
+    }
+
+    /**
+     * 남은 시간에서 reserve 만큼을 뒤 단계 몫으로 남기고, 그 안에 끝나지 않으면 {@link TimeoutException} 으로 종료합니다.
+     */
+    public static <T> Mono<T> bound(Mono<T> mono, Duration reserve) {
+        return Mono.deferContextual(context -> {
+            long remaining = remainingNanos(context);
+            if (remaining == Long.MAX_VALUE) {
+                return mono;
+            }
+            long available = remaining - reserve.toNanos();
+            if (available <= 0) {
+                return Mono.error(new TimeoutException("요청 deadline 초과"));
+            }
+            return mono.timeout(Duration.ofNanos(available),
+                    Mono.error(() -> new TimeoutException("요청 deadline 초과")));
+        });
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.recommendation_service.client;
+
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Vertex AI 호출용 OAuth 액세스 토큰을 공유/캐싱합니다.
+ * <ul>
+ *     <li>Credential 은 최초 1회만 로드하고 재사용합니다.</li>
+ *     <li>만료 refresh-ahead 전에 백그라운드로 미리 갱신합니다.</li>
+ *     <li>동시에 갱신이 필요한 호출자들은 하나의 in-flight 갱신 결과를 공유합니다.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class VertexAccessTokenProvider {
+
+    private static final String CLOUD_PLATFORM_SCOPE = "https://www.googleapis.com/auth/cloud-platform";
+    private static final Duration DEFAULT_TOKEN_LIFETIME = Duration.ofHours(1);
+    // 만료 직전 토큰이 전송 중 만료되지 않도록 두는 여유
+    private static final long EXPIRY_SKEW_MILLIS = 10_000;
+
+    private record CachedToken(String value, long expiresAtMillis) {
+    }
+
+    private final String staticToken;
+    private final Duration refreshAhead;
+    private final Duration retryDelay;
+    private final Timer refreshSuccessTimer;
+    private final Timer refreshFailureTimer;
+    private final Counter backgroundRefreshCounter;
+
+    private volatile GoogleCredentials credentials;
+    private volatile CachedToken cached;
+    private final AtomicReference<Mono<CachedToken>> inFlight = new AtomicReference<>();
+    private volatile Disposable scheduledRefresh;
+
+    @Autowired
+    public VertexAccessTokenProvider(@Value("${gcp.vertex-ai.token.static-value:}") String staticToken,
+                                     @Value("${gcp.vertex-ai.token.refresh-ahead:5m}") Duration refreshAhead,
+                                     @Value("${gcp.vertex-ai.token.retry-delay:10s}") Duration retryDelay,
+                                     MeterRegistry meterRegistry) {
+        this(null, staticToken, refreshAhead, retryDelay, meterRegistry);
+    }
+
+    // 테스트에서 로컬 토큰 엔드포인트를 바라보는 Credential 을 주입하기 위한 생성자
+    VertexAccessTokenProvider(GoogleCredentials credentials, Duration refreshAhead, Duration retryDelay,
+                              MeterRegistry meterRegistry) {
+        this(credentials, null, refreshAhead, retryDelay, meterRegistry);
+    }
+
+    private VertexAccessTokenProvider(GoogleCredentials credentials, String staticToken, Duration refreshAhead,
+                                      Duration retryDelay, MeterRegistry meterRegistry) {
+        this.credentials = credentials;
+        this.staticToken = staticToken == null || staticToken.isBlank() ? null : staticToken;
+        this.refreshAhead = refreshAhead;
+        this.retryDelay = retryDelay;
+        this.refreshSuccessTimer = Timer.builder("vertex.token.refresh")
+                                        .description("Vertex AI 액세스 토큰 갱신 소요 시간")
+                                        .tag("outcome", "success")
+                                        .register(meterRegistry);
+        this.refreshFailureTimer = Timer.builder("vertex.token.refresh")
+                                        .description("Vertex AI 액세스 토큰 갱신 소요 시간")
+                                        .tag("outcome", "failure")
+                                        .register(meterRegistry);
+        this.backgroundRefreshCounter = Counter.builder("vertex.token.refresh.background")
+                                               .description("만료 전 백그라운드 토큰 갱신 횟수")
+                                               .register(meterRegistry);
+        Gauge.builder("vertex.token.ttl.seconds", this, p -> p.secondsUntilExpiry())
+             .description("캐시된 토큰의 남은 유효 시간(초)")
+             .register(meterRegistry);
+    }
+
+    public Mono<String> getAccessToken() {
+        if (staticToken != null) {
+            // 로컬 stub 서버 대상 부하 테스트용. Google Credential 을 로드하지 않습니다.
+            return Mono.just(staticToken);
+        }
+        return Mono.defer(() -> {
+            CachedToken token = cached;
+            if (token != null && token.expiresAtMillis() - EXPIRY_SKEW_MILLIS > System.currentTimeMillis()) {
+                return Mono.just(token.value());
+            }
+            return refresh().map(CachedToken::value);
+        });
+    }
+
+    /**
+     * 진행 중인 갱신이 있으면 그 결과를 공유하고, 없으면 새 갱신을 시작합니다.
+     * 호출자가 구독을 취소해도 갱신 자체는 끝까지 진행되어 다른 호출자에게 전달됩니다.
+     */
+    private Mono<CachedToken> refresh() {
+        while (true) {
+            Mono<CachedToken> existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+
+            Sinks.One<CachedToken> sink = Sinks.one();
+            Mono<CachedToken> shared = sink.asMono();
+            if (inFlight.compareAndSet(null, shared)) {
+                long startNanos = System.nanoTime();
+                Mono.fromCallable(this::fetchToken)
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .subscribe(token -> {
+                        refreshSuccessTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                        cached = token;
+                        inFlight.set(null);
+                        scheduleRefresh(token.expiresAtMillis() - refreshAhead.toMillis() - System.currentTimeMillis());
+                        sink.tryEmitValue(token);
+                    }, e -> {
+                        refreshFailureTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                        log.error("Vertex AI 액세스 토큰 갱신 실패", e);
+                        inFlight.set(null);
+                        // 아직 유효한 토큰이 남아 있으면 잠시 후 다시 시도
+                        CachedToken current = cached;
+                        if (current != null && current.expiresAtMillis() - EXPIRY_SKEW_MILLIS > System.currentTimeMillis()) {
+                            scheduleRefresh(retryDelay.toMillis());
+                        }
+                        sink.tryEmitError(e);
+                    });
+                return shared;
+            }
+        }
+    }
+
+    private void scheduleRefresh(long delayMillis) {
+        Disposable previous = scheduledRefresh;
+        if (previous != null) {
+            previous.dispose();
+        }
+        scheduledRefresh = Schedulers.parallel().schedule(() -> {
+            backgroundRefreshCounter.increment();
+            refresh().subscribe(
+                    token -> log.debug("Vertex AI 액세스 토큰 백그라운드 갱신 완료"),
+                    e -> log.warn("Vertex AI 액세스 토큰 백그라운드 갱신 실패: {}", e.getMessage()));
+        }, Math.max(delayMillis, 0), TimeUnit.MILLISECONDS);
+    }
+
+    private CachedToken fetchToken() throws IOException {
+        GoogleCredentials creds = credentials;
+        if (creds == null) {
+            creds = GoogleCredentials.getApplicationDefault()
+                                     .createScoped(Collections.singleton(CLOUD_PLATFORM_SCOPE));
+            credentials = creds;
+        }
+        AccessToken accessToken = creds.refreshAccessToken();
+        long expiresAt = accessToken.getExpirationTime() != null
+                ? accessToken.getExpirationTime().getTime()
+                : System.currentTimeMillis() + DEFAULT_TOKEN_LIFETIME.toMillis();
+        return new CachedToken(accessToken.getTokenValue(), expiresAt);
+    }
+
+    private double secondsUntilExpiry() {
+        CachedToken token = cached;
+        return token == null ? 0.0 : Math.max(0, token.expiresAtMillis() - System.currentTimeMillis()) / 1000.0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Disposable task = scheduledRefresh;
+        if (task != null) {
+            task.dispose();
+        }
+    }
+}
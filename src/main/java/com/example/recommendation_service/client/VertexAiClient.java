@@ -1,22 +1,26 @@
 package com.example.recommendation_service.client;
 
-import com.google.auth.oauth2.GoogleCredentials;
-import com.google.auth.oauth2.AccessToken;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
-import com.fasterxml.jackson.databind.JsonNode;
 
-import java.util.Collections;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @Slf4j
@@ -24,98 +28,133 @@ public class VertexAiClient {
     private final String endpointId;
     private final String projectId;
     private final String location;
+    private final String host;
+    private final String predictUrl;
+    private final int warmConnections;
     private final WebClient webClient;
     private final ReactiveCircuitBreaker circuitBreaker;
+    private final VertexAccessTokenProvider tokenProvider;
+    private final HedgingPolicy hedgingPolicy;
+    private final Timer successTimer;
+    private final Timer errorTimer;
+    private final Timer circuitOpenTimer;
+    private final DistributionSummary requestBytes;
+    private final DistributionSummary responseBytes;
 
     public VertexAiClient(@Value("${gcp.project-id}") String projectId,
                           @Value("${gcp.location}") String location,
                           @Value("${gcp.vertex-ai.endpoint-id}") String endpointId,
+                          @Value("${gcp.vertex-ai.base-url:}") String baseUrl,
+                          @Value("${recommendation.http-client.vertex.warm-connections:4}") int warmConnections,
                           @Qualifier("vertexWebClientBuilder") WebClient.Builder builder,
-                          ReactiveCircuitBreakerFactory cbFactory) {
+                          ReactiveCircuitBreakerFactory cbFactory,
+                          VertexAccessTokenProvider tokenProvider,
+                          @Qualifier("vertexHedgingPolicy") HedgingPolicy hedgingPolicy,
+                          MeterRegistry meterRegistry) {
         this.projectId = projectId;
         this.location = location;
         this.endpointId = endpointId;
+        // base-url 미지정 시 리전별 Vertex AI 엔드포인트 (부하 테스트 시 로컬 stub 서버로 교체)
+        this.host = baseUrl == null || baseUrl.isBlank()
+                ? String.format("https://%s-aiplatform.googleapis.com", location)
+                : baseUrl;
+        this.warmConnections = warmConnections;
+        this.predictUrl = String.format("%s/v1/projects/%s/locations/%s/endpoints/%s:predict",
+                host, projectId, location, endpointId);
         this.webClient = builder.build();
         this.circuitBreaker = cbFactory.create("vertex-service");
+        this.tokenProvider = tokenProvider;
+        this.hedgingPolicy = hedgingPolicy;
+        this.successTimer = predictTimer("success", meterRegistry);
+        this.errorTimer = predictTimer("error", meterRegistry);
+        this.circuitOpenTimer = predictTimer("circuit-open", meterRegistry);
+        this.requestBytes = payloadSummary("request", meterRegistry);
+        this.responseBytes = payloadSummary("response", meterRegistry);
 
-        log.info("VertexAiClient created. Project: {}, Location: {}, Endpoint: {}",
-                projectId, location, endpointId);
+        log.info("VertexAiClient created. Project: {}, Location: {}, Endpoint: {}, Url: {}",
+                projectId, location, endpointId, predictUrl);
     }
 
-    public Mono<Double> predict(double longitude, double latitude, int timeSlot, int dayOfWeek, String city) {
-        String apiUrl = String.format("https://%s-aiplatform.googleapis.com/v1/projects/%s/locations/%s/endpoints/%s:predict",
-                location, projectId, location, endpointId);
-
-        Map<String, Object> instance = new HashMap<>();
-        instance.put("city", city);
-        instance.put("latitude", String.valueOf(latitude));
-        instance.put("longitude", String.valueOf(longitude));
-        instance.put("time_slot", String.valueOf(timeSlot));
-        instance.put("day_of_week", String.valueOf(dayOfWeek));
-
-        Map<String, Object> requestBody = Map.of("instances", List.of(instance));
-
-        Mono<Double> apiCall = getAccessToken().flatMap(token ->
-                webClient.post()
-                         .uri(apiUrl)
-                         .header("Authorization", "Bearer " + token)
-                         .bodyValue(requestBody)
-                         .retrieve()
-                         .bodyToMono(JsonNode.class)
-                         .map(responseNode -> {
-                             if (responseNode.has("predictions") &&
-                                     !responseNode.get("predictions").isEmpty()) {
-                                 return responseNode.get("predictions").get(0).get("value").asDouble();
-                             }
-                             log.warn("Vertex AI 예측값 없음: {}", responseNode);
-                             return 0.0;
-                         })
-        );
+    // 기동 직후 풀에 커넥션을 미리 맺어(TLS 핸드셰이크 포함) 첫 요청들이 연결 비용을 치르지 않도록 함.
+    // 응답 코드는 상관없으며, 실패해도 요청 시점에 다시 연결합니다.
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpConnections() {
+        if (warmConnections <= 0) {
+            return;
+        }
+        Flux.range(0, warmConnections)
+            .flatMap(i -> webClient.head()
+                                   .uri(host)
+                                   .exchangeToMono(response -> response.releaseBody())
+                                   .onErrorResume(e -> Mono.empty()), warmConnections)
+            .then(Mono.fromRunnable(() -> log.info("Vertex AI 커넥션 워밍 완료. host: {}, 커넥션 수: {}", host, warmConnections)))
+            .subscribe();
+    }
 
-        return circuitBreaker.run(apiCall, throwable -> {
-            log.warn("Vertex AI 호출 실패 또는 서킷 오픈 (Fallback: 0.0 반환). Error: {}", throwable.getMessage());
-            return Mono.just(0.0);
-        });
+    public Mono<double[]> predictBulk(List<PredictionInstance> instances) {
+        return tryPredictBulk(instances)
+                .onErrorResume(throwable -> {
+                    log.warn("Vertex AI Bulk 호출 실패 (Fallback). Error: {}", throwable.getMessage());
+                    return Mono.just(new double[instances.size()]); // 에러 시 0.0 배열 반환
+                });
     }
 
-    public Mono<List<Double>> predictBulk(List<Map<String, Object>> instances) {
-        String apiUrl = String.format("https://%s-aiplatform.googleapis.com/v1/projects/%s/locations/%s/endpoints/%s:predict",
-                location, projectId, location, endpointId);
+    /**
+     * Fallback 없이 Bulk 예측을 수행합니다. 호출 실패나 서킷 오픈 시 에러로 종료되므로,
+     * 호출자가 실제 예측값과 Fallback 값을 구분해야 할 때(예: 캐싱) 사용합니다.
+     * 요청 deadline 이 있으면 남은 시간만 기다리고, 느린 호출은 p95 를 넘기면 hedge 합니다.
+     *
+     * @return instances 와 같은 순서의 점수 (응답 개수가 다르면 응답 개수만큼)
+     */
+    public Mono<double[]> tryPredictBulk(List<PredictionInstance> instances) {
+        Mono<double[]> apiCall = tokenProvider.getAccessToken().flatMap(token -> {
+            byte[] request = VertexPredictionCodec.writeRequest(instances);
+            requestBytes.record(request.length);
+            return webClient.post()
+                            .uri(predictUrl)
+                            .header("Authorization", "Bearer " + token)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(request)
+                            .retrieve()
+                            .bodyToMono(byte[].class)
+                            .map(body -> {
+                                responseBytes.record(body.length);
+                                return parsePredictions(body, instances.size());
+                            });
+        });
 
-        // 전달받은 다수의 후보군을 그대로 instances 배열에 넣습니다.
-        Map<String, Object> requestBody = Map.of("instances", instances);
+        // 서킷 오픈으로 즉시 거절된 호출도 outcome=circuit-open 으로 구분해 기록
+        return RequestDeadline.bound(hedgingPolicy.execute(() -> {
+            long startNanos = System.nanoTime();
+            return circuitBreaker.run(apiCall)
+                                 .doOnSuccess(scores -> successTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS))
+                                 .doOnError(e -> (e instanceof CallNotPermittedException ? circuitOpenTimer : errorTimer)
+                                         .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS));
+        }));
+    }
 
-        Mono<List<Double>> apiCall = getAccessToken().flatMap(token ->
-                webClient.post()
-                         .uri(apiUrl)
-                         .header("Authorization", "Bearer " + token)
-                         .bodyValue(requestBody)
-                         .retrieve()
-                         .bodyToMono(JsonNode.class)
-                         .map(responseNode -> {
-                             List<Double> scores = new java.util.ArrayList<>();
-                             if (responseNode.has("predictions")) {
-                                 // 예측된 결과 배열을 순회하며 점수 리스트로 변환
-                                 for (JsonNode pred : responseNode.get("predictions")) {
-                                     scores.add(pred.get("value").asDouble());
-                                 }
-                             }
-                             return scores;
-                         })
-        );
+    private static Timer predictTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("vertex.predict.latency")
+                    .description("Vertex AI :predict 호출 소요 시간 (토큰 조회 포함)")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+    }
 
-        return circuitBreaker.run(apiCall, throwable -> {
-            log.warn("Vertex AI Bulk 호출 실패 (Fallback). Error: {}", throwable.getMessage());
-            return Mono.just(Collections.nCopies(instances.size(), 0.0)); // 에러 시 0.0 리스트 반환
-        });
+    private static DistributionSummary payloadSummary(String direction, MeterRegistry meterRegistry) {
+        return DistributionSummary.builder("vertex.predict.payload")
+                                  .description("Vertex AI :predict 요청/응답 본문 크기")
+                                  .baseUnit("bytes")
+                                  .tag("direction", direction)
+                                  .publishPercentileHistogram()
+                                  .register(meterRegistry);
     }
 
-    private Mono<String> getAccessToken() {
-        return Mono.fromCallable(() -> {
-            GoogleCredentials credentials = GoogleCredentials.getApplicationDefault()
-                                                             .createScoped(Collections.singleton("https://www.googleapis.com/auth/cloud-platform"));
-            AccessToken accessToken = credentials.refreshAccessToken();
-            return accessToken.getTokenValue();
-        }).subscribeOn(Schedulers.boundedElastic());
+    static double[] parsePredictions(byte[] body, int expectedSize) {
+        try {
+            return VertexPredictionCodec.readPredictions(body, expectedSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Vertex AI 응답 파싱 실패", e);
+        }
     }
-}
\ No newline at end of file
+}
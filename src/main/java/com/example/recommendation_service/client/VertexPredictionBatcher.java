@@ -0,0 +1,176 @@
+package com.example.recommendation_service.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 동시에 들어온 여러 요청의 Vertex AI 예측 instance 를 짧은 window 동안 모아 한 번의 :predict 로 보냅니다.
+ * <p>
+ * 같은 내용의 instance 는 하나로 합쳐 보내고(dedup), 응답 점수를 각 호출자에게 원래 순서대로 돌려줍니다.
+ * window 가 지나거나 max-instances 에 도달하면 즉시 전송합니다. 비활성화 시 바로 {@link VertexAiClient} 로 위임합니다.
+ */
+@Component
+@Slf4j
+public class VertexPredictionBatcher {
+
+    // 배치에 합류한 호출자. positions[i] = 호출자의 i 번째 instance 가 배치 내 몇 번째인지,
+    // deadlineNanos = 호출자의 요청 deadline 시각 (없으면 Long.MAX_VALUE)
+    private record Waiter(int[] positions, Sinks.One<double[]> sink, long submittedNanos, long deadlineNanos) {
+    }
+
+    private static final class PendingBatch {
+        private final LinkedHashMap<PredictionInstance, Integer> positions = new LinkedHashMap<>();
+        private final List<Waiter> waiters = new ArrayList<>();
+        private int submittedInstances;
+        private Disposable timer;
+    }
+
+    private final VertexAiClient vertexAiClient;
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxInstances;
+
+    private final DistributionSummary batchSizeSummary;
+    private final Timer queueWaitTimer;
+    private final Counter deduplicatedCounter;
+
+    private final Object lock = new Object();
+    private PendingBatch pending;
+
+    public VertexPredictionBatcher(VertexAiClient vertexAiClient,
+                                   @Value("${recommendation.vertex-batching.enabled:true}") boolean enabled,
+                                   @Value("${recommendation.vertex-batching.window:10ms}") Duration window,
+                                   @Value("${recommendation.vertex-batching.max-instances:200}") int maxInstances,
+                                   MeterRegistry meterRegistry) {
+        this.vertexAiClient = vertexAiClient;
+        this.enabled = enabled;
+        this.window = window;
+        this.maxInstances = maxInstances;
+        this.batchSizeSummary = DistributionSummary.builder("vertex.batch.size")
+                                                   .description("한 번의 :predict 호출에 담긴 instance 수 (dedup 후)")
+                                                   .publishPercentileHistogram()
+                                                   .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("vertex.batch.queue.wait")
+                                   .description("요청이 배치에 들어간 뒤 전송되기까지 대기한 시간")
+                                   .publishPercentileHistogram()
+                                   .register(meterRegistry);
+        this.deduplicatedCounter = Counter.builder("vertex.batch.deduplicated")
+                                          .description("배치 내 중복으로 합쳐진 instance 수")
+                                          .register(meterRegistry);
+    }
+
+    /**
+     * 배치 호출은 여러 요청이 공유하므로 호출자 중 가장 늦은 deadline 까지만 진행하고, 각 호출자는 자기 deadline 까지만
+     * 기다립니다. deadline 이 없는 호출자(사전 채점 등)가 섞이면 배치 호출에도 deadline 을 걸지 않습니다.
+     *
+     * @return instances 와 같은 순서의 점수. 배치 호출이 실패하면 에러로 종료 (Fallback 없음)
+     */
+    public Mono<double[]> predict(List<PredictionInstance> instances) {
+        if (!enabled) {
+            return vertexAiClient.tryPredictBulk(instances);
+        }
+
+        return Mono.deferContextual(context -> {
+            long remaining = RequestDeadline.remainingNanos(context);
+            long submittedNanos = System.nanoTime();
+            long deadlineNanos = remaining == Long.MAX_VALUE ? Long.MAX_VALUE : submittedNanos + remaining;
+            Sinks.One<double[]> sink = Sinks.one();
+            int[] positions = new int[instances.size()];
+            PendingBatch full = null;
+
+            synchronized (lock) {
+                if (pending == null) {
+                    PendingBatch created = new PendingBatch();
+                    created.timer = Schedulers.parallel().schedule(() -> flushIfPending(created),
+                            window.toNanos(), TimeUnit.NANOSECONDS);
+                    pending = created;
+                }
+                PendingBatch batch = pending;
+                for (int i = 0; i < positions.length; i++) {
+                    positions[i] = batch.positions.computeIfAbsent(instances.get(i), k -> batch.positions.size());
+                }
+                batch.waiters.add(new Waiter(positions, sink, submittedNanos, deadlineNanos));
+                batch.submittedInstances += instances.size();
+                if (batch.positions.size() >= maxInstances) {
+                    full = batch;
+                    pending = null;
+                }
+            }
+
+            if (full != null) {
+                full.timer.dispose();
+                send(full);
+            }
+            return RequestDeadline.bound(sink.asMono());
+        });
+    }
+
+    private void flushIfPending(PendingBatch batch) {
+        synchronized (lock) {
+            if (pending != batch) {
+                return; // 이미 크기 초과로 전송됨
+            }
+            pending = null;
+        }
+        send(batch);
+    }
+
+    private void send(PendingBatch batch) {
+        long now = System.nanoTime();
+        long latestDeadline = now;
+        for (Waiter waiter : batch.waiters) {
+            queueWaitTimer.record(now - waiter.submittedNanos(), TimeUnit.NANOSECONDS);
+            if (waiter.deadlineNanos() == Long.MAX_VALUE || latestDeadline == Long.MAX_VALUE) {
+                latestDeadline = Long.MAX_VALUE;
+            } else if (waiter.deadlineNanos() - latestDeadline > 0) {
+                latestDeadline = waiter.deadlineNanos();
+            }
+        }
+        int distinct = batch.positions.size();
+        batchSizeSummary.record(distinct);
+        deduplicatedCounter.increment(batch.submittedInstances - distinct);
+
+        List<PredictionInstance> instances = new ArrayList<>(batch.positions.keySet());
+
+        Mono<double[]> call = vertexAiClient.tryPredictBulk(instances);
+        if (latestDeadline != Long.MAX_VALUE) {
+            // 모든 호출자가 더는 기다리지 않는 시점 이후로 배치 호출(및 hedge)이 이어지지 않도록 함
+            call = call.contextWrite(RequestDeadline.within(Duration.ofNanos(latestDeadline - now)));
+        }
+        call.subscribe(scores -> {
+            if (scores.length < distinct) {
+                IllegalStateException mismatch = new IllegalStateException(
+                        "Vertex AI 예측값 개수 불일치. 요청: " + distinct + ", 응답: " + scores.length);
+                batch.waiters.forEach(waiter -> waiter.sink().tryEmitError(mismatch));
+                return;
+            }
+            for (Waiter waiter : batch.waiters) {
+                int[] positions = waiter.positions();
+                double[] own = new double[positions.length];
+                for (int i = 0; i < positions.length; i++) {
+                    own[i] = scores[positions[i]];
+                }
+                waiter.sink().tryEmitValue(own);
+            }
+        }, e -> {
+            log.warn("Vertex AI 배치 호출 실패. instance 수: {}, Error: {}", distinct, e.getMessage());
+            batch.waiters.forEach(waiter -> waiter.sink().tryEmitError(e));
+        }, () -> batch.waiters.forEach(waiter -> waiter.sink().tryEmitError(
+                new IllegalStateException("Vertex AI 응답이 비어 있습니다."))));
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.recommendation_service.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Vertex AI :predict 요청/응답의 할당이 적은 직렬화.
+ * <ul>
+ *     <li>요청: instance 별 HashMap/String 없이 하나의 버퍼에 JSON 을 바로 기록합니다.</li>
+ *     <li>응답: JsonNode 트리 없이 predictions 배열을 토큰 단위로 읽어 double[] 로 채웁니다.</li>
+ * </ul>
+ */
+final class VertexPredictionCodec {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final double[] EMPTY = new double[0];
+    // instance 한 건의 대략적인 JSON 길이
+    private static final int INSTANCE_SIZE_HINT = 110;
+
+    private VertexPredictionCodec() {
+    }
+
+    /**
+     * {"instances":[{"city":" ","latitude":"..","longitude":"..","time_slot":"..","day_of_week":".."}, ...]}
+     * 모델 스키마가 문자열 입력이므로 숫자도 따옴표로 감쌉니다 (값은 String.valueOf 와 동일한 표기).
+     */
+    static byte[] writeRequest(List<PredictionInstance> instances) {
+        StringBuilder sb = new StringBuilder(16 + instances.size() * INSTANCE_SIZE_HINT);
+        sb.append("{\"instances\":[");
+        for (int i = 0; i < instances.size(); i++) {
+            PredictionInstance instance = instances.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"city\":\" \",\"latitude\":\"").append(instance.latitude())
+              .append("\",\"longitude\":\"").append(instance.longitude())
+              .append("\",\"time_slot\":\"").append(instance.timeSlot())
+              .append("\",\"day_of_week\":\"").append(instance.dayOfWeek())
+              .append("\"}");
+        }
+        sb.append("]}");
+
+        // 모두 ASCII 이므로 인코더 없이 바로 복사
+        byte[] bytes = new byte[sb.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) sb.charAt(i);
+        }
+        return bytes;
+    }
+
+    static double[] readPredictions(byte[] body, int expectedSize) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            return readPredictions(parser, expectedSize);
+        }
+    }
+
+    /**
+     * 최상위 predictions 배열의 점수를 순서대로 읽습니다. 원소는 {"value": n} 객체 또는 숫자이며,
+     * 값이 없는 원소는 0.0 으로 채웁니다. predictions 가 없으면 빈 배열을 반환합니다.
+     */
+    static double[] readPredictions(JsonParser parser, int expectedSize) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return EMPTY;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("predictions".equals(field) && value == JsonToken.START_ARRAY) {
+                return readArray(parser, expectedSize);
+            }
+            parser.skipChildren();
+        }
+        return EMPTY;
+    }
+
+    private static double[] readArray(JsonParser parser, int expectedSize) throws IOException {
+        double[] scores = new double[Math.max(expectedSize, 8)];
+        int count = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (count == scores.length) {
+                scores = Arrays.copyOf(scores, count * 2);
+            }
+            scores[count++] = token == JsonToken.START_OBJECT ? readValueField(parser) : readScalar(parser, token);
+        }
+        return count == scores.length ? scores : Arrays.copyOf(scores, count);
+    }
+
+    private static double readValueField(JsonParser parser) throws IOException {
+        double score = 0.0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("value".equals(field)) {
+                score = readScalar(parser, token);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return score;
+    }
+
+    private static double readScalar(JsonParser parser, JsonToken token) throws IOException {
+        return switch (token) {
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case VALUE_STRING -> parser.getValueAsDouble(0.0);
+            case START_ARRAY, START_OBJECT -> {
+                parser.skipChildren();
+                yield 0.0;
+            }
+            default -> 0.0;
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.recommendation_service.config;
+
+import com.example.recommendation_service.client.HedgingPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class HedgingConfig {
+
+    @Bean
+    public HedgingPolicy vertexHedgingPolicy(@Value("${recommendation.hedging.vertex.enabled:true}") boolean enabled,
+                                             @Value("${recommendation.hedging.vertex.percentile:0.95}") double percentile,
+                                             @Value("${recommendation.hedging.vertex.min-delay:100ms}") Duration minDelay,
+                                             @Value("${recommendation.hedging.vertex.budget-ratio:0.05}") double budgetRatio,
+                                             MeterRegistry meterRegistry) {
+        return new HedgingPolicy("vertex", enabled, percentile, minDelay, budgetRatio, meterRegistry);
+    }
+
+    @Bean
+    public HedgingPolicy naverHedgingPolicy(@Value("${recommendation.hedging.naver.enabled:true}") boolean enabled,
+                                            @Value("${recommendation.hedging.naver.percentile:0.95}") double percentile,
+                                            @Value("${recommendation.hedging.naver.min-delay:50ms}") Duration minDelay,
+                                            @Value("${recommendation.hedging.naver.budget-ratio:0.05}") double budgetRatio,
+                                            MeterRegistry meterRegistry) {
+        return new HedgingPolicy("naver", enabled, percentile, minDelay, budgetRatio, meterRegistry);
+    }
+}
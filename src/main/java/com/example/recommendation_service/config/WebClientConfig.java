@@ -1,33 +1,120 @@
 package com.example.recommendation_service.config;
 
 import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 import java.time.Duration;
 
+/**
+ * 외부 API 별 전용 커넥션 풀.
+ * <p>
+ * 풀 크기/대기열/유휴 정리 주기를 명시해 burst 시 커넥션을 새로 맺고 TLS 핸드셰이크를 반복하지 않도록 합니다.
+ * 풀/클라이언트 지표는 Micrometer 로 노출됩니다(reactor.netty.connection.provider.*, reactor.netty.http.client.*).
+ * Vertex AI 는 HTTP/2(ALPN) 로 하나의 커넥션에 요청을 다중화합니다.
+ */
 @Configuration
+@Slf4j
 public class WebClientConfig {
 
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider naverConnectionProvider(
+            @Value("${recommendation.http-client.naver.max-connections:50}") int maxConnections,
+            @Value("${recommendation.http-client.naver.pending-acquire-max-count:500}") int pendingAcquireMaxCount,
+            @Value("${recommendation.http-client.naver.pending-acquire-timeout:1s}") Duration pendingAcquireTimeout,
+            @Value("${recommendation.http-client.naver.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${recommendation.http-client.naver.max-life-time:5m}") Duration maxLifeTime) {
+        return connectionProvider("naver", maxConnections, pendingAcquireMaxCount, pendingAcquireTimeout, maxIdleTime, maxLifeTime);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider vertexConnectionProvider(
+            @Value("${recommendation.http-client.vertex.max-connections:50}") int maxConnections,
+            @Value("${recommendation.http-client.vertex.pending-acquire-max-count:500}") int pendingAcquireMaxCount,
+            @Value("${recommendation.http-client.vertex.pending-acquire-timeout:1s}") Duration pendingAcquireTimeout,
+            @Value("${recommendation.http-client.vertex.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${recommendation.http-client.vertex.max-life-time:5m}") Duration maxLifeTime) {
+        return connectionProvider("vertex", maxConnections, pendingAcquireMaxCount, pendingAcquireTimeout, maxIdleTime, maxLifeTime);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider peerConnectionProvider(
+            @Value("${recommendation.http-client.peer.max-connections:50}") int maxConnections,
+            @Value("${recommendation.http-client.peer.pending-acquire-max-count:500}") int pendingAcquireMaxCount,
+            @Value("${recommendation.http-client.peer.pending-acquire-timeout:500ms}") Duration pendingAcquireTimeout,
+            @Value("${recommendation.http-client.peer.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${recommendation.http-client.peer.max-life-time:5m}") Duration maxLifeTime) {
+        return connectionProvider("peer", maxConnections, pendingAcquireMaxCount, pendingAcquireTimeout, maxIdleTime, maxLifeTime);
+    }
+
+    @Bean
+    public WebClient.Builder webClientBuilder(@Qualifier("naverConnectionProvider") ConnectionProvider connectionProvider,
+                                              @Value("${recommendation.http-client.naver.http2:false}") boolean http2) {
+        HttpClient httpClient = httpClient(connectionProvider, http2, "naver-reverse-geocode")
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 2000)
+                .responseTimeout(Duration.ofMillis(3500));
+
+        return WebClient.builder()
+                        .clientConnector(new ReactorClientHttpConnector(httpClient));
+    }
+
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        HttpClient httpClient = HttpClient.create()
-                                          .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 2000)
-                                          .responseTimeout(Duration.ofMillis(3500));
+    public WebClient.Builder vertexWebClientBuilder(@Qualifier("vertexConnectionProvider") ConnectionProvider connectionProvider,
+                                                    @Value("${recommendation.http-client.vertex.http2:true}") boolean http2) {
+        HttpClient httpClient = httpClient(connectionProvider, http2, "vertex-predict")
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 4000)
+                .responseTimeout(Duration.ofMillis(5500));
 
         return WebClient.builder()
                         .clientConnector(new ReactorClientHttpConnector(httpClient));
     }
 
+    // 셀 담당 Pod 로 요청 전달 (클러스터 내부 평문 HTTP). 연결이 안 되면 빨리 실패해 직접 계산으로 넘김
     @Bean
-    public WebClient.Builder vertexWebClientBuilder() {
-        HttpClient httpClient = HttpClient.create()
-                                          .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 4000)
-                                          .responseTimeout(Duration.ofMillis(5500));
+    public WebClient.Builder peerWebClientBuilder(@Qualifier("peerConnectionProvider") ConnectionProvider connectionProvider) {
+        HttpClient httpClient = httpClient(connectionProvider, false, "peer-recommendation")
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 500)
+                .responseTimeout(Duration.ofMillis(4000));
 
         return WebClient.builder()
                         .clientConnector(new ReactorClientHttpConnector(httpClient));
     }
-}
\ No newline at end of file
+
+    private static ConnectionProvider connectionProvider(String name, int maxConnections, int pendingAcquireMaxCount,
+                                                         Duration pendingAcquireTimeout, Duration maxIdleTime,
+                                                         Duration maxLifeTime) {
+        return ConnectionProvider.builder(name)
+                                 .maxConnections(maxConnections)
+                                 .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                                 // 풀이 가득 차면 오래 줄 서지 않고 실패시켜 Fallback/hedge 로 넘김
+                                 .pendingAcquireTimeout(pendingAcquireTimeout)
+                                 // LB/게이트웨이의 유휴 종료(보통 60초)보다 먼저 정리해 끊긴 커넥션 재사용을 막음
+                                 .maxIdleTime(maxIdleTime)
+                                 .maxLifeTime(maxLifeTime)
+                                 .evictInBackground(Duration.ofSeconds(30))
+                                 .metrics(true)
+                                 .build();
+    }
+
+    private static HttpClient httpClient(ConnectionProvider connectionProvider, boolean http2, String uriTag) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                                          // uri 태그는 고정값으로 (좌표/프로젝트 ID 가 태그로 퍼지지 않도록)
+                                          .metrics(true, uri -> uriTag)
+                                          .keepAlive(true);
+        if (http2) {
+            // ALPN 으로 h2 를 협상하고, 지원하지 않는 서버와는 HTTP/1.1 로 통신
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        }
+        // 이벤트 루프, DNS resolver, SSL 컨텍스트를 기동 시 미리 초기화해 첫 요청 지연을 줄임
+        httpClient.warmup().block();
+        log.info("{} HttpClient 준비 완료. http2: {}", uriTag, http2);
+        return httpClient;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.recommendation_service.config;
+
+import com.example.recommendation_service.controller.RecommendationWebSocketHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+
+import java.util.Map;
+
+@Configuration
+public class WebSocketConfig {
+
+    @Bean
+    public HandlerMapping recommendationWebSocketMapping(RecommendationWebSocketHandler handler) {
+        return new SimpleUrlHandlerMapping(Map.of("/ws/recommendations", handler), -1);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.recommendation_service.controller;
+
+import com.example.recommendation_service.service.HotspotLoader;
+import com.example.recommendation_service.service.HotspotReloadResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 주기(reload-interval)를 기다리지 않고 핫스팟 집합을 즉시 재적재 (요청을 받은 Pod 기준).
+ * <p>
+ * 공개 API 경로가 아닌 management 포트의 actuator 엔드포인트(POST /actuator/hotspots)로만 노출합니다.
+ * 재적재가 진행 중일 때 들어온 호출은 새로 실행하지 않고 진행 중인 결과를 함께 받습니다.
+ */
+@Component
+@Endpoint(id = "hotspots")
+@RequiredArgsConstructor
+@Slf4j
+public class HotspotReloadEndpoint {
+
+    private final HotspotLoader hotspotLoader;
+    private final AtomicReference<Mono<HotspotReloadResult>> running = new AtomicReference<>();
+
+    @WriteOperation
+    public Mono<HotspotReloadResult> reload() {
+        return Mono.defer(() -> {
+            AtomicReference<Mono<HotspotReloadResult>> self = new AtomicReference<>();
+            Mono<HotspotReloadResult> created = Mono.fromCallable(hotspotLoader::reload)
+                                                    .subscribeOn(Schedulers.boundedElastic())
+                                                    .doOnSubscribe(subscription -> log.info("핫스팟 수동 재적재 시작"))
+                                                    .doFinally(signal -> running.compareAndSet(self.get(), null))
+                                                    .cache();
+            self.set(created);
+            return running.updateAndGet(current -> current != null ? current : created);
+        });
+    }
+}
@@ -1,21 +1,73 @@
 package com.example.recommendation_service.controller;
 
+import com.example.recommendation_service.dto.BatchRecommendationRequest;
+import com.example.recommendation_service.dto.BatchRecommendationResponse;
 import com.example.recommendation_service.dto.RecommendationRequest;
+import com.example.recommendation_service.service.AdaptiveConcurrencyLimiter;
+import com.example.recommendation_service.service.BatchRecommendationService;
+import com.example.recommendation_service.service.CellRouter;
+import com.example.recommendation_service.service.RecommendationFeed;
 import com.example.recommendation_service.service.RecommendationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.function.Supplier;
+
 @RestController
 @RequestMapping("/api/recommendations")
 @RequiredArgsConstructor
 public class RecommendationController {
 
+    static final String DRIVER_ID_HEADER = "X-Driver-Id";
+
     private final RecommendationService recommendationService;
+    private final BatchRecommendationService batchRecommendationService;
+    private final RecommendationFeed recommendationFeed;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final CellRouter cellRouter;
 
+    // 셀 담당 Pod 가 따로 있으면 그 Pod 로 전달 (다른 Pod 가 전달한 요청은 여기서 처리)
+    // 동시 처리 한도를 넘으면 대기시키지 않고 외부 호출 없는 degraded 추천으로 즉시 응답
     @GetMapping
-    public Mono<String> getRecommendation(@Valid @ModelAttribute RecommendationRequest request) {
-        return recommendationService.getBestLocationRecommendation(request.lon(), request.lat());
+    public Mono<String> getRecommendation(@Valid @ModelAttribute RecommendationRequest request, ServerHttpRequest httpRequest) {
+        boolean forwarded = httpRequest.getHeaders().containsKey(CellRouter.FORWARDED_HEADER);
+        String driverId = driverId(httpRequest);
+        // 전달된 요청은 여러 기사의 요청이 한 Pod 에서 모여 오므로 기사별 제한을 적용하지 않음
+        Supplier<Mono<String>> local = () -> concurrencyLimiter.execute(forwarded ? null : driverId,
+                () -> recommendationService.getBestLocationRecommendation(request.lon(), request.lat()),
+                () -> recommendationService.getDegradedRecommendation(request.lon(), request.lat()));
+        if (forwarded) {
+            return local.get();
+        }
+        return cellRouter.route(request.lon(), request.lat(), headers -> {
+            if (driverId != null) {
+                headers.set(DRIVER_ID_HEADER, driverId);
+            }
+        }, local);
+    }
+
+    // 폴링 대신 구독: 15분 슬롯이 바뀌어 추천이 달라질 때만 SSE 로 push (이동하는 기사는 /ws/recommendations 사용)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<String> streamRecommendation(@Valid @ModelAttribute RecommendationRequest request) {
+        return recommendationFeed.watch(request.lon(), request.lat());
+    }
+
+    // JSON 배열 또는 NDJSON 으로 받은 기사 목록의 추천 결과를 준비되는 대로 NDJSON 으로 스트리밍
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchRecommendationResponse> getBatchRecommendations(@RequestBody Flux<BatchRecommendationRequest> requests) {
+        return batchRecommendationService.recommend(requests);
+    }
+
+    // 게이트웨이가 전달하는 기사 ID 기준 공정 분배. 없으면 null (접속 주소는 게이트웨이/프록시 주소라 기사 구분에 쓰지 않음)
+    private static String driverId(ServerHttpRequest request) {
+        String driverId = request.getHeaders().getFirst(DRIVER_ID_HEADER);
+        return driverId != null && !driverId.isBlank() ? driverId : null;
     }
-}
\ No newline at end of file
+}
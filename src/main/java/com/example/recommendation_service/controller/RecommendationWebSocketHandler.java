@@ -0,0 +1,52 @@
+package com.example.recommendation_service.controller;
+
+import com.example.recommendation_service.dto.RecommendationRequest;
+import com.example.recommendation_service.service.RecommendationFeed;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * /ws/recommendations
+ * <p>
+ * 기사는 위치가 바뀔 때마다 {"lon": .., "lat": ..} 를 보내고, 서버는 셀이 바뀌거나 15분 슬롯이 바뀌어
+ * 추천이 달라질 때만 추천 메시지를 push 합니다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationWebSocketHandler implements WebSocketHandler {
+
+    private final RecommendationFeed recommendationFeed;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        Flux<double[]> positions = session.receive()
+                                          .map(WebSocketMessage::getPayloadAsText)
+                                          .flatMap(this::parsePosition);
+
+        return session.send(recommendationFeed.watch(positions)
+                                              .map(session::textMessage));
+    }
+
+    private Mono<double[]> parsePosition(String payload) {
+        try {
+            RecommendationRequest request = objectMapper.readValue(payload, RecommendationRequest.class);
+            if (request.lon() < -180.0 || request.lon() > 180.0 || request.lat() < -90.0 || request.lat() > 90.0) {
+                log.warn("WebSocket 위치 범위 오류 무시: {}", payload);
+                return Mono.empty();
+            }
+            return Mono.just(new double[]{request.lon(), request.lat()});
+        } catch (Exception e) {
+            log.warn("WebSocket 위치 메시지 파싱 실패: {}", payload);
+            return Mono.empty();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.recommendation_service.dto;
+
+public record BatchRecommendationRequest(
+        String driverId,
+        double lon,
+        double lat
+) {
+    public boolean hasValidCoordinates() {
+        return lon >= -180.0 && lon <= 180.0 && lat >= -90.0 && lat <= 90.0;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.recommendation_service.dto;
+
+public record BatchRecommendationResponse(
+        String driverId,
+        String recommendation
+) {
+}
@@ -0,0 +1,164 @@
+package com.example.recommendation_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 추천 요청의 동시 처리 수를 지연 기반 AIMD 로 조절하는 admission control.
+ * <p>
+ * 요청이 latency-threshold 안에 끝나면 한도를 1 씩 늘리고(한도의 절반 이상을 쓰고 있을 때만),
+ * 그보다 느리거나 실패하면 backoff-ratio 를 곱해 줄입니다. 한 번의 지연 급증으로 처리 중이던 요청이 한꺼번에
+ * 느리게 끝나도 한도가 그 수만큼 거듭 줄지 않도록, 마지막 감소 이전에 시작된 요청의 느린 표본은 무시합니다
+ * (지연 window 당 최대 한 번 감소). 한도를 넘은 요청은 대기열에 쌓지 않고 즉시 degraded 응답으로 돌려보냅니다.
+ * <p>
+ * fairness-enabled 면 한도의 fair-share-threshold 이상이 찼을 때 이미 처리 중인 요청이 있는 클라이언트(기사)의
+ * 추가 요청부터 거절해, 한 클라이언트의 재시도 폭주가 다른 기사의 몫을 차지하지 않도록 합니다.
+ * 클라이언트 키가 없는(null) 요청은 전체 한도만 적용합니다.
+ */
+@Component
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final boolean fairnessEnabled;
+    private final double fairShareThreshold;
+    private final int maxPerClient;
+
+    private final Object lock = new Object();
+    private volatile double limit;
+    // 마지막으로 한도를 줄인 시각. 이보다 먼저 시작된 요청은 줄이기 전 한도에서 받은 요청 (lock 으로 보호)
+    private long lastDecreaseNanos = System.nanoTime();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, AtomicInteger> inFlightByClient = new ConcurrentHashMap<>();
+
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter rejectedFairnessCounter;
+
+    public AdaptiveConcurrencyLimiter(@Value("${recommendation.admission.enabled:true}") boolean enabled,
+                                      @Value("${recommendation.admission.initial-limit:100}") int initialLimit,
+                                      @Value("${recommendation.admission.min-limit:10}") int minLimit,
+                                      @Value("${recommendation.admission.max-limit:1000}") int maxLimit,
+                                      @Value("${recommendation.admission.latency-threshold:1s}") Duration latencyThreshold,
+                                      @Value("${recommendation.admission.backoff-ratio:0.9}") double backoffRatio,
+                                      @Value("${recommendation.admission.fairness-enabled:false}") boolean fairnessEnabled,
+                                      @Value("${recommendation.admission.fair-share-threshold:0.8}") double fairShareThreshold,
+                                      @Value("${recommendation.admission.max-per-client:4}") int maxPerClient,
+                                      MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.fairnessEnabled = fairnessEnabled;
+        this.fairShareThreshold = fairShareThreshold;
+        this.maxPerClient = maxPerClient;
+        this.limit = initialLimit;
+        this.acceptedCounter = requestCounter("accepted", meterRegistry);
+        this.rejectedCounter = requestCounter("rejected", meterRegistry);
+        this.rejectedFairnessCounter = requestCounter("rejected-fairness", meterRegistry);
+        Gauge.builder("recommendation.admission.limit", this, l -> l.limit)
+             .description("현재 동시 처리 한도")
+             .register(meterRegistry);
+        Gauge.builder("recommendation.admission.in-flight", inFlight, AtomicInteger::get)
+             .description("처리 중인 추천 요청 수")
+             .register(meterRegistry);
+    }
+
+    /**
+     * 한도 안이면 admitted 를, 넘으면 degraded 를 구독합니다. 한도 조절에는 admitted 의 지연/결과만 반영됩니다.
+     *
+     * @param clientKey 클라이언트별 공정 분배 키(기사 ID). null 이면 클라이언트별 제한 없음
+     */
+    public <T> Mono<T> execute(String clientKey, Supplier<Mono<T>> admitted, Supplier<Mono<T>> degraded) {
+        if (!enabled) {
+            return Mono.defer(admitted);
+        }
+        return Mono.defer(() -> {
+            AtomicInteger clientInFlight = fairnessEnabled && clientKey != null
+                    ? inFlightByClient.computeIfAbsent(clientKey, k -> new AtomicInteger())
+                    : null;
+            int current = inFlight.incrementAndGet();
+            int ownInFlight = clientInFlight != null ? clientInFlight.incrementAndGet() : 0;
+
+            double currentLimit = limit;
+            boolean overLimit = current > currentLimit;
+            boolean unfair = !overLimit && clientInFlight != null
+                    && (ownInFlight > maxPerClient || (ownInFlight > 1 && current > currentLimit * fairShareThreshold));
+            if (overLimit || unfair) {
+                release(clientKey, clientInFlight);
+                (overLimit ? rejectedCounter : rejectedFairnessCounter).increment();
+                return Mono.defer(degraded);
+            }
+
+            acceptedCounter.increment();
+            long startNanos = System.nanoTime();
+            AtomicBoolean failed = new AtomicBoolean(false);
+            return Mono.defer(admitted)
+                       .doOnError(e -> failed.set(true))
+                       .doFinally(signal -> {
+                           release(clientKey, clientInFlight);
+                           // 클라이언트가 끊은 요청은 지연 표본으로 쓰지 않음
+                           if (signal != SignalType.CANCEL) {
+                               onSample(startNanos, System.nanoTime() - startNanos, failed.get(), current);
+                           }
+                       });
+        });
+    }
+
+    private void release(String clientKey, AtomicInteger clientInFlight) {
+        inFlight.decrementAndGet();
+        if (clientInFlight != null && clientInFlight.decrementAndGet() == 0) {
+            inFlightByClient.remove(clientKey, clientInFlight);
+        }
+    }
+
+    private void onSample(long startNanos, long latencyNanos, boolean failed, int inFlightAtStart) {
+        synchronized (lock) {
+            double current = limit;
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                // 이미 줄인 뒤의 표본은 같은 지연 급증의 결과이므로 다시 줄이지 않음
+                if (startNanos - lastDecreaseNanos < 0) {
+                    return;
+                }
+                double decreased = Math.max(minLimit, current * backoffRatio);
+                if (decreased < current) {
+                    log.debug("추천 동시 처리 한도 감소. {} -> {}", (int) current, (int) decreased);
+                }
+                limit = decreased;
+                lastDecreaseNanos = System.nanoTime();
+            } else if (inFlightAtStart * 2 >= current) {
+                // 한도를 충분히 쓰고 있을 때만 늘려, 한가할 때 한도가 무한히 커지지 않도록 함
+                limit = Math.min(maxLimit, current + 1);
+            }
+        }
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    private static Counter requestCounter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("recommendation.admission.requests")
+                      .description("admission control 결과별 요청 수 (rejected-fairness: 클라이언트별 공정 분배로 거절)")
+                      .tag("outcome", outcome)
+                      .register(meterRegistry);
+    }
+}
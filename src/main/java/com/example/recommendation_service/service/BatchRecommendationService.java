@@ -0,0 +1,67 @@
+package com.example.recommendation_service.service;
+
+import com.example.recommendation_service.dto.BatchRecommendationRequest;
+import com.example.recommendation_service.dto.BatchRecommendationResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 배차 시스템용 다수 기사 일괄 추천.
+ * <p>
+ * 입력 스트림을 chunk-size 단위로 끊어(메모리 상한) 같은 공간 셀의 기사끼리 묶고,
+ * 셀당 한 번만 추천을 계산해 해당 셀의 모든 기사에게 결과를 내보냅니다. 결과는 셀 계산이 끝나는 대로 스트리밍됩니다.
+ */
+@Service
+@Slf4j
+public class BatchRecommendationService {
+
+    private static final String INVALID_COORDINATES = "잘못된 좌표입니다.";
+
+    private final RecommendationService recommendationService;
+    private final int chunkSize;
+    private final int cellConcurrency;
+
+    public BatchRecommendationService(RecommendationService recommendationService,
+                                      @Value("${recommendation.batch.chunk-size:500}") int chunkSize,
+                                      @Value("${recommendation.batch.cell-concurrency:16}") int cellConcurrency) {
+        this.recommendationService = recommendationService;
+        this.chunkSize = chunkSize;
+        this.cellConcurrency = cellConcurrency;
+    }
+
+    public Flux<BatchRecommendationResponse> recommend(Flux<BatchRecommendationRequest> requests) {
+        return requests.buffer(chunkSize)
+                       .concatMap(this::recommendChunk);
+    }
+
+    private Flux<BatchRecommendationResponse> recommendChunk(List<BatchRecommendationRequest> chunk) {
+        TimeSlot slot = TimeSlot.now();
+        List<BatchRecommendationResponse> invalid = new ArrayList<>();
+        Map<String, List<BatchRecommendationRequest>> byCell = new LinkedHashMap<>();
+
+        for (BatchRecommendationRequest request : chunk) {
+            if (!request.hasValidCoordinates()) {
+                invalid.add(new BatchRecommendationResponse(request.driverId(), INVALID_COORDINATES));
+                continue;
+            }
+            byCell.computeIfAbsent(recommendationService.cellOf(request.lon(), request.lat()), k -> new ArrayList<>())
+                  .add(request);
+        }
+        log.info("일괄 추천 chunk 처리. 기사 수: {}, 셀 수: {}", chunk.size(), byCell.size());
+
+        Flux<BatchRecommendationResponse> computed = Flux.fromIterable(byCell.entrySet())
+                                                         .flatMap(entry -> recommendationService.getCellRecommendation(entry.getKey(), slot)
+                                                                                                .flatMapIterable(message -> entry.getValue().stream()
+                                                                                                                                 .map(driver -> new BatchRecommendationResponse(driver.driverId(), message))
+                                                                                                                                 .toList()),
+                                                                  cellConcurrency);
+        return Flux.fromIterable(invalid).concatWith(computed);
+    }
+}
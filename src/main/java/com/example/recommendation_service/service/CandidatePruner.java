@@ -0,0 +1,196 @@
+package com.example.recommendation_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 반경 조회 결과 중 Vertex AI 로 실시간 채점할 후보를 줄입니다.
+ * <ol>
+ *     <li>적응형 반경: 후보가 dense-threshold 를 넘는 밀집 지역이면 min-radius-km 까지 반경을 좁힙니다.</li>
+ *     <li>top-K: 그래도 max-candidates 를 넘으면 과거 점수({@link HotspotPriors}) x 거리 감쇠로 상위 K 개만 남깁니다.</li>
+ * </ol>
+ * 현재 슬롯 사전 채점표가 후보의 min-table-coverage 이상을 덮으면 Vertex 호출이 거의 없으므로 가지치기하지 않습니다.
+ * 일부 chunk 가 실패한(NaN) 점수표는 빠진 후보가 모두 실시간 채점되므로 가지치기합니다.
+ * 품질 손실은 quality-sample-rate 비율의 요청에서 전체 후보를 함께 채점해 비교합니다.
+ */
+@Component
+public class CandidatePruner {
+
+    private final HotspotPriors hotspotPriors;
+    private final HotspotScoreTables scoreTables;
+    private final boolean enabled;
+    private final int maxCandidates;
+    private final int denseThreshold;
+    private final double minRadiusKm;
+    private final double distanceDecayKm;
+    private final double qualitySampleRate;
+    private final double minTableCoverage;
+
+    private final DistributionSummary inputSummary;
+    private final DistributionSummary outputSummary;
+    private final Counter radiusShrunkCounter;
+    private final Counter qualityMatchCounter;
+    private final Counter qualityMissCounter;
+    private final DistributionSummary scoreRatioSummary;
+
+    public CandidatePruner(HotspotPriors hotspotPriors,
+                           HotspotScoreTables scoreTables,
+                           MeterRegistry meterRegistry,
+                           @Value("${recommendation.pruning.enabled:true}") boolean enabled,
+                           @Value("${recommendation.pruning.max-candidates:40}") int maxCandidates,
+                           @Value("${recommendation.pruning.dense-threshold:80}") int denseThreshold,
+                           @Value("${recommendation.pruning.min-radius-km:3.0}") double minRadiusKm,
+                           @Value("${recommendation.pruning.distance-decay-km:3.0}") double distanceDecayKm,
+                           @Value("${recommendation.pruning.quality-sample-rate:0.01}") double qualitySampleRate,
+                           @Value("${recommendation.pruning.min-table-coverage:0.9}") double minTableCoverage) {
+        this.hotspotPriors = hotspotPriors;
+        this.scoreTables = scoreTables;
+        this.enabled = enabled;
+        this.maxCandidates = maxCandidates;
+        this.denseThreshold = denseThreshold;
+        this.minRadiusKm = minRadiusKm;
+        this.distanceDecayKm = distanceDecayKm;
+        this.qualitySampleRate = qualitySampleRate;
+        this.minTableCoverage = minTableCoverage;
+        this.inputSummary = DistributionSummary.builder("recommendation.pruning.candidates")
+                                               .description("가지치기 전후 후보 수")
+                                               .tag("stage", "input")
+                                               .register(meterRegistry);
+        this.outputSummary = DistributionSummary.builder("recommendation.pruning.candidates")
+                                                .description("가지치기 전후 후보 수")
+                                                .tag("stage", "output")
+                                                .register(meterRegistry);
+        this.radiusShrunkCounter = Counter.builder("recommendation.pruning.radius.shrunk")
+                                          .description("밀집 지역이라 반경을 좁힌 횟수")
+                                          .register(meterRegistry);
+        this.qualityMatchCounter = Counter.builder("recommendation.pruning.quality")
+                                          .description("샘플링된 요청에서 가지치기 추천이 전체 채점 추천과 같은지 여부")
+                                          .tag("outcome", "match")
+                                          .register(meterRegistry);
+        this.qualityMissCounter = Counter.builder("recommendation.pruning.quality")
+                                         .description("샘플링된 요청에서 가지치기 추천이 전체 채점 추천과 같은지 여부")
+                                         .tag("outcome", "miss")
+                                         .register(meterRegistry);
+        this.scoreRatioSummary = DistributionSummary.builder("recommendation.pruning.quality.score.ratio")
+                                                    .description("가지치기 최고 점수 / 전체 채점 최고 점수 (1.0 = 손실 없음)")
+                                                    .register(meterRegistry);
+    }
+
+    public HotspotIndex.Candidates prune(HotspotIndex.Candidates candidates, TimeSlot slot) {
+        int n = candidates.size();
+        inputSummary.record(n);
+        if (!enabled || n <= maxCandidates || prescored(candidates, slot)) {
+            outputSummary.record(n);
+            return candidates;
+        }
+
+        // 1. 적응형 반경: 거리 오름차순이므로 앞에서부터 자르면 반경을 좁히는 것과 같음
+        int limit = n;
+        if (n > denseThreshold) {
+            int withinMinRadius = 0;
+            while (withinMinRadius < n && candidates.distanceKm(withinMinRadius) <= minRadiusKm) {
+                withinMinRadius++;
+            }
+            limit = Math.max(denseThreshold, withinMinRadius);
+            if (limit < n) {
+                radiusShrunkCounter.increment();
+            }
+        }
+
+        HotspotIndex.Candidates pruned = limit <= maxCandidates
+                ? candidates.limit(limit)
+                : topByPrior(candidates, limit, slot);
+        outputSummary.record(pruned.size());
+        return pruned;
+    }
+
+    // 현재 슬롯 점수표가 후보의 min-table-coverage 이상을 NaN 이 아닌 점수로 덮는지
+    private boolean prescored(HotspotIndex.Candidates candidates, TimeSlot slot) {
+        HotspotScoreTable table = scoreTables.find(slot, candidates.source());
+        if (table == null) {
+            return false;
+        }
+        int n = candidates.size();
+        int allowedMisses = n - (int) Math.ceil(minTableCoverage * n);
+        int misses = 0;
+        for (int k = 0; k < n; k++) {
+            if (Double.isNaN(table.score(candidates.index(k))) && ++misses > allowedMisses) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 가까운 limit 개 중 사전 점수 상위 max-candidates 개. 동점은 가까운 후보 우선이며 거리 순서를 유지합니다.
+     */
+    private HotspotIndex.Candidates topByPrior(HotspotIndex.Candidates candidates, int limit, TimeSlot slot) {
+        double[] priors = new double[limit];
+        double knownSum = 0.0;
+        int knownCount = 0;
+        for (int k = 0; k < limit; k++) {
+            priors[k] = hotspotPriors.prior(candidates.source(), candidates.index(k), slot);
+            if (!Double.isNaN(priors[k])) {
+                knownSum += priors[k];
+                knownCount++;
+            }
+        }
+        // 과거 점수가 없는 핫스팟은 주변 평균으로 간주 (전부 없으면 거리만으로 선택)
+        double neutral = knownCount > 0 ? knownSum / knownCount : 1.0;
+        for (int k = 0; k < limit; k++) {
+            double prior = Double.isNaN(priors[k]) ? neutral : priors[k];
+            priors[k] = prior * Math.exp(-candidates.distanceKm(k) / distanceDecayKm);
+        }
+
+        double[] sorted = priors.clone();
+        Arrays.sort(sorted);
+        double threshold = sorted[limit - maxCandidates];
+        int above = 0;
+        for (double prior : priors) {
+            if (prior > threshold) above++;
+        }
+        int tiesAllowed = maxCandidates - above;
+
+        int[] kept = new int[maxCandidates];
+        int count = 0;
+        for (int k = 0; k < limit && count < maxCandidates; k++) {
+            if (priors[k] > threshold) {
+                kept[count++] = k;
+            } else if (priors[k] == threshold && tiesAllowed > 0) {
+                kept[count++] = k;
+                tiesAllowed--;
+            }
+        }
+        return candidates.retain(kept, count);
+    }
+
+    /**
+     * 이번 요청을 품질 측정 대상으로 샘플링할지 여부. 가지치기로 후보가 줄어든 경우만 의미가 있습니다.
+     */
+    public boolean shouldAudit(HotspotIndex.Candidates full, HotspotIndex.Candidates pruned) {
+        return pruned != full && qualitySampleRate > 0 && ThreadLocalRandom.current().nextDouble() < qualitySampleRate;
+    }
+
+    public void recordQuality(HotspotIndex.Candidates pruned, double[] prunedScores,
+                              HotspotIndex.Candidates full, double[] fullScores) {
+        int prunedBest = RecommendationService.argmax(prunedScores);
+        int fullBest = RecommendationService.argmax(fullScores);
+        if (prunedBest == -1 || fullBest == -1) {
+            return;
+        }
+        if (pruned.index(prunedBest) == full.index(fullBest)) {
+            qualityMatchCounter.increment();
+        } else {
+            qualityMissCounter.increment();
+        }
+        if (fullScores[fullBest] > 0) {
+            scoreRatioSummary.record(Math.min(1.0, prunedScores[prunedBest] / fullScores[fullBest]));
+        }
+    }
+}
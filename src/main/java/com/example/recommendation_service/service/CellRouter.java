@@ -0,0 +1,245 @@
+package com.example.recommendation_service.service;
+
+import com.example.recommendation_service.client.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * geohash 셀마다 담당 Pod 를 정해, 같은 셀의 요청을 한 Pod 에서 계산하도록 넘겨주는 라우터.
+ * <p>
+ * Service 는 요청을 Pod 에 고르게 나누므로 셀 결과 캐시/점수 캐시/요청 병합이 Pod 수만큼 나뉩니다.
+ * Eureka 에서 같은 서비스의 Pod 목록을 받아 consistent-hash ring 을 만들고, 담당이 아닌 셀의 요청은
+ * 담당 Pod 로 전달합니다({@link #FORWARDED_HEADER} 가 붙은 요청은 다시 전달하지 않음).
+ * <ul>
+ *     <li>bounded load: 이 Pod 가 각 Pod 로 보낸 처리 중 요청 수가 평균의 load-factor 배를 넘으면 링의 다음 Pod 로 넘김</li>
+ *     <li>링 변경: 새 Pod 는 join-delay 동안 목록에 계속 보일 때만 링에 넣고(워밍업), 사라진 Pod 는 바로 뺌.
+ *     멤버가 바뀌어도 약 1/N 셀만 담당이 바뀝니다.</li>
+ *     <li>전달이 실패하면 그 Pod 를 failure-cooldown 동안 제외하고 이 Pod 에서 직접 계산</li>
+ * </ul>
+ * 전달과 직접 계산은 같은 요청 deadline(recommendation.deadline.budget) 안에서 이뤄집니다. 전달은 fallback-reserve 를
+ * 남기고 끊으므로, 담당 Pod 가 느려도 직접 계산(남은 시간 안에서 각 단계 Fallback)으로 예산 안에 응답합니다.
+ */
+@Component
+@Slf4j
+public class CellRouter {
+
+    public static final String FORWARDED_HEADER = "X-Recommendation-Forwarded";
+
+    private static final class Member {
+        private final URI uri;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile long unavailableUntil;
+
+        private Member(URI uri) {
+            this.uri = uri;
+        }
+    }
+
+    // 링과 멤버 맵을 한 번에 교체해 요청 경로에서 어긋나지 않도록 묶음
+    private record View(ConsistentHashRing ring, Map<String, Member> members, String self) {
+    }
+
+    private final ObjectProvider<DiscoveryClient> discoveryClient;
+    private final ObjectProvider<Registration> registration;
+    private final WebClient webClient;
+    private final boolean enabled;
+    private final String serviceId;
+    private final int cellPrecision;
+    private final int virtualNodes;
+    private final double loadFactor;
+    private final Duration joinDelay;
+    private final Duration deadlineBudget;
+    private final Duration fallbackReserve;
+    private final Duration failureCooldown;
+
+    private final Counter localCounter;
+    private final Counter forwardedCounter;
+    private final Counter fallbackCounter;
+
+    private final Map<String, Long> firstSeen = new ConcurrentHashMap<>();
+    private volatile View view = new View(ConsistentHashRing.EMPTY, Map.of(), null);
+
+    public CellRouter(ObjectProvider<DiscoveryClient> discoveryClient,
+                      ObjectProvider<Registration> registration,
+                      @Qualifier("peerWebClientBuilder") WebClient.Builder webClientBuilder,
+                      MeterRegistry meterRegistry,
+                      @Value("${recommendation.cell-routing.enabled:false}") boolean enabled,
+                      @Value("${spring.application.name}") String serviceId,
+                      @Value("${recommendation.cell-routing.cell-precision:6}") int cellPrecision,
+                      @Value("${recommendation.cell-routing.virtual-nodes:128}") int virtualNodes,
+                      @Value("${recommendation.cell-routing.load-factor:1.25}") double loadFactor,
+                      @Value("${recommendation.cell-routing.join-delay:30s}") Duration joinDelay,
+                      @Value("${recommendation.deadline.budget:3s}") Duration deadlineBudget,
+                      @Value("${recommendation.cell-routing.fallback-reserve:1s}") Duration fallbackReserve,
+                      @Value("${recommendation.cell-routing.failure-cooldown:10s}") Duration failureCooldown) {
+        this.discoveryClient = discoveryClient;
+        this.registration = registration;
+        this.webClient = webClientBuilder.build();
+        this.enabled = enabled;
+        this.serviceId = serviceId;
+        this.cellPrecision = cellPrecision;
+        this.virtualNodes = virtualNodes;
+        this.loadFactor = loadFactor;
+        this.joinDelay = joinDelay;
+        this.deadlineBudget = deadlineBudget;
+        this.fallbackReserve = fallbackReserve;
+        this.failureCooldown = failureCooldown;
+
+        this.localCounter = lookupCounter("local", meterRegistry);
+        this.forwardedCounter = lookupCounter("forwarded", meterRegistry);
+        this.fallbackCounter = lookupCounter("fallback", meterRegistry);
+        Gauge.builder("recommendation.cell-routing.members", this, router -> router.view.ring().size())
+             .description("셀 소유 링의 Pod 수")
+             .register(meterRegistry);
+    }
+
+    /**
+     * 셀 담당 Pod 가 이 Pod 이면 local 을 실행하고, 다른 Pod 이면 전달합니다.
+     *
+     * @param headers 전달 요청에 함께 보낼 헤더 (기사 ID 등)
+     * @param local   이 Pod 에서 직접 계산 (담당이거나, 링에 아직 없거나, 전달 실패 시)
+     */
+    public Mono<String> route(double lon, double lat, Consumer<HttpHeaders> headers, Supplier<Mono<String>> local) {
+        if (!enabled) {
+            return local.get();
+        }
+        return Mono.defer(() -> {
+            View current = view;
+            Member self = current.self() == null ? null : current.members().get(current.self());
+            if (self == null) {
+                // 링에 들어가기 전(기동 직후/join-delay)에는 다른 Pod 도 이 Pod 로 보내지 않으므로 직접 계산
+                localCounter.increment();
+                return local.get();
+            }
+
+            long now = System.currentTimeMillis();
+            int capacity = capacity(current.members());
+            String ownerId = current.ring().owner(GeoHash.encode(lon, lat, cellPrecision), id -> {
+                Member member = current.members().get(id);
+                return member != null && member.unavailableUntil <= now && member.inFlight.get() < capacity;
+            });
+            Member owner = current.members().get(ownerId);
+            if (owner == null || owner == self || owner.unavailableUntil > now) {
+                localCounter.increment();
+                return tracked(self, local.get());
+            }
+
+            forwardedCounter.increment();
+            return tracked(owner, RequestDeadline.bound(forward(owner, lon, lat, current.self(), headers), fallbackReserve))
+                    .onErrorResume(e -> {
+                        owner.unavailableUntil = System.currentTimeMillis() + failureCooldown.toMillis();
+                        fallbackCounter.increment();
+                        log.warn("셀 담당 Pod 로 전달 실패. 직접 계산합니다. Pod: {}, Error: {}", ownerId, e.toString());
+                        return tracked(self, local.get());
+                    });
+        }).contextWrite(RequestDeadline.within(deadlineBudget));
+    }
+
+    private Mono<String> forward(Member owner, double lon, double lat, String self, Consumer<HttpHeaders> headers) {
+        URI uri = UriComponentsBuilder.fromUri(owner.uri)
+                                      .path("/api/recommendations")
+                                      .queryParam("lon", lon)
+                                      .queryParam("lat", lat)
+                                      .build()
+                                      .toUri();
+        return webClient.get()
+                        .uri(uri)
+                        .headers(headers)
+                        .header(FORWARDED_HEADER, self)
+                        .retrieve()
+                        .bodyToMono(String.class);
+    }
+
+    private static Mono<String> tracked(Member member, Mono<String> call) {
+        return Mono.defer(() -> {
+            member.inFlight.incrementAndGet();
+            return call.doFinally(signal -> member.inFlight.decrementAndGet());
+        });
+    }
+
+    // bounded-load 상한: ceil(load-factor x (전체 처리 중 + 1) / Pod 수). 이 Pod 가 보낸 요청만 보는 근사치
+    private int capacity(Map<String, Member> members) {
+        int total = 0;
+        for (Member member : members.values()) {
+            total += member.inFlight.get();
+        }
+        return (int) Math.ceil(loadFactor * (total + 1) / members.size());
+    }
+
+    @Scheduled(fixedDelayString = "${recommendation.cell-routing.refresh-interval:PT5S}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        DiscoveryClient client = discoveryClient.getIfAvailable();
+        Registration self = registration.getIfAvailable();
+        if (client == null || self == null) {
+            return;
+        }
+        List<ServiceInstance> instances;
+        try {
+            instances = client.getInstances(serviceId);
+        } catch (RuntimeException e) {
+            log.warn("Pod 목록 조회 실패. 기존 링을 유지합니다. Error: {}", e.toString());
+            return;
+        }
+
+        View current = view;
+        long now = System.currentTimeMillis();
+        Map<String, Member> next = new HashMap<>();
+        for (ServiceInstance instance : instances) {
+            String id = memberId(instance);
+            long seenAt = firstSeen.computeIfAbsent(id, key -> now);
+            Member existing = current.members().get(id);
+            // 새 Pod 는 join-delay 동안 계속 보일 때만 추가 (워밍업 중이거나 등록 직후 사라지는 Pod 로 셀이 오가지 않도록)
+            if (existing == null && now - seenAt < joinDelay.toMillis()) {
+                continue;
+            }
+            next.put(id, existing != null ? existing : new Member(instance.getUri()));
+        }
+        firstSeen.keySet().retainAll(instances.stream().map(CellRouter::memberId).toList());
+
+        String selfId = memberId(self);
+        if (next.keySet().equals(current.members().keySet()) && selfId.equals(current.self())) {
+            return;
+        }
+        view = new View(ConsistentHashRing.of(next.keySet(), virtualNodes), Map.copyOf(next), selfId);
+        log.info("셀 소유 링 갱신. Pod: {}, 이 Pod: {}", view.ring().members(), selfId);
+    }
+
+    // Eureka 등록 정보와 조회 결과가 같은 키를 갖도록 host:port 사용 (prefer-ip-address 면 Pod IP)
+    private static String memberId(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    private static Counter lookupCounter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("recommendation.cell-routing.requests")
+                      .description("셀 담당 Pod 라우팅 결과별 요청 수 (local: 직접 계산, forwarded: 전달, fallback: 전달 실패 후 직접 계산)")
+                      .tag("outcome", outcome)
+                      .register(meterRegistry);
+    }
+}
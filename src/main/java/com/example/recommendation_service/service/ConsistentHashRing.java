@@ -0,0 +1,105 @@
+package com.example.recommendation_service.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * 멤버(Pod)마다 가상 노드를 두는 불변 consistent-hash ring.
+ * <p>
+ * 멤버가 하나 늘거나 줄면 약 1/N 의 키만 주인이 바뀝니다. {@link #owner(String, Predicate)} 는 키 위치에서 시계 방향으로
+ * 돌며 조건(부하 상한 등)을 만족하는 첫 멤버를 고르므로 bounded-load consistent hashing 에 쓸 수 있습니다.
+ */
+public final class ConsistentHashRing {
+
+    public static final ConsistentHashRing EMPTY = of(List.of(), 1);
+
+    private final String[] members;
+    private final long[] points;   // 정렬된 가상 노드 해시
+    private final int[] owners;    // points 와 같은 순서의 멤버 번호
+
+    private ConsistentHashRing(String[] members, long[] points, int[] owners) {
+        this.members = members;
+        this.points = points;
+        this.owners = owners;
+    }
+
+    public static ConsistentHashRing of(Collection<String> members, int virtualNodes) {
+        String[] sorted = members.stream().distinct().sorted().toArray(String[]::new);
+        long[][] nodes = new long[sorted.length * virtualNodes][];
+        for (int m = 0; m < sorted.length; m++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                nodes[m * virtualNodes + v] = new long[]{hash(sorted[m] + "#" + v), m};
+            }
+        }
+        Arrays.sort(nodes, (a, b) -> Long.compare(a[0], b[0]));
+        long[] points = new long[nodes.length];
+        int[] owners = new int[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            points[i] = nodes[i][0];
+            owners[i] = (int) nodes[i][1];
+        }
+        return new ConsistentHashRing(sorted, points, owners);
+    }
+
+    public int size() {
+        return members.length;
+    }
+
+    public boolean contains(String member) {
+        return Arrays.binarySearch(members, member) >= 0;
+    }
+
+    public List<String> members() {
+        return List.of(members);
+    }
+
+    /**
+     * @return 키 위치에서 시계 방향으로 처음 만나는 멤버 중 accept 를 만족하는 멤버.
+     * 모두 만족하지 않으면 첫 멤버, 멤버가 없으면 null
+     */
+    public String owner(String key, Predicate<String> accept) {
+        if (members.length == 0) {
+            return null;
+        }
+        int start = Arrays.binarySearch(points, hash(key));
+        if (start < 0) {
+            start = -start - 1;
+        }
+        String first = null;
+        boolean[] seen = new boolean[members.length];
+        int visited = 0;
+        for (int i = 0; i < points.length && visited < members.length; i++) {
+            int owner = owners[(start + i) % points.length];
+            if (seen[owner]) {
+                continue;
+            }
+            seen[owner] = true;
+            visited++;
+            String member = members[owner];
+            if (first == null) {
+                first = member;
+            }
+            if (accept.test(member)) {
+                return member;
+            }
+        }
+        return first;
+    }
+
+    // FNV-1a 64 + murmur3 finalizer. 모든 Pod 에서 같은 값이 나와야 하므로 String.hashCode 대신 고정 해시 사용
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
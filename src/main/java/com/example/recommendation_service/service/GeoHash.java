@@ -0,0 +1,85 @@
+package com.example.recommendation_service.service;
+
+import org.springframework.data.geo.Point;
+
+/**
+ * 좌표를 geohash 공간 셀로 변환합니다. 같은 셀에 속한 요청을 묶거나(coalescing/캐시 키) 셀 단위로
+ * 계산을 공유할 때 사용합니다. precision 7 은 약 153m x 153m 셀입니다.
+ */
+public final class GeoHash {
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final int[] DECODE = new int[128];
+
+    static {
+        java.util.Arrays.fill(DECODE, -1);
+        for (int i = 0; i < BASE32.length; i++) {
+            DECODE[BASE32[i]] = i;
+        }
+    }
+
+    private GeoHash() {
+    }
+
+    public static String encode(double longitude, double latitude, int precision) {
+        double minLat = -90, maxLat = 90, minLon = -180, maxLon = 180;
+        char[] hash = new char[precision];
+        boolean evenBit = true;
+        int bit = 0, ch = 0, pos = 0;
+        while (pos < precision) {
+            if (evenBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLon = mid;
+                } else {
+                    ch <<= 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch <<= 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash[pos++] = BASE32[ch];
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return new String(hash);
+    }
+
+    /**
+     * 셀의 중심 좌표. Point(x=경도, y=위도)
+     */
+    public static Point center(String geohash) {
+        double minLat = -90, maxLat = 90, minLon = -180, maxLon = 180;
+        boolean evenBit = true;
+        for (int i = 0; i < geohash.length(); i++) {
+            char c = geohash.charAt(i);
+            int value = c < DECODE.length ? DECODE[c] : -1;
+            if (value < 0) {
+                throw new IllegalArgumentException("올바르지 않은 geohash: " + geohash);
+            }
+            for (int b = 4; b >= 0; b--) {
+                int bitValue = (value >> b) & 1;
+                if (evenBit) {
+                    double mid = (minLon + maxLon) / 2;
+                    if (bitValue == 1) minLon = mid; else maxLon = mid;
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if (bitValue == 1) minLat = mid; else maxLat = mid;
+                }
+                evenBit = !evenBit;
+            }
+        }
+        return new Point((minLon + maxLon) / 2, (minLat + maxLat) / 2);
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.recommendation_service.service;
+
+import com.example.recommendation_service.client.NaverMapsClient;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * 핫스팟 역지오코딩 결과 캐시.
+ * <p>
+ * 로컬 near-cache(Caffeine) -> Redis(전 Pod 공유) -> Naver Maps 순으로 조회합니다.
+ * 핫스팟 주소는 거의 바뀌지 않으므로 Redis 에는 긴 TTL 로 저장하며, 키는 핫스팟 재번호 부여에
+ * 영향받지 않도록 소수점 5자리(약 1m)로 반올림한 좌표를 사용합니다.
+ * 서킷 오픈/호출 실패 시의 "주소 확인 불가" Fallback 은 캐싱하지 않습니다.
+ */
+@Component
+@Slf4j
+public class GeocodeCache {
+
+    private static final String KEY_PREFIX = "geocode:";
+
+    private final NaverMapsClient naverMapsClient;
+    private final ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+    private final HotspotIndexHolder hotspotIndexHolder;
+    private final Cache<String, String> nearCache;
+    private final Duration redisTtl;
+    private final boolean warmOnStartup;
+    private final int warmConcurrency;
+    private final Counter redisHitCounter;
+    private final Counter naverCounter;
+    private final Counter unavailableCounter;
+
+    public GeocodeCache(NaverMapsClient naverMapsClient,
+                        ReactiveRedisTemplate<String, String> reactiveRedisTemplate,
+                        HotspotIndexHolder hotspotIndexHolder,
+                        MeterRegistry meterRegistry,
+                        @Value("${recommendation.geocode-cache.near-cache-size:5000}") long nearCacheSize,
+                        @Value("${recommendation.geocode-cache.near-cache-ttl:1h}") Duration nearCacheTtl,
+                        @Value("${recommendation.geocode-cache.redis-ttl:30d}") Duration redisTtl,
+                        @Value("${recommendation.geocode-cache.warm-on-startup:false}") boolean warmOnStartup,
+                        @Value("${recommendation.geocode-cache.warm-concurrency:4}") int warmConcurrency) {
+        this.naverMapsClient = naverMapsClient;
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.hotspotIndexHolder = hotspotIndexHolder;
+        this.redisTtl = redisTtl;
+        this.warmOnStartup = warmOnStartup;
+        this.warmConcurrency = warmConcurrency;
+        this.nearCache = Caffeine.newBuilder()
+                                 .maximumSize(nearCacheSize)
+                                 .expireAfterWrite(nearCacheTtl)
+                                 .recordStats()
+                                 .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, nearCache, "geocode-near");
+        // near-cache 적중률은 CaffeineCacheMetrics 가, 그 아래 단계는 tier 별 카운터로 기록
+        this.redisHitCounter = lookupCounter("redis", meterRegistry);
+        this.naverCounter = lookupCounter("naver", meterRegistry);
+        this.unavailableCounter = lookupCounter("unavailable", meterRegistry);
+    }
+
+    public Mono<String> reverseGeocode(double longitude, double latitude) {
+        String key = key(longitude, latitude);
+        String near = nearCache.getIfPresent(key);
+        if (near != null) {
+            return Mono.just(near);
+        }
+
+        return reactiveRedisTemplate.opsForValue()
+                                    .get(key)
+                                    .onErrorResume(e -> {
+                                        log.warn("역지오코딩 Redis 캐시 조회 실패. key: {}, Error: {}", key, e.getMessage());
+                                        return Mono.empty();
+                                    })
+                                    .doOnNext(address -> {
+                                        redisHitCounter.increment();
+                                        nearCache.put(key, address);
+                                    })
+                                    // 기동 워밍업은 Naver(유료) 를 호출하지 않음. "주소 확인 불가" 는 결과 캐시에 저장되지 않음
+                                    .switchIfEmpty(Mono.deferContextual(context -> context.hasKey(RecommendationMetrics.WARMUP_CONTEXT_KEY)
+                                            ? Mono.just(NaverMapsClient.UNAVAILABLE_ADDRESS)
+                                            : fetchAndStore(key, longitude, latitude)));
+    }
+
+    /**
+     * near-cache -> Redis 만 조회하고 Naver 는 호출하지 않습니다. 없으면 empty
+     */
+    public Mono<String> cachedAddress(double longitude, double latitude) {
+        String key = key(longitude, latitude);
+        String near = nearCache.getIfPresent(key);
+        if (near != null) {
+            return Mono.just(near);
+        }
+        return reactiveRedisTemplate.opsForValue()
+                                    .get(key)
+                                    .doOnNext(address -> nearCache.put(key, address))
+                                    .onErrorResume(e -> Mono.empty());
+    }
+
+    private Mono<String> fetchAndStore(String key, double longitude, double latitude) {
+        return naverMapsClient.tryReverseGeocode(longitude, latitude)
+                              .flatMap(address -> {
+                                  naverCounter.increment();
+                                  nearCache.put(key, address);
+                                  return reactiveRedisTemplate.opsForValue()
+                                                              .set(key, address, redisTtl)
+                                                              .onErrorResume(e -> {
+                                                                  log.warn("역지오코딩 Redis 캐시 저장 실패. key: {}, Error: {}", key, e.getMessage());
+                                                                  return Mono.just(false);
+                                                              })
+                                                              .thenReturn(address);
+                              })
+                              .onErrorResume(throwable -> {
+                                  log.warn("네이버 API 서킷 오픈. coords: {}", key);
+                                  unavailableCounter.increment();
+                                  return Mono.just(NaverMapsClient.UNAVAILABLE_ADDRESS);
+                              });
+    }
+
+    // 선택적으로 기동 시 전체 핫스팟 주소를 미리 채웁니다. 이미 Redis 에 있는 핫스팟은 Naver 를 호출하지 않습니다.
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmOnStartup) {
+            return;
+        }
+        HotspotIndex index = hotspotIndexHolder.current();
+        if (index.isEmpty()) {
+            return; // 초기 적재가 끝나면 onHotspotIndexChanged 에서 다시 시도
+        }
+        Flux.range(0, index.size())
+            .flatMap(i -> reverseGeocode(index.longitude(i), index.latitude(i)), warmConcurrency)
+            .count()
+            .subscribe(count -> log.info("역지오코딩 캐시 워밍 완료. 핫스팟 수: {}", count),
+                       e -> log.warn("역지오코딩 캐시 워밍 실패: {}", e.getMessage()));
+    }
+
+    // 핫스팟 초기 적재는 기동과 별개로 백그라운드에서 끝나므로, 첫 인덱스가 게시될 때 워밍합니다.
+    @EventListener
+    public void onHotspotIndexChanged(HotspotIndexChangedEvent event) {
+        if (event.previous().isEmpty()) {
+            warmUp();
+        }
+    }
+
+    private static Counter lookupCounter(String tier, MeterRegistry meterRegistry) {
+        return Counter.builder("recommendation.geocode.lookups")
+                      .description("near-cache 미스 후 주소를 얻은 단계별 횟수")
+                      .tag("tier", tier)
+                      .register(meterRegistry);
+    }
+
+    static String key(double longitude, double latitude) {
+        return KEY_PREFIX + String.format(Locale.ROOT, "%.5f,%.5f", longitude, latitude);
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.recommendation_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 핫스팟별 최근 추천(배정) 횟수. 같은 핫스팟으로 주변 기사가 몰리지 않도록 점수를 할인합니다.
+ * <p>
+ * 요청 경로는 스레드별 stripe 의 카운터 하나만 원자적으로 올리고({@link #record}), 할인값은 미리 계산된
+ * 배열에서 읽기만 합니다. sync-interval 마다 백그라운드에서
+ * <ol>
+ *     <li>stripe 카운터를 비워 버킷(bucket 단위, window 동안 보관) 링에 더하고,</li>
+ *     <li>증가분을 Redis 해시(핫스팟 집합 버전 + 버킷 번호 키, 필드 = 인덱스 위치)에 Lua 스크립트 한 번(HINCRBY + PEXPIRE)으로 보낸 뒤,</li>
+ *     <li>window 안의 버킷(현재/직전은 매번, 나머지는 처음 한 번)을 읽어 전 Pod 합계로 할인값을 다시 계산합니다.</li>
+ * </ol>
+ * 동기화는 스케줄러 스레드를 막지 않고 구독만 하며, 이전 동기화가 끝나지 않았으면 이번 주기는 건너뜁니다
+ * (증가분은 stripe 에 남아 다음 주기에 합쳐짐). Redis 를 쓸 수 없으면 이 Pod 의 배정만으로 계산합니다. 할인은 score / (1 + 배정 수 / half-score-assignments) 입니다.
+ */
+@Component
+@Slf4j
+public class HotspotAssignmentTracker {
+
+    private static final String KEY_PREFIX = "hotspot:assignments:";
+    // ARGV = [ttl(ms), 필드1, 증가분1, 필드2, 증가분2, ...]. 증가분 전체를 한 번의 왕복으로 반영
+    private static final RedisScript<Long> INCREMENT_SCRIPT = RedisScript.of(
+            "for i = 2, #ARGV, 2 do redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1]) end "
+                    + "redis.call('PEXPIRE', KEYS[1], ARGV[1]) return 1", Long.class);
+
+    private record Counters(HotspotIndex index, String version, Map<String, Integer> positions,
+                            AtomicIntegerArray pending, int[][] localBuckets, long[] localEpochs,
+                            int[][] globalBuckets, long[] globalEpochs) {
+    }
+
+    private record Discounts(HotspotIndex index, float[] values) {
+    }
+
+    private final ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+    private final boolean enabled;
+    private final boolean redisEnabled;
+    private final long bucketMillis;
+    private final int buckets;
+    private final Duration keyTtl;
+    private final double halfScoreAssignments;
+    private final int stripes;
+    private final Timer syncSuccessTimer;
+    private final Timer syncErrorTimer;
+    private final Counter redirectedCounter;
+
+    private final AtomicBoolean syncing = new AtomicBoolean(false);
+
+    private volatile Counters counters;
+    private volatile Discounts discounts = new Discounts(HotspotIndex.EMPTY, new float[0]);
+
+    public HotspotAssignmentTracker(ReactiveRedisTemplate<String, String> reactiveRedisTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${recommendation.assignment.enabled:true}") boolean enabled,
+                                    @Value("${recommendation.assignment.redis-enabled:true}") boolean redisEnabled,
+                                    @Value("${recommendation.assignment.window:5m}") Duration window,
+                                    @Value("${recommendation.assignment.bucket:30s}") Duration bucket,
+                                    @Value("${recommendation.assignment.half-score-assignments:20}") double halfScoreAssignments) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.enabled = enabled;
+        this.redisEnabled = redisEnabled;
+        this.bucketMillis = bucket.toMillis();
+        this.buckets = (int) Math.max(1, window.toMillis() / bucketMillis);
+        this.keyTtl = window.plus(bucket.multipliedBy(2));
+        this.halfScoreAssignments = halfScoreAssignments;
+        // 스레드 id 로 stripe 를 골라 같은 핫스팟에 대한 동시 증가가 한 캐시 라인에 몰리지 않도록 함
+        this.stripes = nextPowerOfTwo(Runtime.getRuntime().availableProcessors() * 2);
+        this.counters = newCounters(HotspotIndex.EMPTY, "none");
+        this.syncSuccessTimer = syncTimer("success", meterRegistry);
+        this.syncErrorTimer = syncTimer("error", meterRegistry);
+        this.redirectedCounter = Counter.builder("recommendation.assignment.redirected")
+                                        .description("배정이 몰린 핫스팟이라 셀 결과 캐시 대신 다시 계산한 요청 수")
+                                        .register(meterRegistry);
+    }
+
+    private Counters newCounters(HotspotIndex index, String version) {
+        Map<String, Integer> positions = new HashMap<>(index.size() * 2);
+        for (int i = 0; i < index.size(); i++) {
+            positions.put(index.id(i), i);
+        }
+        long[] localEpochs = new long[buckets];
+        long[] globalEpochs = new long[buckets];
+        Arrays.fill(localEpochs, -1);
+        Arrays.fill(globalEpochs, -1);
+        return new Counters(index, version, positions, new AtomicIntegerArray(stripes * index.size()),
+                new int[buckets][index.size()], localEpochs, new int[buckets][index.size()], globalEpochs);
+    }
+
+    @EventListener
+    public void onHotspotIndexChanged(HotspotIndexChangedEvent event) {
+        // 인덱스 위치가 바뀌므로 처음부터 다시 셈. Redis 키도 새 버전으로 바뀜
+        float[] none = new float[event.current().size()];
+        Arrays.fill(none, 1.0f);
+        counters = newCounters(event.current(), event.version());
+        discounts = new Discounts(event.current(), none);
+    }
+
+    /**
+     * 추천 응답으로 나간 핫스팟을 기록합니다. 현재 인덱스에 없는 ID 는 무시합니다.
+     */
+    public void record(String hotspotId) {
+        if (!enabled) {
+            return;
+        }
+        Counters current = counters;
+        Integer position = current.positions().get(hotspotId);
+        if (position == null) {
+            return;
+        }
+        int stripe = (int) Thread.currentThread().getId() & (stripes - 1);
+        current.pending().getAndIncrement(stripe * current.index().size() + position);
+    }
+
+    /**
+     * @return 최근 배정에 따른 점수 배율 (0, 1]. 기록이 없거나 다른 인덱스의 핫스팟이면 1.0
+     */
+    public double discount(HotspotIndex index, int hotspotIndex) {
+        Discounts current = discounts;
+        if (current.index() != index) {
+            return 1.0;
+        }
+        return current.values()[hotspotIndex];
+    }
+
+    /**
+     * 배정 할인을 적용한 최고 점수 후보. 후보가 없으면 -1.
+     */
+    public int best(HotspotIndex.Candidates candidates, double[] scores) {
+        double maxScore = -1.0;
+        int maxIndex = -1;
+        for (int k = 0; k < scores.length; k++) {
+            double score = scores[k] * discount(candidates.source(), candidates.index(k));
+            if (score > maxScore) {
+                maxScore = score;
+                maxIndex = k;
+            }
+        }
+        return maxIndex;
+    }
+
+    /**
+     * 점수가 절반 이하로 할인될 만큼 배정이 몰렸는지. 셀 결과 캐시 적중이라도 다시 계산할지 판단합니다.
+     */
+    public boolean isCrowded(String hotspotId) {
+        Discounts current = discounts;
+        Integer position = counters.positions().get(hotspotId);
+        if (!enabled || position == null || current.index() != counters.index()) {
+            return false;
+        }
+        boolean crowded = current.values()[position] <= 0.5f;
+        if (crowded) {
+            redirectedCounter.increment();
+        }
+        return crowded;
+    }
+
+    @Scheduled(fixedDelayString = "${recommendation.assignment.sync-interval:PT1S}",
+               initialDelayString = "${recommendation.assignment.sync-interval:PT1S}")
+    public void sync() {
+        Counters current = counters;
+        if (!enabled || current.index().isEmpty() || !syncing.compareAndSet(false, true)) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        long epoch = System.currentTimeMillis() / bucketMillis;
+        int[] delta = drain(current, epoch);
+
+        if (!redisEnabled) {
+            publish(current, sum(current.localBuckets(), current.localEpochs(), epoch));
+            syncSuccessTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            syncing.set(false);
+            return;
+        }
+        Mono.defer(() -> flush(current, epoch, delta))
+                .then(Flux.range(0, buckets)
+                          .map(b -> epoch - b)
+                          .filter(e -> e >= epoch - 1 || current.globalEpochs()[slot(e)] != e)
+                          .concatMap(e -> fetch(current, e))
+                          .then())
+                .timeout(Duration.ofMillis(bucketMillis))
+                .doOnSuccess(unused -> {
+                    publish(current, sum(current.globalBuckets(), current.globalEpochs(), epoch));
+                    syncSuccessTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                })
+                .onErrorResume(e -> {
+                    // 이번 증가분은 Redis 합계에서 빠지지만 로컬 버킷에는 남아 있음
+                    log.warn("핫스팟 배정 횟수 Redis 동기화 실패. 이 Pod 의 배정만으로 할인합니다. Error: {}", e.toString());
+                    publish(current, sum(current.localBuckets(), current.localEpochs(), epoch));
+                    syncErrorTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                    return Mono.empty();
+                })
+                .doFinally(signal -> syncing.set(false))
+                .subscribe();
+    }
+
+    private void publish(Counters current, int[] totals) {
+        float[] values = new float[totals.length];
+        for (int i = 0; i < totals.length; i++) {
+            values[i] = (float) (1.0 / (1.0 + totals[i] / halfScoreAssignments));
+        }
+        if (counters == current) {
+            discounts = new Discounts(current.index(), values);
+        }
+    }
+
+    // stripe 카운터를 비워 핫스팟별 증가분으로 합치고, 로컬 버킷 링에도 더함
+    private int[] drain(Counters current, long epoch) {
+        int size = current.index().size();
+        int[] delta = new int[size];
+        AtomicIntegerArray pending = current.pending();
+        for (int s = 0; s < stripes; s++) {
+            int offset = s * size;
+            for (int i = 0; i < size; i++) {
+                if (pending.get(offset + i) != 0) {
+                    delta[i] += pending.getAndSet(offset + i, 0);
+                }
+            }
+        }
+        int[] bucket = bucketFor(current.localBuckets(), current.localEpochs(), epoch);
+        for (int i = 0; i < size; i++) {
+            bucket[i] += delta[i];
+        }
+        return delta;
+    }
+
+    private Mono<Void> flush(Counters current, long epoch, int[] delta) {
+        List<String> args = new ArrayList<>();
+        args.add(Long.toString(keyTtl.toMillis()));
+        for (int i = 0; i < delta.length; i++) {
+            if (delta[i] != 0) {
+                args.add(Integer.toString(i));
+                args.add(Integer.toString(delta[i]));
+            }
+        }
+        if (args.size() == 1) {
+            return Mono.empty();
+        }
+        return reactiveRedisTemplate.execute(INCREMENT_SCRIPT, List.of(key(current, epoch)), args)
+                                    .then();
+    }
+
+    // 지난 버킷도 다른 Pod 의 늦은 반영분이 있을 수 있어 직전 버킷까지는 매번 다시 읽음. 그 이전은 읽어둔 값을 재사용
+    private Mono<Void> fetch(Counters current, long epoch) {
+        int size = current.index().size();
+        return reactiveRedisTemplate.<String, String>opsForHash()
+                                    .entries(key(current, epoch))
+                                    .collectList()
+                                    .doOnNext(entries -> {
+                                        int[] counts = new int[size];
+                                        for (Map.Entry<String, String> entry : entries) {
+                                            int position = Integer.parseInt(entry.getKey());
+                                            if (position >= 0 && position < size) {
+                                                counts[position] = Integer.parseInt(entry.getValue());
+                                            }
+                                        }
+                                        current.globalBuckets()[slot(epoch)] = counts;
+                                        current.globalEpochs()[slot(epoch)] = epoch;
+                                    })
+                                    .then();
+    }
+
+    private int[] bucketFor(int[][] ring, long[] epochs, long epoch) {
+        int slot = slot(epoch);
+        if (epochs[slot] != epoch) {
+            Arrays.fill(ring[slot], 0);
+            epochs[slot] = epoch;
+        }
+        return ring[slot];
+    }
+
+    private int slot(long epoch) {
+        return Math.floorMod(epoch, buckets);
+    }
+
+    private int[] sum(int[][] ring, long[] epochs, long epoch) {
+        int[] totals = new int[ring.length == 0 ? 0 : ring[0].length];
+        for (int b = 0; b < ring.length; b++) {
+            if (epochs[b] > epoch - buckets && epochs[b] <= epoch) {
+                int[] counts = ring[b];
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += counts[i];
+                }
+            }
+        }
+        return totals;
+    }
+
+    private static int nextPowerOfTwo(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    private static String key(Counters current, long epoch) {
+        return KEY_PREFIX + current.version() + ":" + epoch;
+    }
+
+    private static Timer syncTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("recommendation.assignment.sync")
+                    .description("핫스팟 배정 횟수 Redis 동기화 소요 시간")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.recommendation_service.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * 핫스팟 인덱스 적재 여부. readiness 그룹에 포함되어, 초기 적재가 끝나기 전에는 트래픽을 받지 않습니다.
+ */
+@Component("hotspots")
+@RequiredArgsConstructor
+public class HotspotHealthIndicator implements HealthIndicator {
+
+    private final HotspotIndexHolder hotspotIndexHolder;
+    private final HotspotLoader hotspotLoader;
+
+    @Override
+    public Health health() {
+        HotspotIndex index = hotspotIndexHolder.current();
+        if (index.isEmpty()) {
+            return Health.outOfService().withDetail("reason", "핫스팟 적재 중").build();
+        }
+        return Health.up()
+                     .withDetail("size", index.size())
+                     .withDetail("version", String.valueOf(hotspotLoader.currentVersion()))
+                     .build();
+    }
+}
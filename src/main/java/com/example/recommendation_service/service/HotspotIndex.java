@@ -0,0 +1,282 @@
+package com.example.recommendation_service.service;
+
+import java.util.Arrays;
+
+/**
+ * hotspots.csv 를 메모리에 올린 불변 공간 인덱스.
+ * <p>
+ * 좌표는 primitive 배열로 보관하고, 격자(grid) 셀 단위 버킷(CSR 형태)으로 나눠 반경 질의 시
+ * 주변 셀만 훑습니다. 거리 계산은 Redis GEO 와 동일한 haversine 공식/지구 반지름을 사용하므로
+ * 기존 GEORADIUS 결과와 같은 후보군을 같은 순서(거리 오름차순)로 돌려줍니다.
+ */
+public final class HotspotIndex {
+
+    public static final HotspotIndex EMPTY = of(new String[0], new double[0], new double[0], 1.0);
+
+    // Redis geohash_helper.c 의 EARTH_RADIUS_IN_METERS 와 동일
+    private static final double EARTH_RADIUS_KM = 6372.797560856;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    private final String[] ids;
+    private final double[] longitudes;
+    private final double[] latitudes;
+
+    private final double cellSizeDeg;
+    private final double minLat;
+    private final double minLon;
+    private final int rows;
+    private final int cols;
+    private final int[] cellStart; // 길이 rows * cols + 1
+    private final int[] cellItems; // 셀 순서대로 정렬된 핫스팟 인덱스
+
+    private HotspotIndex(String[] ids, double[] longitudes, double[] latitudes, double cellSizeKm) {
+        this.ids = ids;
+        this.longitudes = longitudes;
+        this.latitudes = latitudes;
+        this.cellSizeDeg = cellSizeKm / KM_PER_DEGREE;
+
+        double loLat = Double.POSITIVE_INFINITY, hiLat = Double.NEGATIVE_INFINITY;
+        double loLon = Double.POSITIVE_INFINITY, hiLon = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < ids.length; i++) {
+            loLat = Math.min(loLat, latitudes[i]);
+            hiLat = Math.max(hiLat, latitudes[i]);
+            loLon = Math.min(loLon, longitudes[i]);
+            hiLon = Math.max(hiLon, longitudes[i]);
+        }
+        if (ids.length == 0) {
+            loLat = hiLat = loLon = hiLon = 0.0;
+        }
+        this.minLat = loLat;
+        this.minLon = loLon;
+        this.rows = (int) ((hiLat - loLat) / cellSizeDeg) + 1;
+        this.cols = (int) ((hiLon - loLon) / cellSizeDeg) + 1;
+
+        // counting sort 로 셀별 버킷 구성
+        int[] cellOf = new int[ids.length];
+        this.cellStart = new int[rows * cols + 1];
+        for (int i = 0; i < ids.length; i++) {
+            cellOf[i] = row(latitudes[i]) * cols + col(longitudes[i]);
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < rows * cols; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        this.cellItems = new int[ids.length];
+        int[] cursor = Arrays.copyOf(cellStart, rows * cols);
+        for (int i = 0; i < ids.length; i++) {
+            cellItems[cursor[cellOf[i]]++] = i;
+        }
+    }
+
+    /**
+     * 배열은 복사하지 않고 그대로 소유권을 넘겨받습니다. 호출자는 이후 배열을 수정하면 안 됩니다.
+     */
+    public static HotspotIndex of(String[] ids, double[] longitudes, double[] latitudes, double cellSizeKm) {
+        if (ids.length != longitudes.length || ids.length != latitudes.length) {
+            throw new IllegalArgumentException("ids/longitudes/latitudes 길이가 일치하지 않습니다.");
+        }
+        if (cellSizeKm <= 0) {
+            throw new IllegalArgumentException("cellSizeKm 는 0보다 커야 합니다: " + cellSizeKm);
+        }
+        return new HotspotIndex(ids, longitudes, latitudes, cellSizeKm);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    public String id(int i) {
+        return ids[i];
+    }
+
+    public double longitude(int i) {
+        return longitudes[i];
+    }
+
+    public double latitude(int i) {
+        return latitudes[i];
+    }
+
+    /**
+     * 중심 좌표로부터 radiusKm 이내의 핫스팟을 거리 오름차순으로 반환합니다.
+     * 질의당 결과 배열 2개만 할당하며, 후보 단위 객체 할당은 없습니다.
+     */
+    public Candidates radius(double longitude, double latitude, double radiusKm) {
+        if (ids.length == 0) {
+            return new Candidates(this, new int[0], new double[0], 0);
+        }
+
+        double dLat = radiusKm / KM_PER_DEGREE;
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        double dLon = cosLat < 1e-9 ? 360.0 : dLat / cosLat;
+
+        int rowFrom = (int) Math.floor((latitude - dLat - minLat) / cellSizeDeg);
+        int rowTo = (int) Math.floor((latitude + dLat - minLat) / cellSizeDeg);
+        int colFrom = (int) Math.floor((longitude - dLon - minLon) / cellSizeDeg);
+        int colTo = (int) Math.floor((longitude + dLon - minLon) / cellSizeDeg);
+        if (rowTo < 0 || colTo < 0 || rowFrom >= rows || colFrom >= cols) {
+            return new Candidates(this, new int[0], new double[0], 0);
+        }
+        rowFrom = Math.max(rowFrom, 0);
+        colFrom = Math.max(colFrom, 0);
+        rowTo = Math.min(rowTo, rows - 1);
+        colTo = Math.min(colTo, cols - 1);
+
+        int capacity = 0;
+        for (int r = rowFrom; r <= rowTo; r++) {
+            capacity += cellStart[r * cols + colTo + 1] - cellStart[r * cols + colFrom];
+        }
+
+        int[] indices = new int[capacity];
+        double[] distances = new double[capacity];
+        int size = 0;
+        for (int r = rowFrom; r <= rowTo; r++) {
+            int from = cellStart[r * cols + colFrom];
+            int to = cellStart[r * cols + colTo + 1];
+            for (int k = from; k < to; k++) {
+                int i = cellItems[k];
+                double d = distanceKm(longitude, latitude, longitudes[i], latitudes[i]);
+                if (d <= radiusKm) {
+                    indices[size] = i;
+                    distances[size] = d;
+                    size++;
+                }
+            }
+        }
+        sortByDistance(indices, distances, 0, size - 1);
+        return new Candidates(this, indices, distances, size);
+    }
+
+    public static double distanceKm(double lon1, double lat1, double lon2, double lat2) {
+        double lat1r = Math.toRadians(lat1);
+        double lat2r = Math.toRadians(lat2);
+        double u = Math.sin((lat2r - lat1r) / 2);
+        double v = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+        return 2.0 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(u * u + Math.cos(lat1r) * Math.cos(lat2r) * v * v));
+    }
+
+    private int row(double lat) {
+        return Math.min((int) ((lat - minLat) / cellSizeDeg), rows - 1);
+    }
+
+    private int col(double lon) {
+        return Math.min((int) ((lon - minLon) / cellSizeDeg), cols - 1);
+    }
+
+    // 두 배열을 함께 정렬 (거리 동률이면 인덱스 오름차순 -> CSV 순서 유지)
+    private static void sortByDistance(int[] idx, double[] dist, int lo, int hi) {
+        while (hi - lo > 16) {
+            int mid = (lo + hi) >>> 1;
+            double pd = dist[mid];
+            int pi = idx[mid];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (less(dist[i], idx[i], pd, pi)) i++;
+                while (less(pd, pi, dist[j], idx[j])) j--;
+                if (i <= j) {
+                    swap(idx, dist, i++, j--);
+                }
+            }
+            // 작은 쪽을 재귀, 큰 쪽은 루프로 처리해 스택 깊이를 제한
+            if (j - lo < hi - i) {
+                sortByDistance(idx, dist, lo, j);
+                lo = i;
+            } else {
+                sortByDistance(idx, dist, i, hi);
+                hi = j;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; j > lo && less(dist[j], idx[j], dist[j - 1], idx[j - 1]); j--) {
+                swap(idx, dist, j, j - 1);
+            }
+        }
+    }
+
+    private static boolean less(double d1, int i1, double d2, int i2) {
+        return d1 < d2 || (d1 == d2 && i1 < i2);
+    }
+
+    private static void swap(int[] idx, double[] dist, int a, int b) {
+        int ti = idx[a];
+        idx[a] = idx[b];
+        idx[b] = ti;
+        double td = dist[a];
+        dist[a] = dist[b];
+        dist[b] = td;
+    }
+
+    /**
+     * 반경 질의 결과. 거리 오름차순으로 정렬된 핫스팟 인덱스/거리를 primitive 배열로 보관합니다.
+     */
+    public static final class Candidates {
+        private final HotspotIndex source;
+        private final int[] indices;
+        private final double[] distancesKm;
+        private final int size;
+
+        private Candidates(HotspotIndex source, int[] indices, double[] distancesKm, int size) {
+            this.source = source;
+            this.indices = indices;
+            this.distancesKm = distancesKm;
+            this.size = size;
+        }
+
+        public HotspotIndex source() {
+            return source;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        /** k 번째로 가까운 후보의 핫스팟 인덱스 */
+        public int index(int k) {
+            return indices[k];
+        }
+
+        public double distanceKm(int k) {
+            return distancesKm[k];
+        }
+
+        public String id(int k) {
+            return source.id(indices[k]);
+        }
+
+        public double longitude(int k) {
+            return source.longitude(indices[k]);
+        }
+
+        public double latitude(int k) {
+            return source.latitude(indices[k]);
+        }
+
+        /**
+         * 가장 가까운 n 개만 남긴 후보군.
+         */
+        public Candidates limit(int n) {
+            return n >= size ? this : new Candidates(source, indices, distancesKm, n);
+        }
+
+        /**
+         * 오름차순 후보 번호 ks[0..count) 만 남긴 후보군. 거리 오름차순이 유지됩니다.
+         */
+        public Candidates retain(int[] ks, int count) {
+            int[] keptIndices = new int[count];
+            double[] keptDistances = new double[count];
+            for (int j = 0; j < count; j++) {
+                keptIndices[j] = indices[ks[j]];
+                keptDistances[j] = distancesKm[ks[j]];
+            }
+            return new Candidates(source, keptIndices, keptDistances, count);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.recommendation_service.service;
+
+/**
+ * 핫스팟 집합이 바뀌어 {@link HotspotIndexHolder} 의 인덱스가 교체되었음을 알립니다.
+ * 핫스팟 ID("spotN")는 CSV 순서로 부여되므로, ID 기준으로 보관한 상태는 이 이벤트에서 비워야 합니다.
+ */
+public record HotspotIndexChangedEvent(HotspotIndex previous, HotspotIndex current, String version) {
+}
@@ -0,0 +1,24 @@
+package com.example.recommendation_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 현재 서비스 중인 {@link HotspotIndex} 를 보관합니다.
+ * 인덱스 자체가 불변이므로 참조 교체만으로 요청 처리 중단 없이 새 인덱스로 전환됩니다.
+ */
+@Component
+@Slf4j
+public class HotspotIndexHolder {
+
+    private volatile HotspotIndex current = HotspotIndex.EMPTY;
+
+    public HotspotIndex current() {
+        return current;
+    }
+
+    public void publish(HotspotIndex index) {
+        this.current = index;
+        log.info("핫스팟 인덱스 교체 완료. 핫스팟 수: {}", index.size());
+    }
+}
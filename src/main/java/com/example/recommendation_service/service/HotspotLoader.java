@@ -1,61 +1,266 @@
 package com.example.recommendation_service.service;
 
 import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.data.geo.Point;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
+/**
+ * 핫스팟 집합을 location(classpath/file/URL)에서 읽어 메모리 인덱스와 Redis GEO 키를 갱신합니다.
+ * <p>
+ * 기동 시 1회(컨텍스트를 막지 않고 백그라운드로, 완료 전까지 readiness DOWN), 이후 reload-interval 마다
+ * (또는 관리 API 로) 다시 읽어 기존 집합과 비교하고, 바뀐 경우에만
+ * <ol>
+ *     <li>메모리 인덱스를 참조 교체합니다. 처리 중인 요청은 이전 인덱스로 끝까지 처리됩니다.</li>
+ *     <li>Redis 에는 버전별 staging 키에 다중 멤버 GEOADD 로 기록한 뒤, Lua 스크립트로 RENAME + 버전 키 갱신을
+ *         원자적으로 수행합니다. 다른 서비스가 보는 demand_hotspots 키는 비는 순간이 없습니다.</li>
+ * </ol>
+ * Redis 버전 키가 이미 같으면 쓰지 않으며, 쓰기는 분산 락을 잡은 한 Pod 만 수행합니다 (스케일 아웃 시 재적재 폭주 방지).
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class HotspotLoader {
+
+    static final String HOTSPOTS_KEY = "demand_hotspots";
+    static final String VERSION_KEY = HOTSPOTS_KEY + ":version";
+    static final String LOCK_KEY = HOTSPOTS_KEY + ":lock";
+    private static final String STAGING_KEY_PREFIX = HOTSPOTS_KEY + ":staging:";
+    private static final int GEOADD_CHUNK_SIZE = 1000;
+    private static final int GEOADD_PIPELINE_DEPTH = 4;
+    private static final Duration REDIS_TIMEOUT = Duration.ofSeconds(30);
+
+    // staging 키를 서비스 키로 원자 교체하고 버전을 기록
+    private static final RedisScript<Long> SWAP_SCRIPT = RedisScript.of(
+            "redis.call('RENAME', KEYS[1], KEYS[2]) redis.call('SET', KEYS[3], ARGV[1]) return 1", Long.class);
+    // 자신이 잡은 락일 때만 해제
+    private static final RedisScript<Long> UNLOCK_SCRIPT = RedisScript.of(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end", Long.class);
+
     private final ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
-    private static final String HOTSPOTS_KEY = "demand_hotspots";
+    private final HotspotIndexHolder hotspotIndexHolder;
+    private final ResourceLoader resourceLoader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean redisSyncEnabled;
+    private final double indexCellSizeKm;
+    private final String location;
+    private final Duration redisLockTtl;
+
+    private volatile String currentVersion;
+
+    public HotspotLoader(ReactiveRedisTemplate<String, String> reactiveRedisTemplate,
+                         HotspotIndexHolder hotspotIndexHolder,
+                         ResourceLoader resourceLoader,
+                         ApplicationEventPublisher eventPublisher,
+                         @Value("${recommendation.hotspot.redis-sync-enabled:true}") boolean redisSyncEnabled,
+                         @Value("${recommendation.hotspot.index-cell-size-km:2.0}") double indexCellSizeKm,
+                         @Value("${recommendation.hotspot.location:classpath:hotspots.csv}") String location,
+                         @Value("${recommendation.hotspot.redis-lock-ttl:60s}") Duration redisLockTtl) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.hotspotIndexHolder = hotspotIndexHolder;
+        this.resourceLoader = resourceLoader;
+        this.eventPublisher = eventPublisher;
+        this.redisSyncEnabled = redisSyncEnabled;
+        this.indexCellSizeKm = indexCellSizeKm;
+        this.location = location;
+        this.redisLockTtl = redisLockTtl;
+    }
 
+    // 컨텍스트 기동을 막지 않도록 백그라운드에서 적재. 완료 여부는 HotspotHealthIndicator 가 readiness 로 보고합니다.
     @PostConstruct
     public void loadHotspots() {
+        Mono.fromCallable(this::reload)
+            .subscribeOn(Schedulers.boundedElastic())
+            .subscribe(result -> log.info("핫스팟 초기 적재 완료. version: {}, 핫스팟 수: {}", result.version(), result.size()),
+                       e -> log.error("핫스팟 로드 실패. location({}) 을 확인해주세요.", location, e));
+    }
+
+    public String currentVersion() {
+        return currentVersion;
+    }
+
+    @Scheduled(fixedDelayString = "${recommendation.hotspot.reload-interval:PT5M}",
+               initialDelayString = "${recommendation.hotspot.reload-interval:PT5M}")
+    public void scheduledReload() {
         try {
-            // 기존 키 제거
-            reactiveRedisTemplate.delete(HOTSPOTS_KEY).block();
-
-            // CSV 읽기
-            List<Point> hotspots = new ArrayList<>();
-            ClassPathResource resource = new ClassPathResource("hotspots.csv");
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream()))) {
-                reader.readLine(); // 헤더 스킵
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    String[] parts = line.split(",");
-                    // CSV: latitude,longitude
-                    double lat = Double.parseDouble(parts[0].trim());
-                    double lon = Double.parseDouble(parts[1].trim());
-                    hotspots.add(new Point(lon, lat)); // Point(x=lon, y=lat)
-                }
+            reload();
+        } catch (Exception e) {
+            log.error("핫스팟 재적재 실패. 기존 인덱스로 계속 서비스합니다. location: {}", location, e);
+        }
+    }
+
+    /**
+     * 핫스팟 집합을 다시 읽어 바뀐 경우에만 인덱스와 Redis 를 교체합니다. 동시 호출은 직렬화됩니다.
+     */
+    public synchronized HotspotReloadResult reload() throws IOException {
+        HotspotIndex previous = hotspotIndexHolder.current();
+        HotspotIndex index = readIndex();
+        String version = version(index);
+
+        int[] diff = diff(previous, index);
+        boolean changed = !version.equals(currentVersion);
+        if (changed) {
+            hotspotIndexHolder.publish(index);
+            currentVersion = version;
+            eventPublisher.publishEvent(new HotspotIndexChangedEvent(previous, index, version));
+            log.info("핫스팟 집합 변경. version: {}, 핫스팟 수: {}, 추가: {}, 제거: {}", version, index.size(), diff[0], diff[1]);
+        }
+
+        // 추천 경로는 메모리 인덱스를 사용하므로, Redis 는 다른 서비스와의 공유 용도로만 동기화합니다.
+        if (redisSyncEnabled) {
+            syncToRedis(index, version);
+        }
+        return new HotspotReloadResult(version, index.size(), diff[0], diff[1], changed);
+    }
+
+    private HotspotIndex readIndex() throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            return parseCsv(reader, indexCellSizeKm);
+        }
+    }
+
+    public static HotspotIndex parseCsv(BufferedReader reader, double cellSizeKm) throws IOException {
+        List<double[]> rows = new ArrayList<>();
+        reader.readLine(); // 헤더 스킵
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) continue;
+            String[] parts = line.split(",");
+            // CSV: latitude,longitude
+            rows.add(new double[]{Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim())});
+        }
+
+        // 멤버 이름은 "spot1", "spot2", ... 처럼 고유 ID로 저장
+        String[] ids = new String[rows.size()];
+        double[] lons = new double[rows.size()];
+        double[] lats = new double[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            ids[i] = "spot" + (i + 1);
+            lats[i] = rows.get(i)[0];
+            lons[i] = rows.get(i)[1];
+        }
+        return HotspotIndex.of(ids, lons, lats, cellSizeKm);
+    }
+
+    /**
+     * ID/좌표 순서까지 포함한 집합 체크섬. 같은 파일이면 모든 Pod 에서 같은 값이 나옵니다.
+     */
+    public static String version(HotspotIndex index) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = ByteBuffer.allocate(Double.BYTES * 2);
+            for (int i = 0; i < index.size(); i++) {
+                digest.update(index.id(i).getBytes(StandardCharsets.UTF_8));
+                buffer.clear();
+                buffer.putDouble(index.longitude(i)).putDouble(index.latitude(i));
+                digest.update(buffer.array());
             }
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return {추가된 좌표 수, 제거된 좌표 수}
+     */
+    static int[] diff(HotspotIndex previous, HotspotIndex next) {
+        Set<String> before = coordinates(previous);
+        Set<String> after = coordinates(next);
+        int added = 0;
+        for (String key : after) {
+            if (!before.contains(key)) added++;
+        }
+        int removed = 0;
+        for (String key : before) {
+            if (!after.contains(key)) removed++;
+        }
+        return new int[]{added, removed};
+    }
 
-            // 멤버 이름은 "spot1", "spot2", ... 처럼 고유 ID로 저장
-            AtomicInteger idx = new AtomicInteger(1);
-            Flux.fromIterable(hotspots)
-                .flatMap(point -> {
-                    String memberName = "spot" + idx.getAndIncrement();
-                    return reactiveRedisTemplate.opsForGeo()
-                                                .add(HOTSPOTS_KEY, point, memberName);
-                })
-                .doOnComplete(() -> log.info("{}개의 핫스팟을 Redis에 로드 완료.", hotspots.size()))
-                .blockLast(); // PostConstruct 에서 완료를 기다립니다.
+    private static Set<String> coordinates(HotspotIndex index) {
+        Set<String> keys = new HashSet<>(index.size() * 2);
+        for (int i = 0; i < index.size(); i++) {
+            keys.add(String.format(Locale.ROOT, "%.6f,%.6f", index.longitude(i), index.latitude(i)));
+        }
+        return keys;
+    }
+
+    private void syncToRedis(HotspotIndex index, String version) {
+        if (index.isEmpty()) {
+            return;
+        }
+        try {
+            String published = reactiveRedisTemplate.opsForValue().get(VERSION_KEY).block(REDIS_TIMEOUT);
+            if (version.equals(published)) {
+                log.debug("Redis 핫스팟 키가 이미 최신입니다. version: {}", version);
+                return;
+            }
 
+            String token = UUID.randomUUID().toString();
+            Boolean locked = reactiveRedisTemplate.opsForValue().setIfAbsent(LOCK_KEY, token, redisLockTtl).block(REDIS_TIMEOUT);
+            if (!Boolean.TRUE.equals(locked)) {
+                log.info("다른 Pod 가 핫스팟을 Redis 에 적재 중이라 건너뜁니다. version: {}", version);
+                return;
+            }
+            try {
+                // 락을 기다리는 사이 다른 Pod 가 같은 버전을 적재했을 수 있음
+                if (!version.equals(reactiveRedisTemplate.opsForValue().get(VERSION_KEY).block(REDIS_TIMEOUT))) {
+                    writeAndSwap(index, version);
+                }
+            } finally {
+                reactiveRedisTemplate.execute(UNLOCK_SCRIPT, List.of(LOCK_KEY), List.of(token)).then().block(REDIS_TIMEOUT);
+            }
         } catch (Exception e) {
-            log.error("hotspots.csv 로드 실패. src/main/resources 폴더에 파일이 있는지 확인해주세요.", e);
+            log.error("핫스팟 Redis 동기화 실패. 추천은 메모리 인덱스로 계속 제공됩니다.", e);
         }
     }
+
+    private void writeAndSwap(HotspotIndex index, String version) {
+        String stagingKey = STAGING_KEY_PREFIX + version;
+        reactiveRedisTemplate.delete(stagingKey).block(REDIS_TIMEOUT);
+        Flux.range(0, (index.size() + GEOADD_CHUNK_SIZE - 1) / GEOADD_CHUNK_SIZE)
+            // 다중 멤버 GEOADD 를 같은 커넥션으로 응답을 기다리지 않고 연달아 전송 (pipelining)
+            .flatMap(chunk -> {
+                int from = chunk * GEOADD_CHUNK_SIZE;
+                int to = Math.min(from + GEOADD_CHUNK_SIZE, index.size());
+                Map<String, Point> members = new LinkedHashMap<>();
+                for (int i = from; i < to; i++) {
+                    members.put(index.id(i), new Point(index.longitude(i), index.latitude(i)));
+                }
+                return reactiveRedisTemplate.opsForGeo().add(stagingKey, members);
+            }, GEOADD_PIPELINE_DEPTH)
+            .then(reactiveRedisTemplate.execute(SWAP_SCRIPT, List.of(stagingKey, HOTSPOTS_KEY, VERSION_KEY), List.of(version))
+                                       .then())
+            .block(REDIS_TIMEOUT);
+        log.info("{}개의 핫스팟을 Redis에 반영 완료. version: {}", index.size(), version);
+    }
 }
@@ -0,0 +1,163 @@
+package com.example.recommendation_service.service;
+
+import com.example.recommendation_service.client.PredictionInstance;
+import com.example.recommendation_service.client.VertexAiClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 15분 경계 직전에 전체 핫스팟을 다음 슬롯 기준으로 미리 채점해 점수표를 게시합니다.
+ * 요청 경로에서는 점수표 조회만 하고, 점수표가 없거나 stale 한 경우에만 Vertex AI 를 실시간 호출합니다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "recommendation.prescoring", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class HotspotPrescoringScheduler {
+
+    private final VertexAiClient vertexAiClient;
+    private final HotspotIndexHolder hotspotIndexHolder;
+    private final HotspotScoreTables scoreTables;
+    private final HotspotPriors hotspotPriors;
+    private final LocalDemandModel localDemandModel;
+    private final int chunkSize;
+    private final int concurrency;
+    private final double minCoverage;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    // 진행 중에 인덱스가 바뀌어 끝난 뒤 현재 슬롯을 다시 채점해야 하는지
+    private final AtomicBoolean rescorePending = new AtomicBoolean(false);
+
+    public HotspotPrescoringScheduler(VertexAiClient vertexAiClient,
+                                      HotspotIndexHolder hotspotIndexHolder,
+                                      HotspotScoreTables scoreTables,
+                                      HotspotPriors hotspotPriors,
+                                      LocalDemandModel localDemandModel,
+                                      @Value("${recommendation.prescoring.chunk-size:100}") int chunkSize,
+                                      @Value("${recommendation.prescoring.concurrency:2}") int concurrency,
+                                      @Value("${recommendation.prescoring.min-coverage:0.9}") double minCoverage) {
+        this.vertexAiClient = vertexAiClient;
+        this.hotspotIndexHolder = hotspotIndexHolder;
+        this.scoreTables = scoreTables;
+        this.hotspotPriors = hotspotPriors;
+        this.localDemandModel = localDemandModel;
+        this.chunkSize = chunkSize;
+        this.concurrency = concurrency;
+        this.minCoverage = minCoverage;
+    }
+
+    // 기동 직후 현재 슬롯 점수표가 없으므로 한 번 채워둡니다.
+    @EventListener(ApplicationReadyEvent.class)
+    public void prescoreCurrentSlot() {
+        trigger(TimeSlot.now());
+    }
+
+    // 핫스팟 집합이 바뀌면 기존 점수표는 stale 이므로 현재 슬롯을 새 인덱스로 다시 채점.
+    // 초기 적재는 백그라운드에서 끝나므로 기동 직후 채점이 빈 인덱스로 지나갔다면 여기서 채워집니다.
+    // 진행 중인 채점은 이전 인덱스를 보고 있으므로, 건너뛰지 않고 끝난 뒤 한 번 더 채점합니다.
+    @EventListener
+    public void onHotspotIndexChanged(HotspotIndexChangedEvent event) {
+        rescorePending.set(true);
+        runPendingRescore();
+    }
+
+    @Scheduled(cron = "${recommendation.prescoring.cron:0 13/15 * * * *}")
+    public void prescoreUpcomingSlot() {
+        trigger(TimeSlot.now().next());
+    }
+
+    private void trigger(TimeSlot slot) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("이전 사전 채점이 아직 진행 중이라 이번 실행은 건너뜁니다. slot: {}", slot.slot());
+            return;
+        }
+        run(slot);
+    }
+
+    // 대기 중인 재채점이 있고 진행 중인 채점이 없으면 현재 슬롯을 다시 채점.
+    // 진행 중이면 그 채점이 끝날 때 다시 불리므로, 여러 번 바뀌어도 한 번만 이어서 실행됩니다.
+    private void runPendingRescore() {
+        while (rescorePending.get() && running.compareAndSet(false, true)) {
+            if (rescorePending.getAndSet(false)) {
+                log.info("핫스팟 인덱스 변경으로 현재 슬롯을 다시 사전 채점합니다.");
+                run(TimeSlot.now());
+                return;
+            }
+            running.set(false);
+        }
+    }
+
+    private void run(TimeSlot slot) {
+        prescore(slot)
+                .doFinally(signal -> {
+                    running.set(false);
+                    runPendingRescore();
+                })
+                .subscribe(table -> {
+                               scoreTables.publish(table);
+                               hotspotPriors.learn(table);
+                               localDemandModel.learn(table);
+                           },
+                           e -> log.error("핫스팟 사전 채점 실패. slot: {}", slot.slot(), e));
+    }
+
+    /**
+     * 인덱스의 모든 핫스팟을 chunk-size 단위 predictBulk 로 채점합니다.
+     * 실패한 chunk 의 핫스팟은 NaN 으로 남겨 요청 시점에 실시간 채점되도록 합니다.
+     * 채점된 비율이 min-coverage 미만이면(Vertex 장애 등) 점수표를 만들지 않아 이전 점수표를 그대로 둡니다.
+     */
+    public Mono<HotspotScoreTable> prescore(TimeSlot slot) {
+        HotspotIndex index = hotspotIndexHolder.current();
+        if (index.isEmpty()) {
+            return Mono.empty();
+        }
+
+        double[] scores = new double[index.size()];
+        Arrays.fill(scores, Double.NaN);
+        long startNanos = System.nanoTime();
+        int chunks = (index.size() + chunkSize - 1) / chunkSize;
+        AtomicInteger failedChunks = new AtomicInteger();
+
+        return Flux.range(0, chunks)
+                   .flatMap(chunk -> {
+                       int from = chunk * chunkSize;
+                       int to = Math.min(from + chunkSize, index.size());
+                       List<PredictionInstance> instances = new ArrayList<>(to - from);
+                       for (int i = from; i < to; i++) {
+                           instances.add(HotspotScorer.buildInstance(index.longitude(i), index.latitude(i), slot));
+                       }
+                       return vertexAiClient.tryPredictBulk(instances)
+                                            .doOnNext(predicted -> {
+                                                System.arraycopy(predicted, 0, scores, from, Math.min(predicted.length, to - from));
+                                            })
+                                            .onErrorResume(e -> {
+                                                failedChunks.incrementAndGet();
+                                                log.warn("사전 채점 chunk 실패. 핫스팟 {}~{}. Error: {}", from, to - 1, e.getMessage());
+                                                return Mono.empty();
+                                            });
+                   }, concurrency)
+                   .then(Mono.fromSupplier(() -> new HotspotScoreTable(slot, index, scores)))
+                   .filter(table -> {
+                       int scored = table.scoredCount();
+                       if (scored < minCoverage * index.size()) {
+                           log.warn("핫스팟 사전 채점 결과를 게시하지 않습니다 (이전 점수표 유지). slot: {}, 실패 chunk: {}/{}, 채점 완료: {}/{}",
+                                   slot.slot(), failedChunks.get(), chunks, scored, index.size());
+                           return false;
+                       }
+                       log.info("핫스팟 사전 채점 완료. slot: {}, 실패 chunk: {}/{}, 소요: {}ms",
+                               slot.slot(), failedChunks.get(), chunks, (System.nanoTime() - startNanos) / 1_000_000);
+                       return true;
+                   });
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.recommendation_service.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * 핫스팟별/하루 중 슬롯별 과거 예측 점수의 지수이동평균.
+ * 후보 가지치기({@link CandidatePruner})의 값싼 사전 점수로 쓰이며, 실제 예측값(Fallback 제외)으로만 갱신됩니다.
+ * 현재 인덱스 기준으로만 보관하고, 인덱스가 교체되면 처음부터 다시 학습합니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class HotspotPriors {
+
+    private static final int SLOTS_PER_DAY = 96;
+    private static final float ALPHA = 0.3f;
+
+    private record Table(HotspotIndex index, float[] values) {
+    }
+
+    private final HotspotIndexHolder hotspotIndexHolder;
+    private volatile Table table = new Table(HotspotIndex.EMPTY, new float[0]);
+
+    /**
+     * @return 학습된 적이 없거나 다른 인덱스의 핫스팟이면 NaN
+     */
+    public double prior(HotspotIndex index, int hotspotIndex, TimeSlot slot) {
+        Table current = table;
+        if (current.index() != index) {
+            return Double.NaN;
+        }
+        return current.values()[hotspotIndex * SLOTS_PER_DAY + slot.slot()];
+    }
+
+    // 동시 갱신 시 일부 갱신이 유실될 수 있으나, 근사 사전 점수이므로 락 없이 기록합니다.
+    public void record(HotspotIndex index, int hotspotIndex, TimeSlot slot, double score) {
+        Table current = tableFor(index);
+        if (current == null) {
+            return;
+        }
+        int position = hotspotIndex * SLOTS_PER_DAY + slot.slot();
+        float previous = current.values()[position];
+        current.values()[position] = Float.isNaN(previous) ? (float) score : previous + ALPHA * ((float) score - previous);
+    }
+
+    public void learn(HotspotScoreTable scoreTable) {
+        for (int i = 0; i < scoreTable.index().size(); i++) {
+            double score = scoreTable.score(i);
+            if (!Double.isNaN(score)) {
+                record(scoreTable.index(), i, scoreTable.slot(), score);
+            }
+        }
+    }
+
+    private Table tableFor(HotspotIndex index) {
+        Table current = table;
+        if (current.index() == index) {
+            return current;
+        }
+        // Redis Fallback 으로 만든 임시 인덱스 등은 학습하지 않음
+        if (index != hotspotIndexHolder.current()) {
+            return null;
+        }
+        synchronized (this) {
+            if (table.index() != index) {
+                float[] values = new float[index.size() * SLOTS_PER_DAY];
+                Arrays.fill(values, Float.NaN);
+                table = new Table(index, values);
+            }
+            return table;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.recommendation_service.service;
+
+/**
+ * 핫스팟 집합 재적재 결과.
+ *
+ * @param version 핫스팟 집합 체크섬 (Redis 버전 키 값)
+ * @param size    새 핫스팟 수
+ * @param added   기존 대비 추가된 좌표 수
+ * @param removed 기존 대비 제거된 좌표 수
+ * @param changed 인덱스 교체 여부 (순서만 바뀐 경우도 ID 가 달라지므로 교체)
+ */
+public record HotspotReloadResult(String version, int size, int added, int removed, boolean changed) {
+}
@@ -0,0 +1,41 @@
+package com.example.recommendation_service.service;
+
+/**
+ * 특정 시간 슬롯에 대해 인덱스의 모든 핫스팟을 미리 채점해 둔 불변 점수표.
+ * 점수는 {@link HotspotIndex} 의 핫스팟 인덱스 순서이며, 채점에 실패한 핫스팟은 {@link Double#NaN} 입니다.
+ */
+public final class HotspotScoreTable {
+
+    private final TimeSlot slot;
+    private final HotspotIndex index;
+    private final double[] scores;
+
+    public HotspotScoreTable(TimeSlot slot, HotspotIndex index, double[] scores) {
+        if (scores.length != index.size()) {
+            throw new IllegalArgumentException("점수 개수가 핫스팟 수와 다릅니다: " + scores.length + " != " + index.size());
+        }
+        this.slot = slot;
+        this.index = index;
+        this.scores = scores;
+    }
+
+    public TimeSlot slot() {
+        return slot;
+    }
+
+    public HotspotIndex index() {
+        return index;
+    }
+
+    public double score(int hotspotIndex) {
+        return scores[hotspotIndex];
+    }
+
+    public int scoredCount() {
+        int count = 0;
+        for (double score : scores) {
+            if (!Double.isNaN(score)) count++;
+        }
+        return count;
+    }
+}
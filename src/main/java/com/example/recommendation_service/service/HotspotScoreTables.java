@@ -0,0 +1,34 @@
+package com.example.recommendation_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 사전 채점된 점수표를 슬롯 시작 시각 기준으로 보관합니다.
+ * 현재 슬롯과 곧 시작될 다음 슬롯의 점수표가 함께 존재할 수 있으며, 지난 슬롯은 게시 시점에 정리됩니다.
+ */
+@Component
+@Slf4j
+public class HotspotScoreTables {
+
+    private final Map<Long, HotspotScoreTable> tables = new ConcurrentHashMap<>();
+
+    public void publish(HotspotScoreTable table) {
+        long now = System.currentTimeMillis();
+        tables.values().removeIf(t -> t.slot().endMillis() <= now);
+        tables.put(table.slot().startMillis(), table);
+        log.info("핫스팟 점수표 게시. slot: {}, day: {}, 채점 완료: {}/{}",
+                table.slot().slot(), table.slot().dayOfWeek(), table.scoredCount(), table.index().size());
+    }
+
+    /**
+     * 해당 슬롯 + 인덱스 버전의 점수표. 없거나(미생성) 인덱스가 교체되어 맞지 않으면(stale) null.
+     */
+    public HotspotScoreTable find(TimeSlot slot, HotspotIndex index) {
+        HotspotScoreTable table = tables.get(slot.startMillis());
+        return table != null && table.index() == index ? table : null;
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.recommendation_service.service;
+
+import com.example.recommendation_service.client.PredictionInstance;
+import com.example.recommendation_service.client.RequestDeadline;
+import com.example.recommendation_service.client.VertexPredictionBatcher;
+import com.example.recommendation_service.service.RecommendationMetrics.Fallback;
+import com.example.recommendation_service.service.RecommendationMetrics.ScoreSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 후보 핫스팟들의 수요 점수를 계산합니다.
+ * 사전 채점된 점수표 -> 점수 캐시 순으로 조회하고, 둘 다 없는 후보만 Vertex AI 로 보내
+ * 결과를 원래 후보 순서에 맞춰 합칩니다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HotspotScorer {
+
+    private final VertexPredictionBatcher predictionBatcher;
+    private final PredictionScoreCache scoreCache;
+    private final HotspotScoreTables scoreTables;
+    private final HotspotPriors hotspotPriors;
+    private final LocalDemandModel localDemandModel;
+    private final RecommendationMetrics metrics;
+
+    /**
+     * @return candidates 와 같은 순서의 점수 배열. 예측에 실패한 후보는 로컬 점수표 값(없으면 0.0)
+     */
+    public Mono<double[]> score(HotspotIndex.Candidates candidates, TimeSlot slot) {
+        return score(candidates, slot, Duration.ZERO, () -> {
+        });
+    }
+
+    /**
+     * @param reserve    요청 deadline 중 뒤 단계를 위해 남겨둘 시간. 그 전에 예측이 끝나지 않으면 Fallback 점수로 응답
+     * @param onFallback Vertex AI 예측 대신 Fallback 점수를 쓴 경우 호출 (결과 캐싱 제외 등)
+     */
+    public Mono<double[]> score(HotspotIndex.Candidates candidates, TimeSlot slot, Duration reserve, Runnable onFallback) {
+        return Mono.deferContextual(context -> score(candidates, slot, reserve, onFallback,
+                context.hasKey(RecommendationMetrics.WARMUP_CONTEXT_KEY)));
+    }
+
+    private Mono<double[]> score(HotspotIndex.Candidates candidates, TimeSlot slot, Duration reserve, Runnable onFallback,
+                                 boolean warmup) {
+        double[] scores = new double[candidates.size()];
+        int[] misses = new int[candidates.size()];
+        int missCount = 0;
+
+        int tableCount = 0;
+        int cacheCount = 0;
+        int localCount = 0;
+
+        HotspotScoreTable table = scoreTables.find(slot, candidates.source());
+        boolean localPrimary = localDemandModel.isPrimary();
+        for (int k = 0; k < candidates.size(); k++) {
+            double cached = table != null ? table.score(candidates.index(k)) : Double.NaN;
+            if (!Double.isNaN(cached)) {
+                tableCount++;
+            } else {
+                cached = scoreCache.get(candidates.id(k), slot);
+                if (!Double.isNaN(cached)) cacheCount++;
+            }
+            // primary 모드: 로컬 점수표에 있으면 Vertex 로 보내지 않음
+            if (Double.isNaN(cached) && localPrimary) {
+                cached = localDemandModel.score(candidates.source(), candidates.index(k), slot);
+                if (!Double.isNaN(cached)) localCount++;
+            }
+            if (Double.isNaN(cached)) {
+                misses[missCount++] = k;
+            } else {
+                scores[k] = cached;
+            }
+        }
+        // 기동 워밍업 요청은 점수 출처 지표에서 제외
+        if (!warmup) {
+            if (localCount > 0) {
+                localDemandModel.countServed(true, localCount);
+            }
+            metrics.countScores(ScoreSource.TABLE, tableCount);
+            metrics.countScores(ScoreSource.CACHE, cacheCount);
+            metrics.countScores(ScoreSource.LOCAL, localCount);
+        }
+
+        if (missCount == 0) {
+            return Mono.just(scores);
+        }
+
+        int requested = missCount;
+        if (warmup) {
+            // 기동 워밍업은 유료 외부 호출 없이 Fallback 과 같은 로컬 점수표 경로로 채움 (결과 캐싱 제외)
+            fillFromLocalModel(candidates, misses, 0, requested, slot, scores);
+            onFallback.run();
+            return Mono.just(scores);
+        }
+        // AI 모델에 전달할 Bulk Payload 조립 - 캐시 미스 후보만
+        List<PredictionInstance> instances = new ArrayList<>(requested);
+        for (int j = 0; j < requested; j++) {
+            instances.add(buildInstance(candidates.longitude(misses[j]), candidates.latitude(misses[j]), slot));
+        }
+        return predictionBatcher.predict(instances)
+                                .transform(predicted -> RequestDeadline.bound(predicted, reserve))
+                                .map(predicted -> {
+                                    int received = Math.min(requested, predicted.length);
+                                    for (int j = 0; j < received; j++) {
+                                        int k = misses[j];
+                                        scores[k] = predicted[j];
+                                        scoreCache.put(candidates.id(k), slot, scores[k]);
+                                        hotspotPriors.record(candidates.source(), candidates.index(k), slot, scores[k]);
+                                        localDemandModel.record(candidates.source(), candidates.index(k), slot, scores[k]);
+                                    }
+                                    metrics.countScores(ScoreSource.VERTEX, received);
+                                    if (received < requested) {
+                                        // 응답이 모자란 후보는 호출 실패와 같이 로컬 점수표로 채움 (캐싱하지 않음)
+                                        int filled = fillFromLocalModel(candidates, misses, received, requested, slot, scores);
+                                        metrics.countFallback(Fallback.SCORING_ERROR);
+                                        onFallback.run();
+                                        metrics.countScores(ScoreSource.LOCAL, filled);
+                                        metrics.countScores(ScoreSource.FALLBACK, requested - received - filled);
+                                        log.warn("Vertex AI 예측값 개수 불일치. 요청: {}, 응답: {} (Fallback: 로컬 점수표 {}건, 나머지 0.0)",
+                                                requested, predicted.length, filled);
+                                    }
+                                    return scores;
+                                })
+                                .onErrorResume(throwable -> {
+                                    // Fallback 점수는 캐싱하지 않음
+                                    int filled = fillFromLocalModel(candidates, misses, 0, requested, slot, scores);
+                                    metrics.countFallback(Fallback.SCORING_ERROR);
+                                    onFallback.run();
+                                    metrics.countScores(ScoreSource.LOCAL, filled);
+                                    metrics.countScores(ScoreSource.FALLBACK, requested - filled);
+                                    log.warn("Vertex AI Bulk 호출 실패 (Fallback: 로컬 점수표 {}/{}건, 나머지 0.0). Error: {}",
+                                            filled, requested, throwable.getMessage());
+                                    return Mono.just(scores);
+                                });
+    }
+
+    /**
+     * 외부 호출 없이 이미 가진 점수만으로 채점합니다 (과부하 시 degraded 응답용).
+     * 점수표 -> 점수 캐시 -> 로컬 점수표 -> 사전 점수(EMA) 순이며, 어디에도 없으면 0.0
+     */
+    public double[] scoreOffline(HotspotIndex.Candidates candidates, TimeSlot slot) {
+        double[] scores = new double[candidates.size()];
+        HotspotScoreTable table = scoreTables.find(slot, candidates.source());
+        for (int k = 0; k < candidates.size(); k++) {
+            double score = table != null ? table.score(candidates.index(k)) : Double.NaN;
+            if (Double.isNaN(score)) {
+                score = scoreCache.get(candidates.id(k), slot);
+            }
+            if (Double.isNaN(score)) {
+                score = localDemandModel.score(candidates.source(), candidates.index(k), slot);
+            }
+            if (Double.isNaN(score)) {
+                score = hotspotPriors.prior(candidates.source(), candidates.index(k), slot);
+            }
+            scores[k] = Double.isNaN(score) ? 0.0 : score;
+        }
+        return scores;
+    }
+
+    // misses[from..to) 후보를 로컬 점수표 값으로 채우고, 채운 개수를 돌려줌 (점수표에 없으면 기존 값 유지)
+    private int fillFromLocalModel(HotspotIndex.Candidates candidates, int[] misses, int from, int to, TimeSlot slot,
+                                   double[] scores) {
+        int filled = 0;
+        for (int j = from; j < to; j++) {
+            int k = misses[j];
+            double local = localDemandModel.score(candidates.source(), candidates.index(k), slot);
+            if (!Double.isNaN(local)) {
+                scores[k] = local;
+                filled++;
+            }
+        }
+        if (filled > 0) {
+            localDemandModel.countServed(false, filled);
+        }
+        return filled;
+    }
+
+    static PredictionInstance buildInstance(double longitude, double latitude, TimeSlot slot) {
+        return new PredictionInstance(longitude, latitude, slot.slot(), slot.dayOfWeek());
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.recommendation_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 프로세스 내 수요 점수표: (핫스팟, 요일, 15분 슬롯) -> 점수.
+ * <p>
+ * 모델에서 주기적으로 export 한 CSV(location)를 읽고, 이후 실제 Vertex AI 예측값(실시간/사전 채점)으로 덮어써
+ * 최신 상태를 유지합니다. mode 에 따라
+ * <ul>
+ *     <li>FALLBACK: Vertex 호출 실패/서킷 오픈 시 0.0 대신 이 점수로 추천합니다.</li>
+ *     <li>PRIMARY: 점수가 있는 후보는 Vertex 를 호출하지 않습니다 (Vertex 는 사전 채점으로 점수표 갱신에만 사용).</li>
+ * </ul>
+ * CSV 형식: latitude,longitude,day_of_week(월=0),time_slot(0~95),score (헤더 1줄, .gz 가능)
+ */
+@Component
+@Slf4j
+public class LocalDemandModel {
+
+    public enum Mode { OFF, FALLBACK, PRIMARY }
+
+    private static final int SLOTS_PER_DAY = 96;
+    private static final int SLOTS_PER_WEEK = 7 * SLOTS_PER_DAY;
+
+    private record Table(HotspotIndex index, float[] values) {
+    }
+
+    private final HotspotIndexHolder hotspotIndexHolder;
+    private final ResourceLoader resourceLoader;
+    private final Mode mode;
+    private final String location;
+    private final Counter primaryCounter;
+    private final Counter fallbackCounter;
+
+    // export 파일 내용: 좌표 키 -> 주간 점수(SLOTS_PER_WEEK)
+    private volatile Map<String, float[]> exported = Map.of();
+    private volatile long exportedLastModified = Long.MIN_VALUE;
+    private volatile Table table = new Table(HotspotIndex.EMPTY, new float[0]);
+
+    public LocalDemandModel(HotspotIndexHolder hotspotIndexHolder,
+                            ResourceLoader resourceLoader,
+                            MeterRegistry meterRegistry,
+                            @Value("${recommendation.local-model.mode:FALLBACK}") Mode mode,
+                            @Value("${recommendation.local-model.location:}") String location) {
+        this.hotspotIndexHolder = hotspotIndexHolder;
+        this.resourceLoader = resourceLoader;
+        this.mode = mode;
+        this.location = location;
+        this.primaryCounter = Counter.builder("recommendation.local-model.scores")
+                                     .description("Vertex AI 대신 로컬 점수표로 채점한 후보 수")
+                                     .tag("role", "primary")
+                                     .register(meterRegistry);
+        this.fallbackCounter = Counter.builder("recommendation.local-model.scores")
+                                      .description("Vertex AI 대신 로컬 점수표로 채점한 후보 수")
+                                      .tag("role", "fallback")
+                                      .register(meterRegistry);
+    }
+
+    public boolean isPrimary() {
+        return mode == Mode.PRIMARY;
+    }
+
+    /**
+     * @return 점수가 없거나 비활성화/다른 인덱스이면 NaN
+     */
+    public double score(HotspotIndex index, int hotspotIndex, TimeSlot slot) {
+        if (mode == Mode.OFF) {
+            return Double.NaN;
+        }
+        Table current = tableFor(index);
+        return current == null ? Double.NaN : current.values()[position(hotspotIndex, slot)];
+    }
+
+    // 실제 예측값으로 덮어씀. 근사 점수표이므로 동시 갱신은 락 없이 마지막 값이 남습니다.
+    public void record(HotspotIndex index, int hotspotIndex, TimeSlot slot, double score) {
+        if (mode == Mode.OFF) {
+            return;
+        }
+        Table current = tableFor(index);
+        if (current != null) {
+            current.values()[position(hotspotIndex, slot)] = (float) score;
+        }
+    }
+
+    public void learn(HotspotScoreTable scoreTable) {
+        for (int i = 0; i < scoreTable.index().size(); i++) {
+            double score = scoreTable.score(i);
+            if (!Double.isNaN(score)) {
+                record(scoreTable.index(), i, scoreTable.slot(), score);
+            }
+        }
+    }
+
+    public void countServed(boolean primary, int count) {
+        (primary ? primaryCounter : fallbackCounter).increment(count);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${recommendation.local-model.reload-interval:PT1H}",
+               initialDelayString = "${recommendation.local-model.reload-interval:PT1H}")
+    public void reload() {
+        if (mode == Mode.OFF || location == null || location.isBlank()) {
+            return;
+        }
+        Resource resource = resourceLoader.getResource(location);
+        try {
+            long lastModified = lastModified(resource);
+            if (lastModified != Long.MIN_VALUE && lastModified == exportedLastModified) {
+                return;
+            }
+            Map<String, float[]> loaded = read(resource);
+            exported = loaded;
+            exportedLastModified = lastModified;
+            synchronized (this) {
+                Table previous = table;
+                table = build(hotspotIndexHolder.current(), previous);
+            }
+            log.info("로컬 수요 점수표 로드 완료. 핫스팟 수: {}, location: {}", loaded.size(), location);
+        } catch (Exception e) {
+            log.error("로컬 수요 점수표 로드 실패. 기존 점수표를 유지합니다. location: {}", location, e);
+        }
+    }
+
+    private Table tableFor(HotspotIndex index) {
+        Table current = table;
+        if (current.index() == index) {
+            return current;
+        }
+        // Redis Fallback 으로 만든 임시 인덱스 등은 대상이 아님
+        if (index != hotspotIndexHolder.current()) {
+            return null;
+        }
+        synchronized (this) {
+            if (table.index() != index) {
+                table = build(index, table);
+            }
+            return table;
+        }
+    }
+
+    /**
+     * export 파일 점수로 새 점수표를 만들고, 같은 인덱스의 기존 점수표에서 학습한 값은 파일에 없는 칸에 한해 유지합니다.
+     */
+    private Table build(HotspotIndex index, Table previous) {
+        float[] values = new float[index.size() * SLOTS_PER_WEEK];
+        Arrays.fill(values, Float.NaN);
+        Map<String, float[]> source = exported;
+        for (int i = 0; i < index.size(); i++) {
+            float[] weekly = source.get(key(index.longitude(i), index.latitude(i)));
+            if (weekly != null) {
+                System.arraycopy(weekly, 0, values, i * SLOTS_PER_WEEK, SLOTS_PER_WEEK);
+            }
+        }
+        if (previous.index() == index) {
+            for (int p = 0; p < values.length; p++) {
+                if (Float.isNaN(values[p])) values[p] = previous.values()[p];
+            }
+        }
+        return new Table(index, values);
+    }
+
+    static Map<String, float[]> read(Resource resource) throws IOException {
+        InputStream in = resource.getInputStream();
+        if (resource.getFilename() != null && resource.getFilename().endsWith(".gz")) {
+            in = new GZIPInputStream(in);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return parse(reader);
+        }
+    }
+
+    static Map<String, float[]> parse(BufferedReader reader) throws IOException {
+        Map<String, float[]> loaded = new HashMap<>();
+        reader.readLine(); // 헤더 스킵
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) continue;
+            String[] parts = line.split(",");
+            double latitude = Double.parseDouble(parts[0].trim());
+            double longitude = Double.parseDouble(parts[1].trim());
+            int dayOfWeek = Integer.parseInt(parts[2].trim());
+            int timeSlot = Integer.parseInt(parts[3].trim());
+            float score = Float.parseFloat(parts[4].trim());
+
+            float[] weekly = loaded.computeIfAbsent(key(longitude, latitude), k -> {
+                float[] created = new float[SLOTS_PER_WEEK];
+                Arrays.fill(created, Float.NaN);
+                return created;
+            });
+            weekly[dayOfWeek * SLOTS_PER_DAY + timeSlot] = score;
+        }
+        return loaded;
+    }
+
+    private static int position(int hotspotIndex, TimeSlot slot) {
+        return hotspotIndex * SLOTS_PER_WEEK + slot.dayOfWeek() * SLOTS_PER_DAY + slot.slot();
+    }
+
+    // 핫스팟 재번호 부여에 영향받지 않도록 소수점 5자리(약 1m) 좌표로 매칭
+    private static String key(double longitude, double latitude) {
+        return String.format(Locale.ROOT, "%.5f,%.5f", longitude, latitude);
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.recommendation_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (핫스팟, 시간 슬롯, 요일) 단위 Vertex AI 예측 점수 캐시.
+ * <p>
+ * 모델 입력이 핫스팟 좌표와 슬롯/요일뿐이므로 같은 슬롯 안에서는 기사와 무관하게 점수가 같습니다.
+ * 각 항목은 해당 슬롯이 끝나는 시각에 만료되며, 최대 크기를 넘으면 Caffeine 정책으로 제거됩니다.
+ */
+@Component
+public class PredictionScoreCache {
+
+    private record ScoreKey(String hotspotId, int timeSlot, int dayOfWeek) {
+    }
+
+    private record CachedScore(double score, long expiresAtMillis) {
+    }
+
+    private final Cache<ScoreKey, CachedScore> cache;
+
+    public PredictionScoreCache(@Value("${recommendation.score-cache.max-size:20000}") long maxSize,
+                                MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                             .maximumSize(maxSize)
+                             .expireAfter(new Expiry<ScoreKey, CachedScore>() {
+                                 @Override
+                                 public long expireAfterCreate(ScoreKey key, CachedScore value, long currentTime) {
+                                     return untilExpiry(value);
+                                 }
+
+                                 @Override
+                                 public long expireAfterUpdate(ScoreKey key, CachedScore value, long currentTime, long currentDuration) {
+                                     return untilExpiry(value);
+                                 }
+
+                                 @Override
+                                 public long expireAfterRead(ScoreKey key, CachedScore value, long currentTime, long currentDuration) {
+                                     return currentDuration;
+                                 }
+                             })
+                             .recordStats()
+                             .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "prediction-score");
+    }
+
+    private static long untilExpiry(CachedScore value) {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.expiresAtMillis() - System.currentTimeMillis()));
+    }
+
+    /**
+     * 캐시된 점수를 반환합니다. 없으면 {@link Double#NaN}.
+     */
+    public double get(String hotspotId, TimeSlot slot) {
+        CachedScore cached = cache.getIfPresent(new ScoreKey(hotspotId, slot.slot(), slot.dayOfWeek()));
+        return cached == null ? Double.NaN : cached.score();
+    }
+
+    public void put(String hotspotId, TimeSlot slot, double score) {
+        if (slot.endMillis() <= System.currentTimeMillis()) {
+            return; // 이미 지난 슬롯의 점수는 저장하지 않음
+        }
+        cache.put(new ScoreKey(hotspotId, slot.slot(), slot.dayOfWeek()), new CachedScore(score, slot.endMillis()));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // 핫스팟 ID 는 CSV 순서로 부여되므로 집합이 바뀌면 같은 ID 가 다른 좌표를 가리킬 수 있음
+    @EventListener
+    public void onHotspotIndexChanged(HotspotIndexChangedEvent event) {
+        invalidateAll();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.recommendation_service.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 추천 결과 push 스트림 (SSE / WebSocket 공용).
+ * <p>
+ * 셀마다 하나의 공유 feed 를 두고, 15분 슬롯이 바뀔 때만 셀 추천을 한 번 계산해 그 셀의 모든 구독자에게 fan-out 합니다.
+ * 구독자가 이동해 셀이 바뀌면 새 셀의 feed 로 전환하며, 결과가 이전과 같으면 다시 보내지 않습니다.
+ * 한 슬롯의 계산이 실패해도 feed 는 끝나지 않고, 구독자는 직전 추천을 유지한 채 다음 슬롯을 받습니다.
+ */
+@Service
+@Slf4j
+public class RecommendationFeed {
+
+    // 슬롯 경계 직후 TimeSlot.now() 가 이전 슬롯으로 계산되지 않도록 두는 여유
+    private static final Duration BOUNDARY_MARGIN = Duration.ofMillis(50);
+
+    private final RecommendationService recommendationService;
+    private final Flux<TimeSlot> slotTicks;
+    private final Map<String, Flux<String>> cellFeeds = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    @Autowired
+    public RecommendationFeed(RecommendationService recommendationService, MeterRegistry meterRegistry) {
+        this(recommendationService, meterRegistry,
+                Flux.defer(() -> Mono.just(TimeSlot.now()))
+                    .concatWith(Flux.defer(() -> Mono.delay(untilNextSlot()).map(tick -> TimeSlot.now())).repeat()));
+    }
+
+    // 테스트에서 슬롯 경계를 기다리지 않고 tick 을 주입하기 위한 생성자
+    RecommendationFeed(RecommendationService recommendationService, MeterRegistry meterRegistry, Flux<TimeSlot> slotTicks) {
+        this.recommendationService = recommendationService;
+        this.slotTicks = slotTicks.replay(1)
+                                  .refCount();
+        Gauge.builder("recommendation.stream.cells", cellFeeds, Map::size)
+             .description("구독자가 있는 셀 feed 수")
+             .register(meterRegistry);
+        Gauge.builder("recommendation.stream.subscribers", subscribers, AtomicInteger::get)
+             .description("추천 스트림 구독자 수")
+             .register(meterRegistry);
+    }
+
+    /**
+     * 고정 위치 구독 (SSE)
+     */
+    public Flux<String> watch(double lon, double lat) {
+        return watch(Flux.just(new double[]{lon, lat}));
+    }
+
+    /**
+     * 위치가 계속 갱신되는 구독 (WebSocket). positions 의 각 원소는 {경도, 위도}
+     */
+    public Flux<String> watch(Flux<double[]> positions) {
+        return positions.map(position -> recommendationService.cellOf(position[0], position[1]))
+                        .distinctUntilChanged()
+                        .switchMap(this::cellFeed)
+                        .distinctUntilChanged()
+                        .doOnSubscribe(s -> subscribers.incrementAndGet())
+                        .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    private Flux<String> cellFeed(String cell) {
+        return cellFeeds.computeIfAbsent(cell, c -> {
+            AtomicReference<Flux<String>> self = new AtomicReference<>();
+            Flux<String> feed = slotTicks.concatMap(slot -> cellRecommendation(c, slot))
+                                         .doFinally(signal -> cellFeeds.remove(c, self.get()))
+                                         .replay(1)
+                                         .refCount();
+            self.set(feed);
+            return feed;
+        });
+    }
+
+    // 한 tick 의 실패가 셀의 모든 구독자가 공유하는 feed 를 끝내지 않도록 tick 단위로 격리
+    private Mono<String> cellRecommendation(String cell, TimeSlot slot) {
+        return recommendationService.getCellRecommendation(cell, slot)
+                                    .onErrorResume(e -> {
+                                        log.warn("셀 추천 계산 실패 (직전 추천 유지). cell: {}, slot: {}. Error: {}",
+                                                cell, slot.slot(), e.getMessage());
+                                        return Mono.empty();
+                                    });
+    }
+
+    private static Duration untilNextSlot() {
+        long remaining = TimeSlot.now().endMillis() - System.currentTimeMillis();
+        return Duration.ofMillis(Math.max(remaining, 0)).plus(BOUNDARY_MARGIN);
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.recommendation_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 추천 파이프라인 단계별 지연/후보 수/Fallback 경로 지표.
+ * <p>
+ * 태그는 모두 고정된 enum 값만 사용합니다(좌표, 핫스팟 ID 등은 태그로 쓰지 않음).
+ * 히스토그램을 게시하므로 Prometheus + Brave 가 함께 있으면 버킷마다 trace exemplar 가 붙어
+ * p99 구간의 요청을 바로 trace 로 따라갈 수 있습니다.
+ * <p>
+ * 기동 직후 실제 요청의 p99 가 good-p99 이하로 처음 내려온 시점을 JVM 시작 기준 초로 기록합니다
+ * (recommendation.startup.time-to-good-p99). {@link #WARMUP_CONTEXT_KEY} 가 있는 워밍업 요청은 집계하지 않습니다.
+ */
+@Component
+@Slf4j
+public class RecommendationMetrics {
+
+    /**
+     * Reactor Context 에 이 키가 있으면 기동 워밍업용 합성 요청으로 보고 지표에서 제외합니다.
+     */
+    public static final String WARMUP_CONTEXT_KEY = "recommendation.warmup";
+
+    public enum Stage {
+        CANDIDATES, SCORING, GEOCODE, TOTAL
+    }
+
+    public enum CandidateSource {
+        INDEX, REDIS
+    }
+
+    public enum ScoreSource {
+        TABLE, CACHE, LOCAL, VERTEX, FALLBACK
+    }
+
+    public enum Fallback {
+        // 반경 내 핫스팟 없음
+        NO_HOTSPOTS,
+        // 모든 후보 점수가 0 이하라 추천 불가
+        ZERO_SCORES,
+        // Vertex 호출 실패/서킷 오픈으로 로컬 점수표 또는 0.0 사용
+        SCORING_ERROR,
+        // 메모리 인덱스가 비어 Redis GEO 로 후보 조회
+        REDIS_CANDIDATES
+    }
+
+    private enum Outcome {
+        SUCCESS, EMPTY, ERROR, CANCEL
+    }
+
+    private final Timer[][] stageTimers = new Timer[Stage.values().length][Outcome.values().length];
+    private final DistributionSummary[] candidateSummaries = new DistributionSummary[CandidateSource.values().length];
+    private final Counter[] scoreCounters = new Counter[ScoreSource.values().length];
+    private final Counter[] fallbackCounters = new Counter[Fallback.values().length];
+
+    private final long goodP99Nanos;
+    private final long[] startupSamples;
+    private int startupSampleCount;
+    private volatile boolean goodP99Reached;
+    private volatile double timeToGoodP99Seconds = Double.NaN;
+
+    public RecommendationMetrics(MeterRegistry meterRegistry) {
+        this(meterRegistry, Duration.ofMillis(300), 200);
+    }
+
+    @Autowired
+    public RecommendationMetrics(MeterRegistry meterRegistry,
+                                 @Value("${recommendation.startup.good-p99:300ms}") Duration goodP99,
+                                 @Value("${recommendation.startup.good-p99-window:200}") int goodP99Window) {
+        this.goodP99Nanos = goodP99.toNanos();
+        this.startupSamples = new long[goodP99Window];
+        for (Stage stage : Stage.values()) {
+            for (Outcome outcome : Outcome.values()) {
+                stageTimers[stage.ordinal()][outcome.ordinal()] = Timer.builder("recommendation.stage.latency")
+                                                                       .description("추천 파이프라인 단계별 소요 시간")
+                                                                       .tag("stage", tag(stage))
+                                                                       .tag("outcome", tag(outcome))
+                                                                       .publishPercentileHistogram()
+                                                                       .register(meterRegistry);
+            }
+        }
+        for (CandidateSource source : CandidateSource.values()) {
+            candidateSummaries[source.ordinal()] = DistributionSummary.builder("recommendation.candidates")
+                                                                      .description("반경 조회로 찾은 핫스팟 후보 수")
+                                                                      .tag("source", tag(source))
+                                                                      .publishPercentileHistogram()
+                                                                      .register(meterRegistry);
+        }
+        for (ScoreSource source : ScoreSource.values()) {
+            scoreCounters[source.ordinal()] = Counter.builder("recommendation.scores")
+                                                     .description("후보 점수의 출처별 개수 (table/cache/local 비율 = 적중률)")
+                                                     .tag("source", tag(source))
+                                                     .register(meterRegistry);
+        }
+        for (Fallback fallback : Fallback.values()) {
+            fallbackCounters[fallback.ordinal()] = Counter.builder("recommendation.fallback")
+                                                          .description("Fallback 경로로 처리된 횟수")
+                                                          .tag("reason", tag(fallback))
+                                                          .register(meterRegistry);
+        }
+        Gauge.builder("recommendation.startup.time-to-good-p99", this, m -> m.timeToGoodP99Seconds)
+             .description("JVM 시작부터 실제 요청 p99 가 처음 good-p99 이하가 될 때까지 걸린 시간. 도달 전에는 NaN")
+             .baseUnit("seconds")
+             .register(meterRegistry);
+    }
+
+    /**
+     * 구독 시점부터 종료/취소까지의 시간을 stage 타이머에 기록합니다.
+     */
+    public <T> Mono<T> time(Stage stage, Mono<T> mono) {
+        return Mono.deferContextual(context -> {
+            if (context.hasKey(WARMUP_CONTEXT_KEY)) {
+                return mono;
+            }
+            long startNanos = System.nanoTime();
+            boolean[] emitted = new boolean[1];
+            return mono.doOnNext(value -> emitted[0] = true)
+                       .doFinally(signal -> {
+                           long latencyNanos = System.nanoTime() - startNanos;
+                           Outcome outcome = outcome(signal, emitted[0]);
+                           stageTimers[stage.ordinal()][outcome.ordinal()].record(latencyNanos, TimeUnit.NANOSECONDS);
+                           if (stage == Stage.TOTAL && outcome != Outcome.CANCEL && !goodP99Reached) {
+                               recordStartupSample(latencyNanos);
+                           }
+                       });
+        });
+    }
+
+    // 겹치지 않는 window 단위로 p99 를 계산. 목표에 한 번 도달하면 더 이상 표본을 모으지 않음
+    private synchronized void recordStartupSample(long latencyNanos) {
+        if (goodP99Reached) {
+            return;
+        }
+        startupSamples[startupSampleCount++] = latencyNanos;
+        if (startupSampleCount < startupSamples.length) {
+            return;
+        }
+        long[] sorted = startupSamples.clone();
+        Arrays.sort(sorted);
+        long p99 = sorted[(int) Math.ceil(sorted.length * 0.99) - 1];
+        startupSampleCount = 0;
+        if (p99 <= goodP99Nanos) {
+            long uptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+            timeToGoodP99Seconds = uptimeMillis / 1000.0;
+            goodP99Reached = true;
+            log.info("기동 후 추천 p99 목표 도달. p99: {}ms, JVM 시작 후 {}초", TimeUnit.NANOSECONDS.toMillis(p99), timeToGoodP99Seconds);
+        }
+    }
+
+    double timeToGoodP99Seconds() {
+        return timeToGoodP99Seconds;
+    }
+
+    public void recordCandidates(CandidateSource source, int count) {
+        candidateSummaries[source.ordinal()].record(count);
+    }
+
+    public void countScores(ScoreSource source, int count) {
+        if (count > 0) {
+            scoreCounters[source.ordinal()].increment(count);
+        }
+    }
+
+    public void countFallback(Fallback fallback) {
+        fallbackCounters[fallback.ordinal()].increment();
+    }
+
+    private static Outcome outcome(SignalType signal, boolean emitted) {
+        return switch (signal) {
+            case ON_ERROR -> Outcome.ERROR;
+            case CANCEL -> Outcome.CANCEL;
+            default -> emitted ? Outcome.SUCCESS : Outcome.EMPTY;
+        };
+    }
+
+    private static String tag(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
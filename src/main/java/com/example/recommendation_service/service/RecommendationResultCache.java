@@ -0,0 +1,181 @@
+package com.example.recommendation_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 공간 셀(geohash) + 시간 슬롯 + 요일 단위의 완성된 추천 결과 캐시.
+ * <p>
+ * 같은 셀, 같은 슬롯의 기사들은 거의 항상 같은 핫스팟을 추천받으므로 최고 핫스팟/점수/주소를 저장해
+ * 반경 조회, Vertex AI 채점, 역지오코딩을 모두 건너뜁니다. 로컬(Caffeine) -> Redis(전 Pod 공유) 순으로 조회합니다.
+ * <ul>
+ *     <li>각 항목은 슬롯이 끝나는 시각에 만료됩니다 (Redis TTL 도 동일).</li>
+ *     <li>핫스팟 집합이 바뀌면 로컬 항목을 비우고, Redis 키에는 집합 버전이 들어가 이전 버전 키는 조회되지 않습니다.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class RecommendationResultCache {
+
+    private static final String KEY_PREFIX = "recommendation:";
+    private static final char SEPARATOR = '\t';
+
+    public record CellRecommendation(String hotspotId, double score, String address) {
+    }
+
+    private record Entry(CellRecommendation value, long expiresAtMillis) {
+    }
+
+    private final ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+    private final boolean enabled;
+    private final boolean redisEnabled;
+    private final int cellPrecision;
+    private final Cache<String, Entry> localCache;
+    private final Counter localHitCounter;
+    private final Counter redisHitCounter;
+    private final Counter missCounter;
+
+    private volatile String hotspotVersion = "none";
+
+    public RecommendationResultCache(ReactiveRedisTemplate<String, String> reactiveRedisTemplate,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${recommendation.result-cache.enabled:true}") boolean enabled,
+                                     @Value("${recommendation.result-cache.redis-enabled:true}") boolean redisEnabled,
+                                     @Value("${recommendation.result-cache.cell-precision:6}") int cellPrecision,
+                                     @Value("${recommendation.result-cache.max-size:50000}") long maxSize) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.enabled = enabled;
+        this.redisEnabled = redisEnabled;
+        this.cellPrecision = cellPrecision;
+        this.localCache = Caffeine.newBuilder()
+                                  .maximumSize(maxSize)
+                                  .expireAfter(new Expiry<String, Entry>() {
+                                      @Override
+                                      public long expireAfterCreate(String key, Entry value, long currentTime) {
+                                          return untilExpiry(value);
+                                      }
+
+                                      @Override
+                                      public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+                                          return untilExpiry(value);
+                                      }
+
+                                      @Override
+                                      public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+                                          return currentDuration;
+                                      }
+                                  })
+                                  .recordStats()
+                                  .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "recommendation-result");
+        this.localHitCounter = lookupCounter("local-hit", meterRegistry);
+        this.redisHitCounter = lookupCounter("redis-hit", meterRegistry);
+        this.missCounter = lookupCounter("miss", meterRegistry);
+    }
+
+    private static long untilExpiry(Entry value) {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.expiresAtMillis() - System.currentTimeMillis()));
+    }
+
+    public String cellOf(double lon, double lat) {
+        return GeoHash.encode(lon, lat, cellPrecision);
+    }
+
+    /**
+     * @return 캐시된 추천. 없거나 조회에 실패하면 empty
+     */
+    public Mono<CellRecommendation> get(String cell, TimeSlot slot) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        String key = key(cell, slot);
+        Entry local = localCache.getIfPresent(key);
+        if (local != null) {
+            localHitCounter.increment();
+            return Mono.just(local.value());
+        }
+        if (!redisEnabled) {
+            missCounter.increment();
+            return Mono.empty();
+        }
+        return reactiveRedisTemplate.opsForValue()
+                                    .get(key)
+                                    .mapNotNull(RecommendationResultCache::decode)
+                                    .doOnNext(value -> {
+                                        redisHitCounter.increment();
+                                        localCache.put(key, new Entry(value, slot.endMillis()));
+                                    })
+                                    .onErrorResume(e -> {
+                                        log.warn("추천 결과 Redis 캐시 조회 실패. key: {}, Error: {}", key, e.getMessage());
+                                        return Mono.empty();
+                                    })
+                                    .switchIfEmpty(Mono.<CellRecommendation>fromRunnable(missCounter::increment));
+    }
+
+    public void put(String cell, TimeSlot slot, CellRecommendation value) {
+        long ttlMillis = slot.endMillis() - System.currentTimeMillis();
+        if (!enabled || ttlMillis <= 0) {
+            return; // 이미 지난 슬롯의 결과는 저장하지 않음
+        }
+        String key = key(cell, slot);
+        localCache.put(key, new Entry(value, slot.endMillis()));
+        if (redisEnabled) {
+            reactiveRedisTemplate.opsForValue()
+                                 .set(key, encode(value), Duration.ofMillis(ttlMillis))
+                                 .onErrorResume(e -> {
+                                     log.warn("추천 결과 Redis 캐시 저장 실패. key: {}, Error: {}", key, e.getMessage());
+                                     return Mono.just(false);
+                                 })
+                                 .subscribe();
+        }
+    }
+
+    @EventListener
+    public void onHotspotIndexChanged(HotspotIndexChangedEvent event) {
+        hotspotVersion = event.version();
+        localCache.invalidateAll();
+    }
+
+    private String key(String cell, TimeSlot slot) {
+        return KEY_PREFIX + hotspotVersion + ":" + cell + ":" + slot.dayOfWeek() + ":" + slot.slot();
+    }
+
+    static String encode(CellRecommendation value) {
+        return value.hotspotId() + SEPARATOR + value.score() + SEPARATOR + value.address();
+    }
+
+    static CellRecommendation decode(String encoded) {
+        int first = encoded.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : encoded.indexOf(SEPARATOR, first + 1);
+        if (second < 0) {
+            return null;
+        }
+        try {
+            return new CellRecommendation(encoded.substring(0, first),
+                    Double.parseDouble(encoded.substring(first + 1, second)),
+                    encoded.substring(second + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Counter lookupCounter(String result, MeterRegistry meterRegistry) {
+        return Counter.builder("recommendation.result-cache.requests")
+                      .description("셀 추천 결과 캐시 조회 결과별 횟수 (local-hit + redis-hit 비율 = 적중률)")
+                      .tag("result", result)
+                      .register(meterRegistry);
+    }
+}
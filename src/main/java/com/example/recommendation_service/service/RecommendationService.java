@@ -1,9 +1,13 @@
 package com.example.recommendation_service.service;
 
 import com.example.recommendation_service.client.NaverMapsClient;
-import com.example.recommendation_service.client.VertexAiClient;
-import lombok.RequiredArgsConstructor;
+import com.example.recommendation_service.client.RequestDeadline;
+import com.example.recommendation_service.service.RecommendationMetrics.CandidateSource;
+import com.example.recommendation_service.service.RecommendationMetrics.Fallback;
+import com.example.recommendation_service.service.RecommendationMetrics.Stage;
+import com.example.recommendation_service.service.RecommendationResultCache.CellRecommendation;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.geo.Circle;
 import org.springframework.data.geo.Distance;
 import org.springframework.data.geo.Metrics;
@@ -11,102 +15,295 @@ import org.springframework.data.geo.Point;
 import org.springframework.data.redis.connection.RedisGeoCommands;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.stereotype.Service;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class RecommendationService {
 
     private static final String HOTSPOTS_KEY = "demand_hotspots";
+    private static final double RADIUS_KM = 7.0;
+    private static final String NO_HOTSPOT_MESSAGE = "주변에 추천할 만한 핫스팟이 없습니다.";
 
-    private final VertexAiClient vertexAiClient;
-    private final NaverMapsClient naverMapsClient;
+    private final HotspotScorer hotspotScorer;
+    private final CandidatePruner candidatePruner;
+    private final GeocodeCache geocodeCache;
 
     private final ReactiveRedisTemplate<String, String> reactiveRedisTemplate; // 영속성 레디스
+    private final HotspotIndexHolder hotspotIndexHolder;
+    private final RequestCoalescer requestCoalescer;
+    private final RecommendationResultCache resultCache;
+    private final HotspotAssignmentTracker assignmentTracker;
+    private final RequestRecorder requestRecorder;
+    private final RecommendationMetrics metrics;
+    private final boolean coalescingEnabled;
+    private final int coalescingCellPrecision;
+    private final Duration deadlineBudget;
+    private final Duration geocodeReserve;
 
-    private record PredictedLocation(Point location, double score) {
+    private record PredictedLocation(String hotspotId, Point location, double score) {
+    }
+
+    // 외부 호출 실패 없이 얻은 결과만 결과 캐시에 저장
+    private record Recommendation(CellRecommendation result, boolean cacheable) {
+    }
+
+    public RecommendationService(HotspotScorer hotspotScorer,
+                                 CandidatePruner candidatePruner,
+                                 GeocodeCache geocodeCache,
+                                 ReactiveRedisTemplate<String, String> reactiveRedisTemplate,
+                                 HotspotIndexHolder hotspotIndexHolder,
+                                 RequestCoalescer requestCoalescer,
+                                 RecommendationResultCache resultCache,
+                                 HotspotAssignmentTracker assignmentTracker,
+                                 RequestRecorder requestRecorder,
+                                 RecommendationMetrics metrics,
+                                 @Value("${recommendation.coalescing.enabled:true}") boolean coalescingEnabled,
+                                 @Value("${recommendation.coalescing.cell-precision:7}") int coalescingCellPrecision,
+                                 @Value("${recommendation.deadline.budget:3s}") Duration deadlineBudget,
+                                 @Value("${recommendation.deadline.geocode-reserve:500ms}") Duration geocodeReserve) {
+        this.hotspotScorer = hotspotScorer;
+        this.candidatePruner = candidatePruner;
+        this.geocodeCache = geocodeCache;
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.hotspotIndexHolder = hotspotIndexHolder;
+        this.requestCoalescer = requestCoalescer;
+        this.resultCache = resultCache;
+        this.assignmentTracker = assignmentTracker;
+        this.requestRecorder = requestRecorder;
+        this.metrics = metrics;
+        this.coalescingEnabled = coalescingEnabled;
+        this.coalescingCellPrecision = coalescingCellPrecision;
+        this.deadlineBudget = deadlineBudget;
+        this.geocodeReserve = geocodeReserve;
     }
 
     public Mono<String> getBestLocationRecommendation(double lon, double lat) {
-        LocalDateTime now = LocalDateTime.now();
-        int hour = now.getHour();
-        int minute = now.getMinute();
-        int dayOfWeek = now.getDayOfWeek().getValue() - 1;
-        String city = " ";
-        int timeSlot = (hour * 4) + (minute / 15);
-
-        Point center = new Point(lon, lat);
-        Distance radius = new Distance(7, Metrics.KILOMETERS);
-
-        // 1. Redis에서 반경 7km 내 핫스팟 조회 후 하나의 List로 수집
-        Mono<List<Point>> hotspotsMono = reactiveRedisTemplate.opsForGeo()
-                                                              .radius(
-                                                                      HOTSPOTS_KEY,
-                                                                      new Circle(center, radius),
-                                                                      RedisGeoCommands.GeoRadiusCommandArgs.newGeoRadiusArgs().includeCoordinates().sortAscending()
-                                                              )
-                                                              .filter(geoResult -> geoResult != null && geoResult.getContent() != null && geoResult.getContent().getPoint() != null)
-                                                              .map(geoResult -> geoResult.getContent().getPoint())
-                                                              .collectList();
-
-        // 2. 수집된 핫스팟 리스트로 Vertex AI 단 1회 Bulk 호출
-        Mono<PredictedLocation> bestPredictionMono = hotspotsMono.flatMap(hotspots -> {
-            if (hotspots.isEmpty()) {
+        TimeSlot slot = TimeSlot.now();
+        Mono<String> recommendation = cached(lon, lat, slot, () -> coalescingEnabled
+                // 같은 셀 + 같은 슬롯의 동시 요청은 셀 중심 좌표 기준 하나의 계산을 공유
+                ? coalesced(cellOf(lon, lat), slot)
+                : recommend(lon, lat, slot));
+        // 요청 전체 예산. 하위 외부 호출은 남은 시간만큼만 기다립니다.
+        Mono<String> timed = metrics.time(Stage.TOTAL, recommendation)
+                                    .contextWrite(RequestDeadline.within(deadlineBudget));
+
+        // 샘플링된 요청만 후보/점수/단계별 시간을 기록 (재생용, 기동 워밍업 요청은 제외)
+        return Mono.deferContextual(context -> {
+            RequestRecorder.Sample sample = context.hasKey(RecommendationMetrics.WARMUP_CONTEXT_KEY)
+                    ? null
+                    : requestRecorder.sample(lon, lat);
+            if (sample == null) {
+                return timed;
+            }
+            return timed.doFinally(signal -> requestRecorder.append(sample, signal == SignalType.ON_ERROR))
+                        .contextWrite(ctx -> ctx.put(RequestRecorder.CONTEXT_KEY, sample));
+        });
+    }
+
+    /**
+     * 셀 중심 좌표 기준 추천. 같은 셀 + 같은 슬롯의 동시 호출은 하나의 계산을 공유합니다.
+     */
+    public Mono<String> getCellRecommendation(String cell, TimeSlot slot) {
+        Point center = GeoHash.center(cell);
+        return cached(center.getX(), center.getY(), slot, () -> coalesced(cell, slot));
+    }
+
+    private Mono<Recommendation> coalesced(String cell, TimeSlot slot) {
+        Point center = GeoHash.center(cell);
+        return requestCoalescer.execute(cell + ":" + slot.startMillis(),
+                () -> recommend(center.getX(), center.getY(), slot));
+    }
+
+    // 결과 캐시(셀 + 슬롯)에 있으면 반경 조회/채점/역지오코딩을 모두 건너뜀.
+    // 단, 캐시된 핫스팟에 최근 배정이 몰렸으면 배정 할인을 반영해 다시 계산하고 캐시를 갱신
+    private Mono<String> cached(double lon, double lat, TimeSlot slot, Supplier<Mono<Recommendation>> compute) {
+        String resultCell = resultCache.cellOf(lon, lat);
+        return resultCache.get(resultCell, slot)
+                          .filter(hit -> !assignmentTracker.isCrowded(hit.hotspotId()))
+                          .switchIfEmpty(Mono.defer(() -> compute.get()
+                                                                 .doOnNext(recommendation -> {
+                                                                     if (recommendation.cacheable()) {
+                                                                         resultCache.put(resultCell, slot, recommendation.result());
+                                                                     }
+                                                                 })
+                                                                 .map(Recommendation::result)))
+                          .transform(this::recordAssignment)
+                          .map(result -> message(result.address()))
+                          .defaultIfEmpty(NO_HOTSPOT_MESSAGE);
+    }
+
+    public String cellOf(double lon, double lat) {
+        return GeoHash.encode(lon, lat, coalescingCellPrecision);
+    }
+
+    private Mono<Recommendation> recommend(double lon, double lat, TimeSlot slot) {
+        return Mono.deferContextual(context -> recommend(lon, lat, slot,
+                context.<RequestRecorder.Sample>getOrEmpty(RequestRecorder.CONTEXT_KEY).orElse(null),
+                context.hasKey(RecommendationMetrics.WARMUP_CONTEXT_KEY)));
+    }
+
+    // warmup: 기동 워밍업 요청이면 후보/점수/Fallback 지표와 가지치기 품질 측정에서 제외
+    private Mono<Recommendation> recommend(double lon, double lat, TimeSlot slot, RequestRecorder.Sample sample,
+                                           boolean warmup) {
+        AtomicBoolean degraded = new AtomicBoolean(false);
+
+        // 1. 메모리 인덱스(없으면 Redis)에서 반경 7km 내 핫스팟 후보군 조회
+        Mono<HotspotIndex.Candidates> candidatesMono = metrics.time(Stage.CANDIDATES, findCandidates(lon, lat, warmup))
+                                                              .doOnNext(found -> {
+                                                                  if (sample != null) sample.candidatesFound();
+                                                              });
+
+        // 2. 유망 후보만 남긴 뒤, 캐시에 없는 후보만 Vertex AI 단 1회 Bulk 호출
+        Mono<PredictedLocation> bestPredictionMono = candidatesMono.flatMap(found -> {
+            if (found.isEmpty()) {
                 log.info("반경 내 핫스팟이 존재하지 않습니다.");
+                if (!warmup) metrics.countFallback(Fallback.NO_HOTSPOTS);
                 return Mono.empty();
             }
 
-            // AI 모델에 전달할 Bulk Payload(List<Map>) 조립
-            List<Map<String, Object>> instances = hotspots.stream().map(hotspot -> {
-                Map<String, Object> instance = new HashMap<>();
-                instance.put("city", city);
-                instance.put("latitude", String.valueOf(hotspot.getY()));
-                instance.put("longitude", String.valueOf(hotspot.getX()));
-                instance.put("time_slot", String.valueOf(timeSlot));
-                instance.put("day_of_week", String.valueOf(dayOfWeek));
-                return instance;
-            }).toList();
-
-            // 단 1회의 외부 API 호출
-            return vertexAiClient.predictBulk(instances)
-                                 .map(scores -> {
-                                     // 리턴받은 점수 리스트 중 최고 점수와 해당 핫스팟 매핑
-                                     double maxScore = -1.0;
-                                     int maxIndex = -1;
-
-                                     for (int i = 0; i < scores.size(); i++) {
-                                         if (scores.get(i) > maxScore) {
-                                             maxScore = scores.get(i);
-                                             maxIndex = i;
-                                         }
-                                     }
-
-                                     if (maxIndex == -1) {
-                                         return null;
-                                     }
-
-                                     PredictedLocation best = new PredictedLocation(hotspots.get(maxIndex), maxScore);
-                                     log.info("Vertex AI Bulk 예측 완료. 최고 핫스팟: {}", best);
-                                     return best;
-                                 });
+            HotspotIndex.Candidates hotspots = candidatePruner.prune(found, slot);
+            // 채점이 늦어져도 주소 변환 몫(geocode-reserve)은 남겨 둠. 초과 시 HotspotScorer 의 로컬 점수 Fallback
+            return metrics.time(Stage.SCORING, hotspotScorer.score(hotspots, slot, geocodeReserve, () -> degraded.set(true)))
+                                .doOnNext(scores -> {
+                                    if (sample != null) sample.scored(hotspots, scores, hotspotIndexHolder.current());
+                                    if (!warmup) auditPruning(found, hotspots, scores, slot);
+                                })
+                                .mapNotNull(scores -> {
+                                    // 최근 배정 할인을 적용한 최고 점수와 해당 핫스팟 매핑
+                                    int maxIndex = assignmentTracker.best(hotspots, scores);
+                                    if (maxIndex == -1) {
+                                        if (!warmup) metrics.countFallback(Fallback.ZERO_SCORES);
+                                        return null;
+                                    }
+                                    if (sample != null) sample.chosen(hotspots.index(maxIndex));
+
+                                    PredictedLocation best = new PredictedLocation(hotspots.id(maxIndex),
+                                            new Point(hotspots.longitude(maxIndex), hotspots.latitude(maxIndex)), scores[maxIndex]);
+                                    log.info("Vertex AI Bulk 예측 완료. 최고 핫스팟: {}", best);
+                                    return best;
+                                });
         });
 
         // 3. 가장 높은 점수의 핫스팟을 주소로 변환하여 응답
         return bestPredictionMono
-                .flatMap(best -> {
-                    if (best == null) return Mono.empty();
-                    return naverMapsClient.reverseGeocode(best.location().getX(), best.location().getY());
-                })
-                .doOnNext(locationName -> log.info("주소 변환 결과: {}", locationName))
-                .doOnError(e -> log.error("최종 주소 변환 중 오류 발생: {}", e.getMessage()))
-                .map(locationName -> String.format("약 15분뒤 %s 인근의 수요가 가장 높을 것으로 예상됩니다. 이동을 추천합니다.", locationName))
-                .defaultIfEmpty("주변에 추천할 만한 핫스팟이 없습니다.");
+                .flatMap(best -> metrics.time(Stage.GEOCODE,
+                                                geocodeCache.reverseGeocode(best.location().getX(), best.location().getY()))
+                                        .doOnNext(locationName -> {
+                                            if (sample != null) sample.geocoded();
+                                            log.info("주소 변환 결과: {}", locationName);
+                                        })
+                                        .map(locationName -> new Recommendation(
+                                                new CellRecommendation(best.hotspotId(), best.score(), locationName),
+                                                !degraded.get() && !NaverMapsClient.UNAVAILABLE_ADDRESS.equals(locationName))))
+                .doOnError(e -> log.error("최종 주소 변환 중 오류 발생: {}", e.getMessage()));
+    }
+
+    /**
+     * 과부하로 admission control 에 걸린 요청용 응답. Vertex AI / Naver 를 호출하지 않고
+     * 셀 결과 캐시, 없으면 메모리 인덱스와 이미 가진 점수/주소 캐시만으로 추천합니다.
+     */
+    public Mono<String> getDegradedRecommendation(double lon, double lat) {
+        TimeSlot slot = TimeSlot.now();
+        return resultCache.get(resultCache.cellOf(lon, lat), slot)
+                          .filter(hit -> !assignmentTracker.isCrowded(hit.hotspotId()))
+                          .switchIfEmpty(Mono.defer(() -> offlineRecommendation(lon, lat, slot)))
+                          .transform(this::recordAssignment)
+                          .map(result -> message(result.address()))
+                          .defaultIfEmpty(NO_HOTSPOT_MESSAGE);
+    }
+
+    private Mono<CellRecommendation> offlineRecommendation(double lon, double lat, TimeSlot slot) {
+        HotspotIndex index = hotspotIndexHolder.current();
+        HotspotIndex.Candidates candidates = index.isEmpty() ? null : index.radius(lon, lat, RADIUS_KM);
+        if (candidates == null || candidates.isEmpty()) {
+            return Mono.empty();
+        }
+
+        HotspotIndex.Candidates hotspots = candidatePruner.prune(candidates, slot);
+        double[] scores = hotspotScorer.scoreOffline(hotspots, slot);
+        int maxIndex = assignmentTracker.best(hotspots, scores);
+        // 점수가 전혀 없으면 가장 가까운 후보
+        int best = maxIndex == -1 ? 0 : maxIndex;
+        return geocodeCache.cachedAddress(hotspots.longitude(best), hotspots.latitude(best))
+                           .defaultIfEmpty(NaverMapsClient.UNAVAILABLE_ADDRESS)
+                           .map(address -> new CellRecommendation(hotspots.id(best), maxIndex == -1 ? 0.0 : scores[best], address));
+    }
+
+    // 응답으로 나간 핫스팟을 배정 횟수에 반영 (기동 워밍업 요청은 제외)
+    private Mono<CellRecommendation> recordAssignment(Mono<CellRecommendation> recommendation) {
+        return Mono.deferContextual(context -> context.hasKey(RecommendationMetrics.WARMUP_CONTEXT_KEY)
+                ? recommendation
+                : recommendation.doOnNext(result -> assignmentTracker.record(result.hotspotId())));
+    }
+
+    static String message(String locationName) {
+        return String.format("약 15분뒤 %s 인근의 수요가 가장 높을 것으로 예상됩니다. 이동을 추천합니다.", locationName);
+    }
+
+    // 샘플링된 요청만 전체 후보를 백그라운드로 채점해 가지치기 품질을 기록 (응답 지연에는 영향 없음).
+    // 별도 구독이라 워밍업 표시가 전달되지 않으므로 호출자가 워밍업 요청을 걸러야 함
+    private void auditPruning(HotspotIndex.Candidates full, HotspotIndex.Candidates pruned, double[] prunedScores, TimeSlot slot) {
+        if (!candidatePruner.shouldAudit(full, pruned)) {
+            return;
+        }
+        hotspotScorer.score(full, slot)
+                     .subscribe(fullScores -> candidatePruner.recordQuality(pruned, prunedScores, full, fullScores),
+                                e -> log.warn("가지치기 품질 측정 실패: {}", e.getMessage()));
+    }
+
+    static int argmax(double[] scores) {
+        double maxScore = -1.0;
+        int maxIndex = -1;
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] > maxScore) {
+                maxScore = scores[i];
+                maxIndex = i;
+            }
+        }
+        return maxIndex;
+    }
+
+    private Mono<HotspotIndex.Candidates> findCandidates(double lon, double lat, boolean warmup) {
+        HotspotIndex index = hotspotIndexHolder.current();
+        if (!index.isEmpty()) {
+            HotspotIndex.Candidates candidates = index.radius(lon, lat, RADIUS_KM);
+            if (!warmup) metrics.recordCandidates(CandidateSource.INDEX, candidates.size());
+            return Mono.just(candidates);
+        }
+        if (!warmup) metrics.countFallback(Fallback.REDIS_CANDIDATES);
+
+        // 인덱스가 아직 로드되지 않은 경우에만 공유 Redis GEO 키로 조회
+        Circle area = new Circle(new Point(lon, lat), new Distance(RADIUS_KM, Metrics.KILOMETERS));
+        return reactiveRedisTemplate.opsForGeo()
+                                    .radius(
+                                            HOTSPOTS_KEY,
+                                            area,
+                                            RedisGeoCommands.GeoRadiusCommandArgs.newGeoRadiusArgs().includeCoordinates().sortAscending()
+                                    )
+                                    .filter(geoResult -> geoResult != null && geoResult.getContent() != null && geoResult.getContent().getPoint() != null)
+                                    .collectList()
+                                    .map(results -> {
+                                        String[] ids = new String[results.size()];
+                                        double[] lons = new double[results.size()];
+                                        double[] lats = new double[results.size()];
+                                        for (int i = 0; i < results.size(); i++) {
+                                            RedisGeoCommands.GeoLocation<String> location = results.get(i).getContent();
+                                            ids[i] = location.getName();
+                                            lons[i] = location.getPoint().getX();
+                                            lats[i] = location.getPoint().getY();
+                                        }
+                                        // Redis 가 이미 반경 필터링을 했으므로 여유 반경으로 순서만 재구성
+                                        return HotspotIndex.of(ids, lons, lats, RADIUS_KM)
+                                                           .radius(lon, lat, RADIUS_KM * 2);
+                                    })
+                                    .doOnNext(candidates -> {
+                                        if (!warmup) metrics.recordCandidates(CandidateSource.REDIS, candidates.size());
+                                    });
     }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.example.recommendation_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키로 동시에 들어온 계산을 하나의 in-flight {@link Mono} 로 합칩니다(single-flight).
+ * <p>
+ * 첫 요청(leader)만 실제 파이프라인을 구독하고, 진행 중에 들어온 요청(follower)은 그 결과를 공유합니다.
+ * 결과가 나오면 즉시 키를 제거하므로 완료된 결과를 재사용하지는 않습니다(stale 없음).
+ */
+@Component
+public class RequestCoalescer {
+
+    private final Map<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaderCounter;
+    private final Counter followerCounter;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.leaderCounter = Counter.builder("recommendation.coalescing.requests")
+                                    .description("single-flight 로 합쳐진 요청 수 (leader: 실제 계산, follower: 결과 공유)")
+                                    .tag("role", "leader")
+                                    .register(meterRegistry);
+        this.followerCounter = Counter.builder("recommendation.coalescing.requests")
+                                      .description("single-flight 로 합쳐진 요청 수 (leader: 실제 계산, follower: 결과 공유)")
+                                      .tag("role", "follower")
+                                      .register(meterRegistry);
+        Gauge.builder("recommendation.coalescing.in-flight", inFlight, Map::size)
+             .description("진행 중인 single-flight 계산 수")
+             .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> Mono<V> execute(String key, Supplier<Mono<V>> supplier) {
+        return Mono.defer(() -> {
+            AtomicBoolean leader = new AtomicBoolean(false);
+            Mono<?> shared = inFlight.computeIfAbsent(key, k -> {
+                leader.set(true);
+                AtomicReference<Mono<V>> self = new AtomicReference<>();
+                Mono<V> created = supplier.get()
+                                          .doFinally(signal -> inFlight.remove(k, self.get()))
+                                          .cache();
+                self.set(created);
+                return created;
+            });
+            (leader.get() ? leaderCounter : followerCounter).increment();
+            return (Mono<V>) shared;
+        });
+    }
+}
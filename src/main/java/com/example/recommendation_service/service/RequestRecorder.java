@@ -0,0 +1,425 @@
+package com.example.recommendation_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * 성능 회귀 재현용 추천 요청 기록기 (기본 꺼짐).
+ * <p>
+ * sample-rate 비율의 요청만 좌표/시각, 채점한 후보(핫스팟 인덱스 위치)와 점수, 단계별 소요 시간을
+ * memory-mapped 세그먼트 파일에 이어 씁니다. 기록 위치는 원자적 증가로 예약하고 각자 겹치지 않는 구간에 쓰므로
+ * 요청 경로에 락이나 시스템 콜이 없습니다. 세그먼트가 차거나 핫스팟 집합이 바뀌면 새 파일로 넘어갑니다.
+ * 다음 세그먼트 파일은 현재 세그먼트가 3/4 을 넘으면 boundedElastic 에서 미리 만들어 두고, 요청 경로는 참조만 교체합니다.
+ * 교체할 세그먼트가 아직 준비되지 않았으면 그 요청은 기록하지 않습니다 (dropped).
+ * 재생은 loadtest 의 RecordingReplay 가 {@link #read(Path)} 로 읽어 수행합니다.
+ *
+ * <pre>
+ * 파일 헤더 (64 bytes): magic "RREC", format version(short), 핫스팟 버전 길이(short), 핫스팟 버전(UTF-8)
+ * 레코드 (little endian):
+ *   int length        전체 길이. 마지막에 기록되며 0 이면 그 뒤는 아직 쓰이지 않은 영역
+ *   byte outcome      0 = 이 요청이 직접 계산, 1 = 결과 캐시/공유 계산 결과, 2 = 에러
+ *   byte reserved
+ *   short n           후보 수
+ *   long epochMillis, double lon, double lat
+ *   int total/candidates/scoring/geocode (us)
+ *   int chosen        선택된 핫스팟 인덱스 위치 (없으면 -1)
+ *   n x (int position, float score)
+ * </pre>
+ */
+@Component
+@Slf4j
+public class RequestRecorder {
+
+    /**
+     * 기록 대상 요청이면 Reactor Context 에 {@link Sample} 이 이 키로 들어 있습니다.
+     */
+    public static final String CONTEXT_KEY = "recommendation.recording";
+
+    static final int MAGIC = 0x52524543; // "RREC"
+    static final short FORMAT_VERSION = 1;
+    static final int FILE_HEADER_SIZE = 64;
+    static final int RECORD_HEADER_SIZE = 52;
+
+    public static final byte OUTCOME_COMPUTED = 0;
+    public static final byte OUTCOME_SHARED = 1;
+    public static final byte OUTCOME_ERROR = 2;
+
+    /**
+     * 한 요청의 기록. 요청 처리 중 단계별로 채워지고, 끝나면 {@link #append} 로 기록됩니다.
+     */
+    public static final class Sample {
+        private final long epochMillis = System.currentTimeMillis();
+        private final long startNanos = System.nanoTime();
+        private final double lon;
+        private final double lat;
+        private long lastMarkNanos = startNanos;
+        private int candidatesMicros;
+        private int scoringMicros;
+        private int geocodeMicros;
+        private int[] positions = new int[0];
+        private float[] scores = new float[0];
+        private int chosen = -1;
+        private boolean computed;
+
+        private Sample(double lon, double lat) {
+            this.lon = lon;
+            this.lat = lat;
+        }
+
+        public void candidatesFound() {
+            candidatesMicros = elapsedSinceMark();
+        }
+
+        /**
+         * 현재 인덱스 기준 후보만 위치로 남깁니다 (Redis Fallback 으로 만든 임시 인덱스는 위치가 달라 제외).
+         */
+        public void scored(HotspotIndex.Candidates candidates, double[] candidateScores, HotspotIndex current) {
+            scoringMicros = elapsedSinceMark();
+            computed = true;
+            if (candidates.source() != current) {
+                return;
+            }
+            int n = Math.min(candidates.size(), Short.MAX_VALUE);
+            positions = new int[n];
+            scores = new float[n];
+            for (int k = 0; k < n; k++) {
+                positions[k] = candidates.index(k);
+                scores[k] = (float) candidateScores[k];
+            }
+        }
+
+        public void chosen(int position) {
+            chosen = position;
+        }
+
+        public void geocoded() {
+            geocodeMicros = elapsedSinceMark();
+        }
+
+        private int elapsedSinceMark() {
+            long now = System.nanoTime();
+            long elapsed = now - lastMarkNanos;
+            lastMarkNanos = now;
+            return (int) Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMicros(elapsed));
+        }
+    }
+
+    public record RecordedRequest(long epochMillis, double lon, double lat, byte outcome,
+                                  int totalMicros, int candidatesMicros, int scoringMicros, int geocodeMicros,
+                                  int chosen, int[] positions, float[] scores) {
+    }
+
+    public record Recording(String hotspotVersion, List<RecordedRequest> requests) {
+    }
+
+    private record Segment(Path path, String version, FileChannel channel, MappedByteBuffer buffer, AtomicInteger position) {
+    }
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final Path directory;
+    private final int segmentSize;
+    // 현재 세그먼트의 기록 위치가 이 값을 넘으면 다음 세그먼트를 미리 만듦
+    private final int highWaterMark;
+    private final int maxFiles;
+    private final Scheduler scheduler;
+    private final Counter recordedCounter;
+    private final Counter droppedCounter;
+
+    private volatile String hotspotVersion = "none";
+    private final AtomicReference<Segment> segment = new AtomicReference<>();
+    // 미리 만들어 둔 다음 세그먼트
+    private final AtomicReference<Segment> spare = new AtomicReference<>();
+    private final AtomicBoolean preparing = new AtomicBoolean(false);
+    // 세그먼트 생성은 preparing 으로 한 번에 하나씩만 실행
+    private int segmentSequence;
+
+    @Autowired
+    public RequestRecorder(MeterRegistry meterRegistry,
+                           @Value("${recommendation.recorder.enabled:false}") boolean enabled,
+                           @Value("${recommendation.recorder.sample-rate:0.01}") double sampleRate,
+                           @Value("${recommendation.recorder.directory:/tmp/recommendation-recordings}") String directory,
+                           @Value("${recommendation.recorder.segment-size:64MB}") DataSize segmentSize,
+                           @Value("${recommendation.recorder.max-files:16}") int maxFiles) {
+        this(meterRegistry, enabled, sampleRate, directory, segmentSize, maxFiles, Schedulers.boundedElastic());
+    }
+
+    // 테스트에서 세그먼트 생성/정리 시점을 직접 제어하기 위한 생성자
+    RequestRecorder(MeterRegistry meterRegistry, boolean enabled, double sampleRate, String directory,
+                    DataSize segmentSize, int maxFiles, Scheduler scheduler) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.directory = Path.of(directory);
+        this.segmentSize = (int) Math.min(Integer.MAX_VALUE, segmentSize.toBytes());
+        this.highWaterMark = (int) (this.segmentSize * 3L / 4);
+        this.maxFiles = maxFiles;
+        this.scheduler = scheduler;
+        this.recordedCounter = recordCounter("recorded", meterRegistry);
+        this.droppedCounter = recordCounter("dropped", meterRegistry);
+        if (enabled) {
+            prepareNext();
+        }
+    }
+
+    /**
+     * @return 기록 대상이면 새 Sample, 아니면 null (꺼져 있으면 항상 null)
+     */
+    public Sample sample(double lon, double lat) {
+        if (!enabled || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return null;
+        }
+        return new Sample(lon, lat);
+    }
+
+    public void append(Sample sample, boolean failed) {
+        int n = sample.positions.length;
+        int length = RECORD_HEADER_SIZE + n * 8;
+        Segment current = segment.get();
+        int offset = current == null ? segmentSize : current.position().getAndAdd(length);
+        if (offset + length > segmentSize) {
+            // 세그먼트가 찼거나 아직 없음. 미리 만들어 둔 세그먼트로 한 번만 교체해 재시도
+            current = swap(current);
+            offset = current == null ? segmentSize : current.position().getAndAdd(length);
+            if (offset + length > segmentSize) {
+                droppedCounter.increment();
+                return;
+            }
+        }
+        if (offset + length > highWaterMark) {
+            prepareNext();
+        }
+
+        byte outcome = failed ? OUTCOME_ERROR : sample.computed ? OUTCOME_COMPUTED : OUTCOME_SHARED;
+        int totalMicros = (int) Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sample.startNanos));
+        MappedByteBuffer buffer = current.buffer();
+        buffer.put(offset + 4, outcome);
+        buffer.putShort(offset + 6, (short) n);
+        buffer.putLong(offset + 8, sample.epochMillis);
+        buffer.putDouble(offset + 16, sample.lon);
+        buffer.putDouble(offset + 24, sample.lat);
+        buffer.putInt(offset + 32, totalMicros);
+        buffer.putInt(offset + 36, sample.candidatesMicros);
+        buffer.putInt(offset + 40, sample.scoringMicros);
+        buffer.putInt(offset + 44, sample.geocodeMicros);
+        buffer.putInt(offset + 48, sample.chosen);
+        for (int k = 0; k < n; k++) {
+            buffer.putInt(offset + RECORD_HEADER_SIZE + k * 8, sample.positions[k]);
+            buffer.putFloat(offset + RECORD_HEADER_SIZE + k * 8 + 4, sample.scores[k]);
+        }
+        // 길이를 마지막에 써서, 읽는 쪽이 0 을 만나면 미완성 레코드로 보고 멈추도록 함
+        buffer.putInt(offset, length);
+        recordedCounter.increment();
+    }
+
+    @EventListener
+    public void onHotspotIndexChanged(HotspotIndexChangedEvent event) {
+        hotspotVersion = event.version();
+        if (!enabled) {
+            return;
+        }
+        // 인덱스 위치가 바뀌므로 이전 버전 세그먼트에는 더 쓰지 않음. 새 버전 세그먼트가 준비될 때까지는 기록하지 않음
+        retire(spare.getAndSet(null), true);
+        retire(segment.getAndSet(null), false);
+        prepareNext();
+    }
+
+    // 요청 경로에서 호출. 파일 I/O 없이 미리 만들어 둔 세그먼트로 참조만 교체하고, 준비된 게 없으면 null
+    private Segment swap(Segment full) {
+        Segment current = segment.get();
+        if (current != full) {
+            return current; // 다른 스레드가 이미 교체
+        }
+        Segment next = spare.getAndSet(null);
+        if (next == null || !next.version().equals(hotspotVersion)) {
+            // 아직 준비 중이거나, 준비 도중 핫스팟 버전이 바뀜
+            retire(next, true);
+            prepareNext();
+            return null;
+        }
+        if (!segment.compareAndSet(full, next)) {
+            retire(next, true); // 핫스팟 버전 변경과 경합
+            return null;
+        }
+        retire(full, false);
+        return next;
+    }
+
+    // 다음 세그먼트를 background 에서 만들어 spare 에 둠 (이미 있거나 만드는 중이면 생략)
+    private void prepareNext() {
+        if (spare.get() != null || !preparing.compareAndSet(false, true)) {
+            return;
+        }
+        scheduler.schedule(() -> {
+            try {
+                Segment created = create(hotspotVersion);
+                if (created != null && !spare.compareAndSet(null, created)) {
+                    retire(created, true);
+                }
+            } finally {
+                preparing.set(false);
+            }
+        });
+    }
+
+    private Segment create(String version) {
+        try {
+            Files.createDirectories(directory);
+            Path path = directory.resolve(String.format("recording-%d-%04d.bin", System.currentTimeMillis(), segmentSequence++ % 10000));
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            writeFileHeader(buffer, version);
+            deleteOldFiles(path);
+            log.info("요청 기록 세그먼트 생성. path: {}", path);
+            return new Segment(path, version, channel, buffer, new AtomicInteger(FILE_HEADER_SIZE));
+        } catch (IOException e) {
+            log.warn("요청 기록 세그먼트 생성 실패. 기록을 건너뜁니다. directory: {}, Error: {}", directory, e.getMessage());
+            return null;
+        }
+    }
+
+    // 더 쓰지 않는 세그먼트를 background 에서 닫음 (unused 면 빈 파일이므로 삭제)
+    private void retire(Segment retired, boolean unused) {
+        if (retired == null) {
+            return;
+        }
+        scheduler.schedule(() -> {
+            close(retired);
+            if (unused) {
+                delete(retired);
+            }
+        });
+    }
+
+    private static void writeFileHeader(MappedByteBuffer buffer, String hotspotVersion) {
+        byte[] version = hotspotVersion.getBytes(StandardCharsets.UTF_8);
+        int versionLength = Math.min(version.length, FILE_HEADER_SIZE - 8);
+        buffer.putInt(0, MAGIC);
+        buffer.putShort(4, FORMAT_VERSION);
+        buffer.putShort(6, (short) versionLength);
+        buffer.put(8, version, 0, versionLength);
+    }
+
+    // 쓰는 중인 세그먼트와 방금 만든 세그먼트는 보관 개수와 관계없이 남김
+    private void deleteOldFiles(Path created) throws IOException {
+        Segment active = segment.get();
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> recordings = files.filter(p -> p.getFileName().toString().startsWith("recording-"))
+                                         .sorted()
+                                         .toList();
+            int excess = recordings.size() - maxFiles;
+            for (int i = 0; i < recordings.size() && excess > 0; i++) {
+                Path path = recordings.get(i);
+                if (path.equals(created) || (active != null && path.equals(active.path()))) {
+                    continue;
+                }
+                Files.deleteIfExists(path);
+                excess--;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        close(segment.getAndSet(null));
+        Segment unused = spare.getAndSet(null);
+        close(unused);
+        delete(unused);
+    }
+
+    private static void close(Segment current) {
+        if (current == null) {
+            return;
+        }
+        try {
+            current.buffer().force();
+            current.channel().close();
+        } catch (IOException e) {
+            log.warn("요청 기록 세그먼트 닫기 실패. path: {}", current.path(), e);
+        }
+    }
+
+    private static void delete(Segment unused) {
+        if (unused == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(unused.path());
+        } catch (IOException e) {
+            log.warn("사용하지 않은 요청 기록 세그먼트 삭제 실패. path: {}", unused.path(), e);
+        }
+    }
+
+    /**
+     * 세그먼트 파일 하나를 읽습니다. 길이가 0 인 레코드(미완성/빈 영역)를 만나면 멈춥니다.
+     */
+    public static Recording read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.limit() < FILE_HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new IOException("요청 기록 파일이 아닙니다: " + file);
+            }
+            if (buffer.getShort(4) != FORMAT_VERSION) {
+                throw new IOException("지원하지 않는 기록 형식 버전입니다: " + buffer.getShort(4));
+            }
+            byte[] version = new byte[buffer.getShort(6)];
+            buffer.get(8, version);
+
+            List<RecordedRequest> requests = new ArrayList<>();
+            int offset = FILE_HEADER_SIZE;
+            while (offset + RECORD_HEADER_SIZE <= buffer.limit()) {
+                int length = buffer.getInt(offset);
+                if (length < RECORD_HEADER_SIZE || offset + length > buffer.limit()) {
+                    break;
+                }
+                int n = buffer.getShort(offset + 6);
+                int[] positions = new int[n];
+                float[] scores = new float[n];
+                for (int k = 0; k < n; k++) {
+                    positions[k] = buffer.getInt(offset + RECORD_HEADER_SIZE + k * 8);
+                    scores[k] = buffer.getFloat(offset + RECORD_HEADER_SIZE + k * 8 + 4);
+                }
+                requests.add(new RecordedRequest(buffer.getLong(offset + 8), buffer.getDouble(offset + 16),
+                        buffer.getDouble(offset + 24), buffer.get(offset + 4), buffer.getInt(offset + 32),
+                        buffer.getInt(offset + 36), buffer.getInt(offset + 40), buffer.getInt(offset + 44),
+                        buffer.getInt(offset + 48), positions, scores));
+                offset += length;
+            }
+            return new Recording(new String(version, StandardCharsets.UTF_8), requests);
+        }
+    }
+
+    private static Counter recordCounter(String result, MeterRegistry meterRegistry) {
+        return Counter.builder("recommendation.recorder.requests")
+                      .description("요청 기록 결과별 수 (dropped: 다음 세그먼트 미준비/교체 경합/파일 생성 실패로 누락)")
+                      .tag("result", result)
+                      .register(meterRegistry);
+    }
+}
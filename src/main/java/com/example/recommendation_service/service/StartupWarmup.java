@@ -0,0 +1,122 @@
+package com.example.recommendation_service.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * readiness 전에 합성 추천 요청으로 JIT, 커넥션, 캐시를 데웁니다.
+ * <p>
+ * 핫스팟 인덱스가 처음 적재되면 핫스팟 좌표를 돌며
+ * <ol>
+ *     <li>degraded 경로(인덱스/가지치기/로컬 점수/캐시 주소, 외부 호출 없음)를 offline-requests 회,</li>
+ *     <li>전체 파이프라인(결과 캐시, 병합, 가지치기, 채점, 역지오코딩)을 pipeline-requests 회 실행합니다.
+ *     점수표/점수 캐시/주소 캐시에 없는 값은 Vertex AI / Naver 를 호출하지 않고 로컬 점수표와
+ *     "주소 확인 불가" 로 채우므로, Pod 가 늘어날 때마다 유료 API 를 호출하거나 외부 지연에 readiness 가 묶이지 않습니다.
+ *     이렇게 만든 결과는 결과 캐시에 저장하지 않습니다.</li>
+ * </ol>
+ * 외부 API 커넥션은 recommendation.http-client.*.warm-connections 로 따로 미리 맺습니다.
+ * 워밍업 요청은 {@link RecommendationMetrics#WARMUP_CONTEXT_KEY} 로 표시해 서비스 지표에서 제외하며,
+ * 끝나거나 timeout 이 지나야 {@link WarmupHealthIndicator} 가 UP 이 됩니다.
+ */
+@Component
+@Slf4j
+public class StartupWarmup {
+
+    private final RecommendationService recommendationService;
+    private final boolean enabled;
+    private final int offlineRequests;
+    private final int pipelineRequests;
+    private final int concurrency;
+    private final Duration timeout;
+    private final Timer warmupTimer;
+
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private volatile boolean completed;
+
+    public StartupWarmup(RecommendationService recommendationService,
+                         MeterRegistry meterRegistry,
+                         @Value("${recommendation.warmup.enabled:true}") boolean enabled,
+                         @Value("${recommendation.warmup.offline-requests:2000}") int offlineRequests,
+                         @Value("${recommendation.warmup.pipeline-requests:32}") int pipelineRequests,
+                         @Value("${recommendation.warmup.concurrency:8}") int concurrency,
+                         @Value("${recommendation.warmup.timeout:60s}") Duration timeout) {
+        this.recommendationService = recommendationService;
+        this.enabled = enabled;
+        this.offlineRequests = offlineRequests;
+        this.pipelineRequests = pipelineRequests;
+        this.concurrency = concurrency;
+        this.timeout = timeout;
+        this.warmupTimer = Timer.builder("recommendation.startup.warmup")
+                                .description("기동 워밍업(합성 추천 요청)에 걸린 시간")
+                                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onHotspotIndexChanged(HotspotIndexChangedEvent event) {
+        // 첫 적재 때 한 번만. 이후 핫스팟 갱신은 이미 데워진 상태
+        if (!enabled || !event.previous().isEmpty() || event.current().isEmpty() || !started.compareAndSet(false, true)) {
+            return;
+        }
+        run(event.current())
+                .subscribe();
+    }
+
+    Mono<Void> run(HotspotIndex index) {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            log.info("기동 워밍업 시작. offline: {}회, pipeline: {}회", offlineRequests, pipelineRequests);
+
+            Flux<String> offline = Flux.range(0, offlineRequests)
+                                       .flatMap(i -> recommendationService.getDegradedRecommendation(lon(index, i), lat(index, i))
+                                                                          .onErrorResume(e -> Mono.empty()), concurrency);
+            Flux<String> pipeline = Flux.range(0, pipelineRequests)
+                                        .flatMap(i -> recommendationService.getBestLocationRecommendation(lon(index, i), lat(index, i))
+                                                                           .onErrorResume(e -> Mono.empty()), concurrency);
+
+            return offline.thenMany(pipeline)
+                          .then()
+                          .contextWrite(context -> context.put(RecommendationMetrics.WARMUP_CONTEXT_KEY, true))
+                          .timeout(timeout)
+                          .onErrorResume(e -> {
+                              log.warn("기동 워밍업 중단. 준비 상태로 전환합니다. Error: {}", e.toString());
+                              return Mono.empty();
+                          })
+                          .doFinally(signal -> {
+                              long elapsedNanos = System.nanoTime() - startNanos;
+                              warmupTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+                              completed = true;
+                              log.info("기동 워밍업 완료. {}ms", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+                          });
+        });
+    }
+
+    // 핫스팟을 고르게 돌되, 핫스팟 정중앙이 아니라 약간 비켜난 좌표로 기사 위치를 흉내냄
+    private static double lon(HotspotIndex index, int i) {
+        return index.longitude(spread(index, i)) + ((i % 7) - 3) * 0.001;
+    }
+
+    private static double lat(HotspotIndex index, int i) {
+        return index.latitude(spread(index, i)) + ((i % 5) - 2) * 0.001;
+    }
+
+    private static int spread(HotspotIndex index, int i) {
+        return (int) ((i * 2654435761L) % index.size());
+    }
+
+    /**
+     * @return 워밍업이 끝났거나(timeout 포함) 꺼져 있으면 true
+     */
+    public boolean isReady() {
+        return !enabled || completed;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.recommendation_service.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 수요 예측 모델의 시간 입력 단위(15분 슬롯 + 요일).
+ *
+ * @param slot        하루 중 15분 단위 슬롯 번호 (0 ~ 95)
+ * @param dayOfWeek   요일 (월요일 0 ~ 일요일 6)
+ * @param startMillis 슬롯 시작 시각 (epoch millis)
+ * @param endMillis   슬롯 종료 시각 (epoch millis, 다음 슬롯 시작)
+ */
+public record TimeSlot(int slot, int dayOfWeek, long startMillis, long endMillis) {
+
+    public static final Duration LENGTH = Duration.ofMinutes(15);
+
+    public static TimeSlot now() {
+        return at(ZonedDateTime.now());
+    }
+
+    public static TimeSlot at(ZonedDateTime time) {
+        ZonedDateTime start = time.truncatedTo(ChronoUnit.HOURS)
+                                  .plusMinutes((time.getMinute() / 15) * 15L);
+        ZonedDateTime end = start.plus(LENGTH);
+        return new TimeSlot(
+                (start.getHour() * 4) + (start.getMinute() / 15),
+                start.getDayOfWeek().getValue() - 1,
+                start.toInstant().toEpochMilli(),
+                end.toInstant().toEpochMilli());
+    }
+
+    public TimeSlot next() {
+        return at(ZonedDateTime.ofInstant(Instant.ofEpochMilli(endMillis), ZoneId.systemDefault()));
+    }
+}
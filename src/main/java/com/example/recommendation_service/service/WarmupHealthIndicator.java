@@ -0,0 +1,24 @@
+package com.example.recommendation_service.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * 기동 워밍업 완료 여부. readiness 그룹에 포함되어, 합성 요청으로 JIT/커넥션/캐시를 데우기 전에는 트래픽을 받지 않습니다.
+ */
+@Component("warmup")
+@RequiredArgsConstructor
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final StartupWarmup startupWarmup;
+
+    @Override
+    public Health health() {
+        if (!startupWarmup.isReady()) {
+            return Health.outOfService().withDetail("reason", "기동 워밍업 중").build();
+        }
+        return Health.up().build();
+    }
+}
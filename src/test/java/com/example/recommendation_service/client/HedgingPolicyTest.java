@@ -0,0 +1,162 @@
+package com.example.recommendation_service.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgingPolicyTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    // 빠른 호출로 지연 표본을 채워 hedge 기준을 min-delay 로 만든다
+    private static void warmUp(HedgingPolicy policy) {
+        for (int i = 0; i < 128; i++) {
+            policy.execute(() -> Mono.just("fast")).block();
+        }
+    }
+
+    private double hedgeCount(String outcome) {
+        return meterRegistry.get("recommendation.hedging.requests").tags("client", "test", "outcome", outcome).counter().count();
+    }
+
+    @Test
+    @DisplayName("첫 호출이 기준 지연을 넘기면 hedge 를 보내고, 먼저 온 응답을 채택한 뒤 느린 호출은 취소한다")
+    void slowPrimaryIsHedged() {
+        // Given
+        HedgingPolicy policy = new HedgingPolicy("test", true, 0.95, Duration.ofMillis(20), 0.05, meterRegistry);
+        warmUp(policy);
+        assertThat(policy.hedgeDelay()).isEqualTo(Duration.ofMillis(20));
+
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+
+        // When: 첫 호출은 응답하지 않고, 두 번째(hedge) 호출은 바로 응답
+        Mono<String> result = policy.execute(() -> attempts.incrementAndGet() == 1
+                ? Mono.<String>never().doOnCancel(cancelled::incrementAndGet)
+                : Mono.just("hedge"));
+
+        // Then
+        StepVerifier.create(result)
+                    .expectNext("hedge")
+                    .verifyComplete();
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(cancelled.get()).isEqualTo(1);
+        assertThat(hedgeCount("hedged")).isEqualTo(1.0);
+        assertThat(hedgeCount("won")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("hedge 를 보낸 뒤 첫 호출이 실패해도 hedge 를 취소하지 않고 그 결과를 채택한다")
+    void primaryErrorAfterHedgeWaitsForHedge() {
+        // Given
+        HedgingPolicy policy = new HedgingPolicy("test", true, 0.95, Duration.ofMillis(20), 0.05, meterRegistry);
+        warmUp(policy);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When: 첫 호출은 hedge 발송 뒤에 실패하고, hedge 는 그보다 늦게 응답
+        Mono<String> result = policy.execute(() -> attempts.incrementAndGet() == 1
+                ? Mono.<String>error(new IllegalStateException("503")).delaySubscription(Duration.ofMillis(40))
+                : Mono.just("hedge").delayElement(Duration.ofMillis(60)));
+
+        // Then
+        StepVerifier.create(result)
+                    .expectNext("hedge")
+                    .verifyComplete();
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(hedgeCount("won")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("hedge 발송 전에 첫 호출이 실패하면 hedge 없이 첫 호출의 에러를 바로 전달한다")
+    void fastPrimaryErrorIsNotHedged() {
+        // Given
+        HedgingPolicy policy = new HedgingPolicy("test", true, 0.95, Duration.ofMillis(200), 0.05, meterRegistry);
+        warmUp(policy);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        Mono<String> result = policy.execute(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(new IllegalStateException("circuit open"));
+        });
+
+        // Then
+        StepVerifier.create(result)
+                    .expectErrorMessage("circuit open")
+                    .verify(Duration.ofMillis(100));
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(hedgeCount("hedged")).isZero();
+    }
+
+    @Test
+    @DisplayName("hedge 가 이겨 취소된 첫 호출의 지연도 표본에 남겨 기준 지연이 느린 호출을 반영한다")
+    void cancelledPrimaryLatencyIsSampled() {
+        // Given: 기준 지연 1ms, 추가 호출 예산 충분
+        HedgingPolicy policy = new HedgingPolicy("test", true, 0.95, Duration.ofMillis(1), 1.0, meterRegistry);
+        warmUp(policy);
+        assertThat(policy.hedgeDelay()).isEqualTo(Duration.ofMillis(1));
+
+        // When: 첫 호출은 응답하지 않고 hedge 가 10ms 뒤 응답 (재계산 주기만큼 반복)
+        for (int i = 0; i < 64; i++) {
+            AtomicInteger attempts = new AtomicInteger();
+            policy.execute(() -> attempts.incrementAndGet() == 1
+                    ? Mono.<String>never()
+                    : Mono.just("hedge").delayElement(Duration.ofMillis(10))).block();
+        }
+
+        // Then
+        assertThat(policy.hedgeDelay()).isGreaterThanOrEqualTo(Duration.ofMillis(10));
+    }
+
+    @Test
+    @DisplayName("hedge 예산이 없으면 추가 호출 없이 첫 호출을 기다린다")
+    void noHedgeWithoutBudget() {
+        // Given
+        HedgingPolicy policy = new HedgingPolicy("test", true, 0.95, Duration.ofMillis(20), 0.0, meterRegistry);
+        warmUp(policy);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        Mono<String> result = policy.execute(() -> {
+            attempts.incrementAndGet();
+            return Mono.just("primary").delayElement(Duration.ofMillis(100));
+        });
+
+        // Then
+        StepVerifier.create(result)
+                    .expectNext("primary")
+                    .verifyComplete();
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(hedgeCount("budget-exhausted")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("요청 deadline 이 남아 있지 않으면 하위 호출은 남은 시간만 기다리고 TimeoutException 으로 끝난다")
+    void deadlineBoundsDownstreamCall() {
+        // Given
+        Mono<String> slow = Mono.just("late").delayElement(Duration.ofSeconds(5));
+
+        // When
+        Mono<String> result = RequestDeadline.bound(slow)
+                                             .contextWrite(RequestDeadline.within(Duration.ofMillis(50)));
+
+        // Then
+        StepVerifier.create(result)
+                    .expectError(TimeoutException.class)
+                    .verify(Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.recommendation_service.client;
+
+import com.google.auth.oauth2.UserCredentials;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 로컬 가짜 OAuth 토큰 엔드포인트를 띄워 토큰 캐싱/공유/선갱신 동작을 검증합니다.
+ */
+class VertexAccessTokenProviderTest {
+
+    private HttpServer tokenServer;
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private volatile int expiresInSeconds = 3600;
+    private volatile int statusCode = 200;
+    private volatile long responseDelayMillis = 0;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        tokenServer.createContext("/token", exchange -> {
+            int n = tokenRequests.incrementAndGet();
+            try {
+                Thread.sleep(responseDelayMillis);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = String.format("{\"access_token\":\"token-%d\",\"expires_in\":%d,\"token_type\":\"Bearer\"}",
+                                        n, expiresInSeconds).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+            exchange.sendResponseHeaders(statusCode, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        tokenServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tokenServer.stop(0);
+    }
+
+    private VertexAccessTokenProvider provider(Duration refreshAhead) {
+        UserCredentials credentials = UserCredentials.newBuilder()
+                                                     .setClientId("client-id")
+                                                     .setClientSecret("client-secret")
+                                                     .setRefreshToken("refresh-token")
+                                                     .setTokenServerUri(URI.create("http://127.0.0.1:" + tokenServer.getAddress().getPort() + "/token"))
+                                                     .build();
+        return new VertexAccessTokenProvider(credentials, refreshAhead, Duration.ofSeconds(1), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("동시에 들어온 토큰 요청들은 하나의 갱신 결과를 공유한다")
+    void concurrentCallersShareSingleRefresh() {
+        // Given
+        responseDelayMillis = 200;
+        VertexAccessTokenProvider provider = provider(Duration.ofMinutes(5));
+
+        // When & Then
+        StepVerifier.create(Flux.range(0, 50).flatMap(i -> provider.getAccessToken()).distinct())
+                    .expectNext("token-1")
+                    .verifyComplete();
+        assertThat(tokenRequests.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("vertex.token.refresh").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("유효한 토큰이 캐시되어 있으면 토큰 엔드포인트를 다시 호출하지 않는다")
+    void cachedTokenIsReused() {
+        // Given
+        VertexAccessTokenProvider provider = provider(Duration.ofMinutes(5));
+
+        // When
+        String first = provider.getAccessToken().block();
+        String second = provider.getAccessToken().block();
+
+        // Then
+        assertThat(first).isEqualTo("token-1");
+        assertThat(second).isEqualTo("token-1");
+        assertThat(tokenRequests.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("만료 refresh-ahead 시점이 되면 호출 없이도 백그라운드로 토큰을 갱신한다")
+    void refreshesAheadOfExpiryInBackground() throws Exception {
+        // Given: 유효시간 60초, 만료 59.5초 전에 선갱신
+        expiresInSeconds = 60;
+        VertexAccessTokenProvider provider = provider(Duration.ofMillis(59_500));
+        assertThat(provider.getAccessToken().block()).isEqualTo("token-1");
+
+        // When
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (tokenRequests.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Thread.sleep(100);
+
+        // Then
+        assertThat(tokenRequests.get()).isGreaterThanOrEqualTo(2);
+        assertThat(provider.getAccessToken().block()).isNotEqualTo("token-1");
+        assertThat(meterRegistry.get("vertex.token.refresh.background").counter().count()).isGreaterThanOrEqualTo(1);
+        provider.shutdown();
+    }
+
+    @Test
+    @DisplayName("토큰 엔드포인트가 실패하면 에러를 전달하고 실패 메트릭을 기록한다")
+    void refreshFailureIsReportedAndRecorded() {
+        // Given
+        statusCode = 400;
+        VertexAccessTokenProvider provider = provider(Duration.ofMinutes(5));
+
+        // When & Then
+        StepVerifier.create(provider.getAccessToken())
+                    .expectError()
+                    .verify(Duration.ofSeconds(10));
+        assertThat(meterRegistry.get("vertex.token.refresh").tag("outcome", "failure").timer().count()).isEqualTo(1);
+
+        // 다음 호출은 새 갱신을 시도한다
+        statusCode = 200;
+        StepVerifier.create(provider.getAccessToken().map(token -> token.startsWith("token-")))
+                    .expectNext(true)
+                    .verifyComplete();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.recommendation_service.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class VertexPredictionBatcherTest {
+
+    @Mock
+    private VertexAiClient vertexAiClient;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private static PredictionInstance instance(double lat) {
+        return new PredictionInstance(129.0, lat, 40, 2);
+    }
+
+    @Test
+    @DisplayName("window 안에 들어온 요청들은 중복을 제거한 한 번의 호출로 묶이고, 각자 자기 순서대로 점수를 받는다")
+    void concurrentRequestsAreBatchedAndDeduplicated() {
+        // Given
+        VertexPredictionBatcher batcher = new VertexPredictionBatcher(vertexAiClient, true, Duration.ofMillis(50), 100, meterRegistry);
+        given(vertexAiClient.tryPredictBulk(argThat(instances -> instances.size() == 3)))
+                .willReturn(Mono.just(new double[]{0.1, 0.2, 0.3}));
+
+        // When: A=[35.1, 35.2], B=[35.3, 35.1] (35.1 중복)
+        Mono<List<double[]>> both = Mono.zip(
+                batcher.predict(List.of(instance(35.1), instance(35.2))),
+                batcher.predict(List.of(instance(35.3), instance(35.1)))
+        ).map(tuple -> List.of(tuple.getT1(), tuple.getT2()));
+
+        // Then
+        StepVerifier.create(both)
+                    .assertNext(results -> {
+                        assertThat(results.get(0)).containsExactly(0.1, 0.2);
+                        assertThat(results.get(1)).containsExactly(0.3, 0.1);
+                    })
+                    .verifyComplete();
+        then(vertexAiClient).should(times(1)).tryPredictBulk(anyList());
+        assertThat(meterRegistry.get("vertex.batch.deduplicated").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("vertex.batch.queue.wait").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("max-instances 에 도달하면 window 를 기다리지 않고 즉시 전송한다")
+    void fullBatchIsSentImmediately() {
+        // Given: window 는 매우 길게
+        VertexPredictionBatcher batcher = new VertexPredictionBatcher(vertexAiClient, true, Duration.ofSeconds(30), 2, meterRegistry);
+        given(vertexAiClient.tryPredictBulk(anyList()))
+                .willReturn(Mono.just(new double[]{0.4, 0.6}));
+
+        // When & Then
+        StepVerifier.create(batcher.predict(List.of(instance(35.1), instance(35.2))))
+                    .assertNext(scores -> assertThat(scores).containsExactly(0.4, 0.6))
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("배치 호출이 실패하면 묶인 모든 호출자에게 에러를 전달한다")
+    void failureIsPropagatedToAllCallers() {
+        // Given
+        VertexPredictionBatcher batcher = new VertexPredictionBatcher(vertexAiClient, true, Duration.ofMillis(20), 100, meterRegistry);
+        given(vertexAiClient.tryPredictBulk(anyList()))
+                .willReturn(Mono.error(new RuntimeException("AI Error")));
+
+        // When & Then
+        StepVerifier.create(batcher.predict(List.of(instance(35.1))))
+                    .expectErrorMessage("AI Error")
+                    .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("배치 호출은 묶인 호출자 중 가장 늦은 deadline 안에서만 진행된다")
+    void batchCallIsBoundByLatestWaiterDeadline() {
+        // Given
+        VertexPredictionBatcher batcher = new VertexPredictionBatcher(vertexAiClient, true, Duration.ofMillis(20), 100, meterRegistry);
+        AtomicLong batchRemainingNanos = new AtomicLong();
+        given(vertexAiClient.tryPredictBulk(anyList()))
+                .willReturn(Mono.deferContextual(context -> {
+                    batchRemainingNanos.set(RequestDeadline.remainingNanos(context));
+                    return Mono.just(new double[]{0.1, 0.2});
+                }));
+
+        // When: 각각 200ms, 2s deadline 을 가진 두 호출자
+        Mono<List<double[]>> both = Mono.zip(
+                batcher.predict(List.of(instance(35.1))).contextWrite(RequestDeadline.within(Duration.ofMillis(200))),
+                batcher.predict(List.of(instance(35.2))).contextWrite(RequestDeadline.within(Duration.ofSeconds(2)))
+        ).map(tuple -> List.of(tuple.getT1(), tuple.getT2()));
+
+        // Then
+        StepVerifier.create(both)
+                    .expectNextCount(1)
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(5));
+        assertThat(Duration.ofNanos(batchRemainingNanos.get()))
+                .isGreaterThan(Duration.ofMillis(200))
+                .isLessThanOrEqualTo(Duration.ofSeconds(2));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.recommendation_service.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VertexPredictionCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static byte[] json(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("요청 payload 는 기존 Map 기반 payload 와 같은 필드/문자열 값을 가진다")
+    void writeRequest_MatchesModelSchema() throws Exception {
+        // Given
+        List<PredictionInstance> instances = List.of(
+                new PredictionInstance(129.15710744041863, 35.1606243481329, 40, 2),
+                new PredictionInstance(129.0, 35.0, 0, 6));
+
+        // When
+        JsonNode body = objectMapper.readTree(VertexPredictionCodec.writeRequest(instances));
+
+        // Then
+        JsonNode first = body.get("instances").get(0);
+        assertThat(body.get("instances")).hasSize(2);
+        assertThat(first.get("city").asText()).isEqualTo(" ");
+        assertThat(first.get("latitude").asText()).isEqualTo(String.valueOf(35.1606243481329));
+        assertThat(first.get("longitude").asText()).isEqualTo(String.valueOf(129.15710744041863));
+        assertThat(first.get("time_slot").asText()).isEqualTo("40");
+        assertThat(first.get("day_of_week").asText()).isEqualTo("2");
+        assertThat(body.get("instances").get(1).get("longitude").asText()).isEqualTo("129.0");
+    }
+
+    @Test
+    @DisplayName("predictions 배열을 순서대로 double[] 로 읽고, 앞뒤의 다른 필드는 건너뛴다")
+    void readPredictions_StreamsScores() throws Exception {
+        // Given
+        byte[] body = json("{\"deployedModelId\":\"1\",\"meta\":{\"a\":[1,2,{\"b\":3}]},"
+                + "\"predictions\":[{\"value\":0.5,\"lower_bound\":0.1},{\"upper\":[1.0],\"value\":2},0.25,{\"value\":\"1.5\"}],"
+                + "\"model\":\"m\"}");
+
+        // When
+        double[] scores = VertexPredictionCodec.readPredictions(body, 4);
+
+        // Then
+        assertThat(scores).containsExactly(0.5, 2.0, 0.25, 1.5);
+    }
+
+    @Test
+    @DisplayName("예상보다 많은 예측값이 와도 모두 읽고, 값이 없는 원소는 0.0 으로 채운다")
+    void readPredictions_GrowsAndDefaultsMissingValues() throws Exception {
+        // Given
+        StringBuilder sb = new StringBuilder("{\"predictions\":[{}");
+        for (int i = 1; i < 20; i++) {
+            sb.append(",{\"value\":").append(i).append('}');
+        }
+        sb.append("]}");
+
+        // When
+        double[] scores = VertexPredictionCodec.readPredictions(json(sb.toString()), 2);
+
+        // Then
+        assertThat(scores).hasSize(20);
+        assertThat(scores[0]).isZero();
+        assertThat(scores[19]).isEqualTo(19.0);
+    }
+
+    @Test
+    @DisplayName("predictions 가 없으면 빈 배열을 반환한다")
+    void readPredictions_MissingPredictions() throws Exception {
+        assertThat(VertexPredictionCodec.readPredictions(json("{\"error\":{\"code\":400}}"), 3)).isEmpty();
+        assertThat(VertexPredictionCodec.readPredictions(json("{\"predictions\":[]}"), 3)).isEmpty();
+    }
+}
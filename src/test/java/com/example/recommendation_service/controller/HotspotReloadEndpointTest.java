@@ -0,0 +1,57 @@
+package com.example.recommendation_service.controller;
+
+import com.example.recommendation_service.service.HotspotLoader;
+import com.example.recommendation_service.service.HotspotReloadResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class HotspotReloadEndpointTest {
+
+    @Mock
+    private HotspotLoader hotspotLoader;
+
+    @Test
+    @DisplayName("재적재가 진행 중일 때 들어온 호출은 새로 실행하지 않고 진행 중인 결과를 함께 받는다")
+    void concurrentReloadsShareOneRun() throws Exception {
+        // Given
+        HotspotReloadResult result = new HotspotReloadResult("v2", 3, 1, 0, true);
+        CountDownLatch release = new CountDownLatch(1);
+        given(hotspotLoader.reload()).willAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return result;
+        });
+        HotspotReloadEndpoint endpoint = new HotspotReloadEndpoint(hotspotLoader);
+
+        // When
+        Mono<HotspotReloadResult> first = endpoint.reload();
+        Mono<HotspotReloadResult> second = endpoint.reload();
+        first.subscribe();
+        second.subscribe();
+        release.countDown();
+
+        // Then
+        StepVerifier.create(first).expectNext(result).verifyComplete();
+        StepVerifier.create(second).expectNext(result).verifyComplete();
+        then(hotspotLoader).should(times(1)).reload();
+
+        // 끝난 뒤의 호출은 다시 실행
+        StepVerifier.create(endpoint.reload().delaySubscription(Duration.ofMillis(10)))
+                    .expectNext(result)
+                    .verifyComplete();
+        then(hotspotLoader).should(times(2)).reload();
+    }
+}
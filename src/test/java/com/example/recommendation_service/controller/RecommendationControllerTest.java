@@ -1,15 +1,33 @@
 package com.example.recommendation_service.controller;
 
+import com.example.recommendation_service.dto.BatchRecommendationRequest;
+import com.example.recommendation_service.dto.BatchRecommendationResponse;
+import com.example.recommendation_service.service.AdaptiveConcurrencyLimiter;
+import com.example.recommendation_service.service.BatchRecommendationService;
+import com.example.recommendation_service.service.CellRouter;
+import com.example.recommendation_service.service.RecommendationFeed;
 import com.example.recommendation_service.service.RecommendationService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
 
 @WebFluxTest(RecommendationController.class)
 class RecommendationControllerTest {
@@ -20,6 +38,49 @@ class RecommendationControllerTest {
     @MockitoBean
     private RecommendationService recommendationService;
 
+    @MockitoBean
+    private BatchRecommendationService batchRecommendationService;
+
+    @MockitoBean
+    private RecommendationFeed recommendationFeed;
+
+    @MockitoBean
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @MockitoBean
+    private CellRouter cellRouter;
+
+    // 기본은 이 Pod 가 셀 담당이고 한도 안: admitted 경로를 그대로 실행
+    @BeforeEach
+    void setUp() {
+        given(cellRouter.route(anyDouble(), anyDouble(), any(), any()))
+                .willAnswer(invocation -> invocation.<Supplier<Mono<String>>>getArgument(3).get());
+        given(concurrencyLimiter.execute(any(), any(), any()))
+                .willAnswer(invocation -> invocation.<Supplier<Mono<String>>>getArgument(1).get());
+    }
+
+    @Test
+    @DisplayName("동시 처리 한도를 넘으면 기사 ID 기준으로 admission 을 거쳐 degraded 추천을 즉시 반환한다")
+    void getRecommendation_ShedsToDegradedAnswer() {
+        // Given
+        given(concurrencyLimiter.execute(eq("driver-1"), any(), any()))
+                .willAnswer(invocation -> invocation.<Supplier<Mono<String>>>getArgument(2).get());
+        String degraded = "약 15분뒤 캐시된 위치 인근의 수요가 가장 높을 것으로 예상됩니다. 이동을 추천합니다.";
+        given(recommendationService.getDegradedRecommendation(127.0, 37.5)).willReturn(Mono.just(degraded));
+
+        // When & Then
+        webTestClient.get()
+                     .uri(uriBuilder -> uriBuilder
+                             .path("/api/recommendations")
+                             .queryParam("lon", 127.0)
+                             .queryParam("lat", 37.5)
+                             .build())
+                     .header(RecommendationController.DRIVER_ID_HEADER, "driver-1")
+                     .exchange()
+                     .expectStatus().isOk()
+                     .expectBody(String.class).isEqualTo(degraded);
+    }
+
     @Test
     @DisplayName("유효한 위도, 경도 파라미터 요청 시 200 OK와 추천 결과를 반환한다")
     void getRecommendation_Success() {
@@ -41,6 +102,31 @@ class RecommendationControllerTest {
                      .exchange()
                      .expectStatus().isOk()
                      .expectBody(String.class).isEqualTo(expectedResponse);
+        // 기사 ID 가 없으면 접속 주소(게이트웨이)로 묶지 않고 기사별 제한 없이 처리
+        then(concurrencyLimiter).should().execute(isNull(), any(), any());
+    }
+
+    @Test
+    @DisplayName("다른 Pod 가 전달한 요청은 셀 라우팅과 기사별 제한 없이 이 Pod 에서 계산한다")
+    void getRecommendation_ForwardedRequestComputedLocally() {
+        // Given
+        String expectedResponse = "약 15분뒤 부산역 인근의 수요가 가장 높을 것으로 예상됩니다.";
+        given(recommendationService.getBestLocationRecommendation(129.04, 35.11)).willReturn(Mono.just(expectedResponse));
+
+        // When & Then
+        webTestClient.get()
+                     .uri(uriBuilder -> uriBuilder
+                             .path("/api/recommendations")
+                             .queryParam("lon", 129.04)
+                             .queryParam("lat", 35.11)
+                             .build())
+                     .header(CellRouter.FORWARDED_HEADER, "10.0.0.2:8089")
+                     .header(RecommendationController.DRIVER_ID_HEADER, "driver-1")
+                     .exchange()
+                     .expectStatus().isOk()
+                     .expectBody(String.class).isEqualTo(expectedResponse);
+        then(cellRouter).should(never()).route(anyDouble(), anyDouble(), any(), any());
+        then(concurrencyLimiter).should().execute(isNull(), any(), any());
     }
 
     @Test
@@ -79,4 +165,49 @@ class RecommendationControllerTest {
                      .exchange()
                      .expectStatus().isBadRequest();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("일괄 추천 요청(JSON 배열) 시 기사별 추천 결과를 NDJSON 으로 스트리밍한다")
+    void getBatchRecommendations_Success() {
+        // Given
+        given(batchRecommendationService.recommend(any()))
+                .willReturn(Flux.just(
+                        new BatchRecommendationResponse("driver-1", "추천 A"),
+                        new BatchRecommendationResponse("driver-2", "추천 B")));
+
+        // When & Then
+        webTestClient.post()
+                     .uri("/api/recommendations/batch")
+                     .contentType(MediaType.APPLICATION_JSON)
+                     .accept(MediaType.APPLICATION_NDJSON)
+                     .bodyValue(List.of(
+                             new BatchRecommendationRequest("driver-1", 129.05, 35.15),
+                             new BatchRecommendationRequest("driver-2", 129.06, 35.16)))
+                     .exchange()
+                     .expectStatus().isOk()
+                     .expectBodyList(BatchRecommendationResponse.class)
+                     .hasSize(2)
+                     .contains(new BatchRecommendationResponse("driver-1", "추천 A"));
+    }
+
+    @Test
+    @DisplayName("추천 스트림 구독 시 추천 메시지를 SSE 이벤트로 push 한다")
+    void streamRecommendation_Success() {
+        // Given
+        given(recommendationFeed.watch(129.05, 35.15))
+                .willReturn(Flux.just("슬롯 1 추천", "슬롯 2 추천"));
+
+        // When & Then
+        webTestClient.get()
+                     .uri(uriBuilder -> uriBuilder
+                             .path("/api/recommendations/stream")
+                             .queryParam("lon", 129.05)
+                             .queryParam("lat", 35.15)
+                             .build())
+                     .accept(MediaType.TEXT_EVENT_STREAM)
+                     .exchange()
+                     .expectStatus().isOk()
+                     .expectBodyList(String.class)
+                     .containsExactly("슬롯 1 추천", "슬롯 2 추천");
+    }
+}
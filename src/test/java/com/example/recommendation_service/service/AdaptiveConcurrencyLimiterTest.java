@@ -0,0 +1,156 @@
+package com.example.recommendation_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit, Duration latencyThreshold) {
+        return new AdaptiveConcurrencyLimiter(true, initialLimit, 1, 100, latencyThreshold, 0.5, true, 0.8, 4, meterRegistry);
+    }
+
+    private double requests(String outcome) {
+        return meterRegistry.get("recommendation.admission.requests").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    @DisplayName("한도를 넘은 요청은 대기하지 않고 degraded 응답으로 즉시 처리된다")
+    void overLimitIsShed() {
+        // Given: 한도 1, 첫 요청이 처리 중
+        AdaptiveConcurrencyLimiter limiter = limiter(1, Duration.ofSeconds(1));
+        Sinks.One<String> pending = Sinks.one();
+        limiter.execute("driver-1", pending::asMono, () -> Mono.just("degraded")).subscribe();
+
+        // When
+        Mono<String> second = limiter.execute("driver-2", () -> Mono.just("full"), () -> Mono.just("degraded"));
+
+        // Then
+        StepVerifier.create(second)
+                    .expectNext("degraded")
+                    .verifyComplete();
+        assertThat(requests("rejected")).isEqualTo(1.0);
+        pending.tryEmitValue("done");
+    }
+
+    @Test
+    @DisplayName("한도 근처에서는 이미 처리 중인 요청이 있는 클라이언트의 추가 요청부터 거절한다")
+    void busyClientIsShedFirst() {
+        // Given: 한도 2 의 80% 이상 사용 중이 되는 시점
+        AdaptiveConcurrencyLimiter limiter = limiter(2, Duration.ofSeconds(1));
+        Sinks.One<String> pending = Sinks.one();
+        limiter.execute("driver-1", pending::asMono, () -> Mono.just("degraded")).subscribe();
+
+        // When & Then: 같은 기사의 두 번째 요청은 거절, 다른 기사는 수락
+        StepVerifier.create(limiter.execute("driver-1", () -> Mono.just("full"), () -> Mono.just("degraded")))
+                    .expectNext("degraded")
+                    .verifyComplete();
+        StepVerifier.create(limiter.execute("driver-2", () -> Mono.just("full"), () -> Mono.just("degraded")))
+                    .expectNext("full")
+                    .verifyComplete();
+        assertThat(requests("rejected-fairness")).isEqualTo(1.0);
+        pending.tryEmitValue("done");
+    }
+
+    @Test
+    @DisplayName("클라이언트 키가 없는 요청은 클라이언트별 상한 없이 전체 한도만 적용한다")
+    void requestsWithoutClientKeyShareOnlyGlobalLimit() {
+        // Given: 한도 10, 키 없는 요청 6건이 처리 중 (max-per-client 4 초과)
+        AdaptiveConcurrencyLimiter limiter = limiter(10, Duration.ofSeconds(1));
+        Sinks.One<String> pending = Sinks.one();
+        for (int i = 0; i < 6; i++) {
+            limiter.execute(null, pending::asMono, () -> Mono.just("degraded")).subscribe();
+        }
+
+        // When & Then
+        StepVerifier.create(limiter.execute(null, () -> Mono.just("full"), () -> Mono.just("degraded")))
+                    .expectNext("full")
+                    .verifyComplete();
+        assertThat(requests("accepted")).isEqualTo(7.0);
+        assertThat(requests("rejected-fairness")).isZero();
+        pending.tryEmitValue("done");
+    }
+
+    @Test
+    @DisplayName("fairness 가 꺼져 있으면 같은 기사의 요청도 전체 한도만 적용한다")
+    void fairnessDisabledIgnoresClientKey() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(true, 10, 1, 100, Duration.ofSeconds(1),
+                0.5, false, 0.8, 4, meterRegistry);
+        Sinks.One<String> pending = Sinks.one();
+        for (int i = 0; i < 5; i++) {
+            limiter.execute("driver-1", pending::asMono, () -> Mono.just("degraded")).subscribe();
+        }
+
+        // When & Then
+        StepVerifier.create(limiter.execute("driver-1", () -> Mono.just("full"), () -> Mono.just("degraded")))
+                    .expectNext("full")
+                    .verifyComplete();
+        assertThat(requests("rejected-fairness")).isZero();
+        pending.tryEmitValue("done");
+    }
+
+    @Test
+    @DisplayName("지연이 기준을 넘거나 실패하면 한도를 줄이고, 빠른 응답이 이어지면 다시 늘린다")
+    void limitFollowsLatency() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(8, Duration.ofMillis(20));
+
+        // When: 느린 요청
+        limiter.execute("driver-1", () -> Mono.just("slow").delayElement(Duration.ofMillis(50)), Mono::empty).block();
+
+        // Then
+        assertThat(limiter.limit()).isEqualTo(4);
+
+        // When: 실패
+        limiter.execute("driver-1", () -> Mono.error(new RuntimeException("Vertex down")), Mono::empty)
+               .onErrorResume(e -> Mono.empty())
+               .block();
+
+        // Then
+        assertThat(limiter.limit()).isEqualTo(2);
+
+        // When: 한도의 절반 이상을 쓰는 상태에서 빠른 응답
+        limiter.execute("driver-1", () -> Mono.just("fast"), Mono::empty).block();
+
+        // Then
+        assertThat(limiter.limit()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("동시에 처리 중이던 요청들이 한꺼번에 느리게 끝나도 한도는 한 번만 줄인다")
+    void burstOfSlowSamplesBacksOffOnce() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(8, Duration.ofMillis(20));
+
+        // When: 함께 시작한 요청 6건이 모두 기준보다 느리게 끝남
+        Flux.range(0, 6)
+            .flatMap(i -> limiter.execute("driver-" + i, () -> Mono.just("slow").delayElement(Duration.ofMillis(50)), Mono::empty))
+            .blockLast();
+
+        // Then: 8 -> 4 (0.5^6 로 min-limit 까지 떨어지지 않음)
+        assertThat(limiter.limit()).isEqualTo(4);
+
+        // When: 감소 이후 시작한 요청이 느리면 다시 줄임
+        limiter.execute("driver-1", () -> Mono.just("slow").delayElement(Duration.ofMillis(50)), Mono::empty).block();
+
+        // Then
+        assertThat(limiter.limit()).isEqualTo(2);
+    }
+}
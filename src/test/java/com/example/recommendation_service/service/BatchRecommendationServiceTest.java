@@ -0,0 +1,56 @@
+package com.example.recommendation_service.service;
+
+import com.example.recommendation_service.dto.BatchRecommendationRequest;
+import com.example.recommendation_service.dto.BatchRecommendationResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class BatchRecommendationServiceTest {
+
+    @Mock
+    private RecommendationService recommendationService;
+
+    @Test
+    @DisplayName("같은 셀의 기사들은 한 번의 셀 추천 결과를 공유하고, 잘못된 좌표는 개별 오류로 응답한다")
+    void recommend_GroupsDriversByCell() {
+        // Given
+        BatchRecommendationService batchService = new BatchRecommendationService(recommendationService, 100, 4);
+        given(recommendationService.cellOf(anyDouble(), anyDouble()))
+                .willAnswer(invocation -> GeoHash.encode(invocation.getArgument(0), invocation.getArgument(1), 7));
+        given(recommendationService.getCellRecommendation(eq(GeoHash.encode(129.05, 35.15, 7)), any()))
+                .willReturn(Mono.just("해운대 추천"));
+        given(recommendationService.getCellRecommendation(eq(GeoHash.encode(129.10, 35.20, 7)), any()))
+                .willReturn(Mono.just("기장 추천"));
+
+        Flux<BatchRecommendationRequest> requests = Flux.just(
+                new BatchRecommendationRequest("d1", 129.05, 35.15),
+                new BatchRecommendationRequest("d2", 129.05001, 35.15001),
+                new BatchRecommendationRequest("d3", 129.10, 35.20),
+                new BatchRecommendationRequest("d4", 200.0, 35.0));
+
+        // When & Then
+        StepVerifier.create(batchService.recommend(requests).collectList())
+                    .assertNext(responses -> assertThat(responses).containsExactlyInAnyOrder(
+                            new BatchRecommendationResponse("d1", "해운대 추천"),
+                            new BatchRecommendationResponse("d2", "해운대 추천"),
+                            new BatchRecommendationResponse("d3", "기장 추천"),
+                            new BatchRecommendationResponse("d4", "잘못된 좌표입니다.")))
+                    .verifyComplete();
+        then(recommendationService).should(times(2)).getCellRecommendation(any(), any());
+    }
+}
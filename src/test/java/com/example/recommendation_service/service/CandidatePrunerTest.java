@@ -0,0 +1,152 @@
+package com.example.recommendation_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CandidatePrunerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private HotspotIndexHolder hotspotIndexHolder;
+    private HotspotPriors hotspotPriors;
+    private HotspotScoreTables scoreTables;
+    private HotspotIndex index;
+    private HotspotIndex.Candidates candidates;
+    private TimeSlot slot;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hotspotIndexHolder = new HotspotIndexHolder();
+        hotspotPriors = new HotspotPriors(hotspotIndexHolder);
+        scoreTables = new HotspotScoreTables();
+
+        // 동쪽으로 약 180m 간격의 핫스팟 20개
+        int n = 20;
+        String[] ids = new String[n];
+        double[] lons = new double[n];
+        double[] lats = new double[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = "spot" + (i + 1);
+            lons[i] = 129.0 + i * 0.002;
+            lats[i] = 35.1;
+        }
+        index = HotspotIndex.of(ids, lons, lats, 2.0);
+        hotspotIndexHolder.publish(index);
+        candidates = index.radius(129.0, 35.1, 7.0);
+        slot = TimeSlot.now();
+    }
+
+    private CandidatePruner pruner(int maxCandidates, int denseThreshold, double minRadiusKm) {
+        return new CandidatePruner(hotspotPriors, scoreTables, meterRegistry, true,
+                maxCandidates, denseThreshold, minRadiusKm, 3.0, 0.0, 0.9);
+    }
+
+    @Test
+    @DisplayName("후보가 max-candidates 이하이면 그대로 둔다")
+    void prune_SmallSetIsUnchanged() {
+        // When
+        HotspotIndex.Candidates pruned = pruner(20, 80, 3.0).prune(candidates, slot);
+
+        // Then
+        assertThat(pruned).isSameAs(candidates);
+    }
+
+    @Test
+    @DisplayName("밀집 지역이면 반경을 좁혀 가까운 dense-threshold 개만 남긴다")
+    void prune_ShrinksRadiusWhenDense() {
+        // When: 1km 안에는 6개뿐이므로 dense-threshold(10)개까지 유지
+        HotspotIndex.Candidates pruned = pruner(10, 10, 1.0).prune(candidates, slot);
+
+        // Then
+        assertThat(pruned.size()).isEqualTo(10);
+        assertThat(pruned.id(9)).isEqualTo("spot10");
+        assertThat(meterRegistry.get("recommendation.pruning.radius.shrunk").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("그래도 많으면 과거 점수 x 거리 감쇠 상위 K 개를 거리 순서대로 남긴다")
+    void prune_KeepsTopKByPrior() {
+        // Given: 먼 쪽 spot18~20 의 과거 점수가 높음
+        for (int i = 0; i < index.size(); i++) {
+            hotspotPriors.record(index, i, slot, i >= 17 ? 10.0 : 0.1);
+        }
+
+        // When
+        HotspotIndex.Candidates pruned = pruner(3, 100, 3.0).prune(candidates, slot);
+
+        // Then
+        assertThat(pruned.size()).isEqualTo(3);
+        assertThat(new String[]{pruned.id(0), pruned.id(1), pruned.id(2)}).containsExactly("spot18", "spot19", "spot20");
+        assertThat(pruned.distanceKm(0)).isLessThan(pruned.distanceKm(2));
+    }
+
+    @Test
+    @DisplayName("과거 점수가 없으면 가까운 후보부터 남긴다")
+    void prune_FallsBackToDistanceWithoutPriors() {
+        // When
+        HotspotIndex.Candidates pruned = pruner(3, 100, 3.0).prune(candidates, slot);
+
+        // Then
+        assertThat(new String[]{pruned.id(0), pruned.id(1), pruned.id(2)}).containsExactly("spot1", "spot2", "spot3");
+    }
+
+    @Test
+    @DisplayName("현재 슬롯 사전 채점표가 있으면 Vertex 호출이 없으므로 가지치기하지 않는다")
+    void prune_SkipsWhenPrescored() {
+        // Given
+        scoreTables.publish(new HotspotScoreTable(slot, index, new double[index.size()]));
+
+        // When
+        HotspotIndex.Candidates pruned = pruner(3, 10, 1.0).prune(candidates, slot);
+
+        // Then
+        assertThat(pruned).isSameAs(candidates);
+    }
+
+    @Test
+    @DisplayName("점수표가 있어도 실패한 chunk(NaN)로 후보를 min-table-coverage 만큼 덮지 못하면 가지치기한다")
+    void prune_PrunesWhenTableCoverageIsLow() {
+        // Given: 절반이 NaN 인 점수표와 전부 NaN 인 점수표(Vertex 장애)
+        double[] half = new double[index.size()];
+        for (int i = 0; i < half.length; i += 2) {
+            half[i] = Double.NaN;
+        }
+        double[] none = new double[index.size()];
+        Arrays.fill(none, Double.NaN);
+        CandidatePruner pruner = pruner(3, 100, 3.0);
+
+        // When
+        scoreTables.publish(new HotspotScoreTable(slot, index, half));
+        HotspotIndex.Candidates partial = pruner.prune(candidates, slot);
+        scoreTables.publish(new HotspotScoreTable(slot, index, none));
+        HotspotIndex.Candidates empty = pruner.prune(candidates, slot);
+
+        // Then
+        assertThat(partial.size()).isEqualTo(3);
+        assertThat(empty.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("품질 측정: 가지치기 추천과 전체 채점 추천의 일치 여부와 점수 비율을 기록한다")
+    void recordQuality_RecordsMatchAndRatio() {
+        // Given
+        CandidatePruner pruner = pruner(3, 100, 3.0);
+        HotspotIndex.Candidates pruned = pruner.prune(candidates, slot);
+        double[] fullScores = new double[candidates.size()];
+        fullScores[1] = 0.8;
+        fullScores[10] = 1.0; // 가지치기로 빠진 spot11 이 실제 최고
+
+        // When
+        pruner.recordQuality(pruned, new double[]{0.1, 0.8, 0.2}, candidates, fullScores);
+
+        // Then
+        assertThat(meterRegistry.get("recommendation.pruning.quality").tag("outcome", "miss").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("recommendation.pruning.quality.score.ratio").summary().mean()).isEqualTo(0.8);
+    }
+}
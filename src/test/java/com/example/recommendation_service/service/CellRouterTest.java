@@ -0,0 +1,165 @@
+package com.example.recommendation_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class CellRouterTest {
+
+    private static final String SELF = "10.0.0.1:8089";
+    private static final String PEER = "10.0.0.2:8089";
+
+    @Mock
+    private ObjectProvider<DiscoveryClient> discoveryClientProvider;
+
+    @Mock
+    private ObjectProvider<Registration> registrationProvider;
+
+    @Mock
+    private DiscoveryClient discoveryClient;
+
+    @Mock
+    private Registration registration;
+
+    private final List<ClientRequest> forwarded = new ArrayList<>();
+    private final AtomicInteger localCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        given(discoveryClientProvider.getIfAvailable()).willReturn(discoveryClient);
+        given(registrationProvider.getIfAvailable()).willReturn(registration);
+        given(registration.getHost()).willReturn("10.0.0.1");
+        given(registration.getPort()).willReturn(8089);
+        given(discoveryClient.getInstances("recommendation-service")).willReturn(List.of(
+                new DefaultServiceInstance("a", "recommendation-service", "10.0.0.1", 8089, false),
+                new DefaultServiceInstance("b", "recommendation-service", "10.0.0.2", 8089, false)));
+    }
+
+    @Test
+    @DisplayName("다른 Pod 가 담당하는 셀의 요청은 전달 표시와 기사 ID 를 붙여 담당 Pod 로 보낸다")
+    void route_ForwardsToOwner() {
+        // Given
+        CellRouter router = router(Duration.ZERO, request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                                                                                    .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN_VALUE)
+                                                                                    .body("담당 Pod 추천")
+                                                                                    .build()));
+        router.refresh();
+        double lon = lonOwnedBy(PEER);
+
+        // When & Then
+        StepVerifier.create(router.route(lon, 35.15, headers -> headers.set("X-Driver-Id", "driver-1"), this::local))
+                    .expectNext("담당 Pod 추천")
+                    .verifyComplete();
+        assertThat(localCalls).hasValue(0);
+        assertThat(forwarded).hasSize(1);
+        assertThat(forwarded.get(0).url().getHost()).isEqualTo("10.0.0.2");
+        assertThat(forwarded.get(0).url().getPath()).isEqualTo("/api/recommendations");
+        assertThat(forwarded.get(0).headers().getFirst(CellRouter.FORWARDED_HEADER)).isEqualTo(SELF);
+        assertThat(forwarded.get(0).headers().getFirst("X-Driver-Id")).isEqualTo("driver-1");
+    }
+
+    @Test
+    @DisplayName("전달에 실패하면 직접 계산하고, cooldown 동안은 그 Pod 로 다시 보내지 않는다")
+    void route_FallsBackToLocalOnForwardFailure() {
+        // Given
+        CellRouter router = router(Duration.ZERO, request -> Mono.error(new ConnectException("Connection refused")));
+        router.refresh();
+        double lon = lonOwnedBy(PEER);
+
+        // When & Then
+        StepVerifier.create(router.route(lon, 35.15, headers -> { }, this::local))
+                    .expectNext("직접 계산")
+                    .verifyComplete();
+        StepVerifier.create(router.route(lon, 35.15, headers -> { }, this::local))
+                    .expectNext("직접 계산")
+                    .verifyComplete();
+        assertThat(forwarded).hasSize(1);
+        assertThat(localCalls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("담당 Pod 가 느리면 fallback-reserve 를 남기고 전달을 끊어 deadline 안에서 직접 계산한다")
+    void route_SlowOwnerFallsBackWithinDeadline() {
+        // Given: 응답하지 않는 담당 Pod, deadline 3초 중 1초는 직접 계산 몫
+        CellRouter router = router(Duration.ZERO, request -> Mono.never());
+        router.refresh();
+        double lon = lonOwnedBy(PEER);
+
+        // When & Then
+        StepVerifier.withVirtualTime(() -> router.route(lon, 35.15, headers -> { }, this::local))
+                    .expectSubscription()
+                    .expectNoEvent(Duration.ofMillis(1999))
+                    .thenAwait(Duration.ofMillis(1))
+                    .expectNext("직접 계산")
+                    .verifyComplete();
+        assertThat(localCalls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("join-delay 가 지나기 전에는 링에 넣지 않고 모든 요청을 직접 계산한다")
+    void route_ComputesLocallyBeforeJoining() {
+        // Given
+        CellRouter router = router(Duration.ofMinutes(1), request -> Mono.error(new IllegalStateException("호출되면 안 됨")));
+        router.refresh();
+
+        // When & Then
+        StepVerifier.create(router.route(lonOwnedBy(PEER), 35.15, headers -> { }, this::local))
+                    .expectNext("직접 계산")
+                    .verifyComplete();
+        assertThat(forwarded).isEmpty();
+    }
+
+    private CellRouter router(Duration joinDelay, ExchangeFunction exchange) {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            forwarded.add(request);
+            return exchange.exchange(request);
+        });
+        return new CellRouter(discoveryClientProvider, registrationProvider, builder, new SimpleMeterRegistry(),
+                true, "recommendation-service", 6, 128, 1.25, joinDelay, Duration.ofSeconds(3), Duration.ofSeconds(1),
+                Duration.ofSeconds(10));
+    }
+
+    private Mono<String> local() {
+        localCalls.incrementAndGet();
+        return Mono.just("직접 계산");
+    }
+
+    // 라우터와 같은 설정의 링에서 member 가 담당하는 셀의 경도를 찾음
+    private static double lonOwnedBy(String member) {
+        ConsistentHashRing ring = ConsistentHashRing.of(List.of(SELF, PEER), 128);
+        for (int i = 0; i < 1000; i++) {
+            double lon = 129.0 + i * 0.02;
+            if (member.equals(ring.owner(GeoHash.encode(lon, 35.15, 6), id -> true))) {
+                return lon;
+            }
+        }
+        throw new IllegalStateException("담당 셀을 찾지 못함: " + member);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.recommendation_service.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    @Test
+    @DisplayName("Pod 가 하나 늘면 약 1/N 셀만, 새 Pod 로만 담당이 옮겨간다")
+    void owner_MovesOnlyShareOfNewMember() {
+        // Given
+        ConsistentHashRing before = ConsistentHashRing.of(List.of("a:8089", "b:8089", "c:8089", "d:8089"), 128);
+        ConsistentHashRing after = ConsistentHashRing.of(List.of("a:8089", "b:8089", "c:8089", "d:8089", "e:8089"), 128);
+
+        // When
+        int cells = 10_000;
+        int moved = 0;
+        Map<String, Integer> owned = new HashMap<>();
+        for (int i = 0; i < cells; i++) {
+            String cell = GeoHash.encode(126.8 + (i % 100) * 0.01, 37.4 + (i / 100) * 0.005, 6) + i;
+            String previous = before.owner(cell, id -> true);
+            String current = after.owner(cell, id -> true);
+            owned.merge(current, 1, Integer::sum);
+            if (!previous.equals(current)) {
+                moved++;
+                assertThat(current).isEqualTo("e:8089");
+            }
+        }
+
+        // Then
+        assertThat(moved).isBetween(cells / 10, cells * 3 / 10);
+        assertThat(owned.values()).allSatisfy(count -> assertThat(count).isBetween(cells / 5 / 2, cells / 5 * 2));
+    }
+
+    @Test
+    @DisplayName("담당 Pod 가 조건(부하 상한)을 넘으면 링의 다음 Pod 를 고르고, 모두 넘으면 원래 담당을 돌려준다")
+    void owner_SkipsRejectedMembers() {
+        // Given
+        ConsistentHashRing ring = ConsistentHashRing.of(List.of("a:8089", "b:8089", "c:8089"), 64);
+        String primary = ring.owner("wydm9q", id -> true);
+
+        // When
+        String next = ring.owner("wydm9q", id -> !id.equals(primary));
+        String none = ring.owner("wydm9q", id -> false);
+
+        // Then
+        assertThat(next).isNotEqualTo(primary).isIn(ring.members());
+        assertThat(none).isEqualTo(primary);
+        assertThat(ConsistentHashRing.EMPTY.owner("wydm9q", id -> true)).isNull();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.recommendation_service.service;
+
+import com.example.recommendation_service.client.NaverMapsClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class GeocodeCacheTest {
+
+    private static final String KEY = GeocodeCache.key(129.05, 35.15);
+
+    @Mock
+    private NaverMapsClient naverMapsClient;
+    @Mock
+    private ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+    @Mock
+    private ReactiveValueOperations<String, String> valueOperations;
+
+    private GeocodeCache geocodeCache;
+
+    @BeforeEach
+    void setUp() {
+        given(reactiveRedisTemplate.opsForValue()).willReturn(valueOperations);
+        geocodeCache = new GeocodeCache(naverMapsClient, reactiveRedisTemplate, new HotspotIndexHolder(),
+                new SimpleMeterRegistry(), 100, Duration.ofHours(1), Duration.ofDays(30), false, 1);
+    }
+
+    @Test
+    @DisplayName("Redis 에 없으면 Naver 를 호출해 Redis 와 near-cache 에 저장하고, 다음 요청은 near-cache 로 응답한다")
+    void miss_FetchesFromNaverAndStores() {
+        // Given
+        given(valueOperations.get(KEY)).willReturn(Mono.empty());
+        given(naverMapsClient.tryReverseGeocode(129.05, 35.15)).willReturn(Mono.just("부산광역시 해운대구"));
+        given(valueOperations.set(eq(KEY), eq("부산광역시 해운대구"), any(Duration.class))).willReturn(Mono.just(true));
+
+        // When & Then
+        StepVerifier.create(geocodeCache.reverseGeocode(129.05, 35.15))
+                    .expectNext("부산광역시 해운대구")
+                    .verifyComplete();
+        StepVerifier.create(geocodeCache.reverseGeocode(129.05, 35.15))
+                    .expectNext("부산광역시 해운대구")
+                    .verifyComplete();
+
+        then(naverMapsClient).should(times(1)).tryReverseGeocode(anyDouble(), anyDouble());
+        then(valueOperations).should(times(1)).get(KEY);
+    }
+
+    @Test
+    @DisplayName("다른 Pod 가 Redis 에 저장한 주소가 있으면 Naver 를 호출하지 않는다")
+    void redisHit_SkipsNaver() {
+        // Given
+        given(valueOperations.get(KEY)).willReturn(Mono.just("부산광역시 중구"));
+
+        // When & Then
+        StepVerifier.create(geocodeCache.reverseGeocode(129.05, 35.15))
+                    .expectNext("부산광역시 중구")
+                    .verifyComplete();
+        then(naverMapsClient).should(never()).tryReverseGeocode(anyDouble(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("Naver 호출이 실패하면 '주소 확인 불가' 를 반환하되 캐싱하지 않는다")
+    void naverFailure_FallbackIsNotCached() {
+        // Given
+        given(valueOperations.get(KEY)).willReturn(Mono.empty());
+        given(naverMapsClient.tryReverseGeocode(129.05, 35.15)).willReturn(Mono.error(new RuntimeException("Naver Error")));
+
+        // When & Then
+        StepVerifier.create(geocodeCache.reverseGeocode(129.05, 35.15))
+                    .expectNext(NaverMapsClient.UNAVAILABLE_ADDRESS)
+                    .verifyComplete();
+        StepVerifier.create(geocodeCache.reverseGeocode(129.05, 35.15))
+                    .expectNext(NaverMapsClient.UNAVAILABLE_ADDRESS)
+                    .verifyComplete();
+
+        then(naverMapsClient).should(times(2)).tryReverseGeocode(anyDouble(), anyDouble());
+        then(valueOperations).should(never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("기동 워밍업 요청은 캐시에 없어도 Naver 를 호출하지 않고 '주소 확인 불가' 를 반환한다")
+    void warmup_SkipsNaver() {
+        // Given
+        given(valueOperations.get(KEY)).willReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(geocodeCache.reverseGeocode(129.05, 35.15)
+                                        .contextWrite(context -> context.put(RecommendationMetrics.WARMUP_CONTEXT_KEY, true)))
+                    .expectNext(NaverMapsClient.UNAVAILABLE_ADDRESS)
+                    .verifyComplete();
+        then(naverMapsClient).should(never()).tryReverseGeocode(anyDouble(), anyDouble());
+    }
+}
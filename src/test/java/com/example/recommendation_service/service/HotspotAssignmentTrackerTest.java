@@ -0,0 +1,124 @@
+package com.example.recommendation_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class HotspotAssignmentTrackerTest {
+
+    private HotspotAssignmentTracker tracker;
+    private HotspotIndex index;
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Redis 동기화 없이 이 Pod 의 배정만으로 할인
+        tracker = new HotspotAssignmentTracker(reactiveRedisTemplate, new SimpleMeterRegistry(), true, false,
+                Duration.ofMinutes(5), Duration.ofSeconds(30), 2);
+        index = HotspotIndex.of(new String[]{"spot1", "spot2"}, new double[]{127.01, 127.02}, new double[]{37.51, 37.52}, 2.0);
+        tracker.onHotspotIndexChanged(new HotspotIndexChangedEvent(HotspotIndex.EMPTY, index, "v1"));
+    }
+
+    @Test
+    @DisplayName("배정이 몰린 핫스팟은 동기화 후 점수가 할인되어 다음으로 높은 핫스팟이 선택된다")
+    void crowdedHotspotIsDiscounted() {
+        // Given
+        HotspotIndex.Candidates candidates = index.radius(127.0, 37.5, 7.0);
+        double[] scores = {0.9, 0.6}; // 거리순: spot1, spot2
+        assertThat(tracker.best(candidates, scores)).isZero();
+
+        // When: spot1 에 4번 배정 (할인 = 1 / (1 + 4 / 2) = 1/3)
+        for (int i = 0; i < 4; i++) {
+            tracker.record("spot1");
+        }
+        assertThat(tracker.discount(index, 0)).isEqualTo(1.0); // 동기화 전에는 반영되지 않음
+        tracker.sync();
+
+        // Then
+        assertThat(tracker.discount(index, 0)).isCloseTo(1.0 / 3, within(1e-6));
+        assertThat(tracker.isCrowded("spot1")).isTrue();
+        assertThat(tracker.isCrowded("spot2")).isFalse();
+        assertThat(tracker.best(candidates, scores)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("핫스팟 집합이 바뀌면 배정 횟수를 처음부터 다시 센다")
+    void resetOnHotspotChange() {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            tracker.record("spot1");
+        }
+        tracker.sync();
+
+        // When
+        tracker.onHotspotIndexChanged(new HotspotIndexChangedEvent(index, index, "v2"));
+        tracker.sync();
+
+        // Then
+        assertThat(tracker.discount(index, 0)).isEqualTo(1.0);
+        assertThat(tracker.isCrowded("spot1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Redis 동기화는 스케줄러 스레드를 막지 않고, 이전 동기화가 진행 중이면 이번 주기를 건너뛴다")
+    void syncDoesNotBlockAndSkipsWhileRunning() {
+        // Given: Redis 응답이 오지 않는 상황
+        HotspotAssignmentTracker redisTracker = new HotspotAssignmentTracker(reactiveRedisTemplate, new SimpleMeterRegistry(),
+                true, true, Duration.ofMinutes(5), Duration.ofSeconds(30), 2);
+        redisTracker.onHotspotIndexChanged(new HotspotIndexChangedEvent(HotspotIndex.EMPTY, index, "v1"));
+        given(reactiveRedisTemplate.execute(any(RedisScript.class), anyList(), anyList())).willReturn(Flux.never());
+        redisTracker.record("spot1");
+
+        // When: 두 번째 주기는 첫 동기화가 끝나지 않아 건너뜀
+        redisTracker.sync();
+        redisTracker.record("spot1");
+        redisTracker.sync();
+
+        // Then
+        then(reactiveRedisTemplate).should(times(1)).execute(any(RedisScript.class), anyList(), anyList());
+        assertThat(redisTracker.discount(index, 0)).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("증가분은 핫스팟마다가 아니라 스크립트 한 번으로 Redis 에 보낸다")
+    void flushSendsAllDeltasInOneCall() {
+        // Given
+        HotspotAssignmentTracker redisTracker = new HotspotAssignmentTracker(reactiveRedisTemplate, new SimpleMeterRegistry(),
+                true, true, Duration.ofMinutes(5), Duration.ofSeconds(30), 2);
+        redisTracker.onHotspotIndexChanged(new HotspotIndexChangedEvent(HotspotIndex.EMPTY, index, "v1"));
+        given(reactiveRedisTemplate.execute(any(RedisScript.class), anyList(), anyList())).willReturn(Flux.never());
+        redisTracker.record("spot1");
+        redisTracker.record("spot1");
+        redisTracker.record("spot2");
+
+        // When
+        redisTracker.sync();
+
+        // Then: ttl(5분 + 버킷 2개), 위치 0 에 2, 위치 1 에 1
+        then(reactiveRedisTemplate).should(times(1))
+                                   .execute(any(RedisScript.class), anyList(), eq(List.of("360000", "0", "2", "1", "1")));
+    }
+}
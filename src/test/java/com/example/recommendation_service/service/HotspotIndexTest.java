@@ -0,0 +1,65 @@
+package com.example.recommendation_service.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotspotIndexTest {
+
+    @Test
+    @DisplayName("반경 질의 결과는 전수 탐색 결과와 동일하며 거리 오름차순으로 정렬된다")
+    void radius_MatchesBruteForce() {
+        // Given: 부산 일대에 무작위 핫스팟 1000개
+        Random random = new Random(42);
+        int n = 1000;
+        String[] ids = new String[n];
+        double[] lons = new double[n];
+        double[] lats = new double[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = "spot" + (i + 1);
+            lons[i] = 128.9 + random.nextDouble() * 0.4;
+            lats[i] = 35.0 + random.nextDouble() * 0.3;
+        }
+        HotspotIndex index = HotspotIndex.of(ids, lons, lats, 2.0);
+
+        for (int q = 0; q < 100; q++) {
+            double lon = 128.8 + random.nextDouble() * 0.6;
+            double lat = 34.9 + random.nextDouble() * 0.5;
+
+            // When
+            HotspotIndex.Candidates candidates = index.radius(lon, lat, 7.0);
+
+            // Then
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                if (HotspotIndex.distanceKm(lon, lat, lons[i], lats[i]) <= 7.0) {
+                    expected.add(i);
+                }
+            }
+            expected.sort(Comparator.comparingDouble((Integer i) -> HotspotIndex.distanceKm(lon, lat, lons[i], lats[i]))
+                                    .thenComparing(i -> i));
+
+            assertThat(candidates.size()).isEqualTo(expected.size());
+            for (int k = 0; k < candidates.size(); k++) {
+                assertThat(candidates.index(k)).isEqualTo(expected.get(k));
+                assertThat(candidates.id(k)).isEqualTo(ids[expected.get(k)]);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("격자 범위를 완전히 벗어난 좌표나 빈 인덱스는 빈 결과를 반환한다")
+    void radius_OutOfBoundsOrEmpty() {
+        HotspotIndex index = HotspotIndex.of(new String[]{"spot1"}, new double[]{129.0}, new double[]{35.1}, 2.0);
+
+        assertThat(index.radius(127.0, 37.5, 7.0).isEmpty()).isTrue();
+        assertThat(index.radius(129.0, 35.1, 7.0).size()).isEqualTo(1);
+        assertThat(HotspotIndex.EMPTY.radius(129.0, 35.1, 7.0).isEmpty()).isTrue();
+    }
+}
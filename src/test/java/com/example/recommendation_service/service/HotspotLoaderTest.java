@@ -0,0 +1,168 @@
+package com.example.recommendation_service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.redis.core.ReactiveGeoOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class HotspotLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+    @Mock
+    private ReactiveValueOperations<String, String> valueOperations;
+    @Mock
+    private ReactiveGeoOperations<String, String> geoOperations;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private HotspotIndexHolder hotspotIndexHolder;
+    private Path csv;
+    private HotspotLoader hotspotLoader;
+
+    @BeforeEach
+    void setUp() {
+        hotspotIndexHolder = new HotspotIndexHolder();
+        csv = tempDir.resolve("hotspots.csv");
+        hotspotLoader = new HotspotLoader(reactiveRedisTemplate, hotspotIndexHolder, new DefaultResourceLoader(), eventPublisher,
+                true, 2.0, csv.toUri().toString(), Duration.ofSeconds(60));
+        given(reactiveRedisTemplate.opsForValue()).willReturn(valueOperations);
+    }
+
+    private void givenRedisWritable() {
+        given(valueOperations.setIfAbsent(eq(HotspotLoader.LOCK_KEY), anyString(), any(Duration.class))).willReturn(Mono.just(true));
+        given(reactiveRedisTemplate.delete(anyString())).willReturn(Mono.just(0L));
+        given(reactiveRedisTemplate.opsForGeo()).willReturn(geoOperations);
+        given(geoOperations.add(anyString(), anyMap())).willReturn(Mono.just(2L));
+        given(reactiveRedisTemplate.execute(any(RedisScript.class), anyList(), anyList())).willReturn(Flux.just(1L));
+    }
+
+    @Test
+    @DisplayName("새 집합은 staging 키에 다중 멤버 GEOADD 후 원자 교체하고, 메모리 인덱스를 바꾼다")
+    void reload_WritesStagingKeyAndSwaps() throws Exception {
+        // Given
+        Files.writeString(csv, "latitude,longitude\n35.1,129.0\n35.2,129.1\n");
+        given(valueOperations.get(HotspotLoader.VERSION_KEY)).willReturn(Mono.empty());
+        givenRedisWritable();
+
+        // When
+        HotspotReloadResult result = hotspotLoader.reload();
+
+        // Then
+        assertThat(result.changed()).isTrue();
+        assertThat(result.added()).isEqualTo(2);
+        assertThat(hotspotIndexHolder.current().size()).isEqualTo(2);
+        then(geoOperations).should(times(1)).add(eq("demand_hotspots:staging:" + result.version()), anyMap());
+        then(reactiveRedisTemplate).should().execute(any(RedisScript.class),
+                eq(List.of("demand_hotspots:staging:" + result.version(), "demand_hotspots", HotspotLoader.VERSION_KEY)),
+                eq(List.of(result.version())));
+        then(eventPublisher).should().publishEvent(any(HotspotIndexChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("같은 집합을 다시 읽으면 인덱스를 교체하지 않고, Redis 버전이 같으면 쓰지 않는다")
+    void reload_UnchangedSetIsSkipped() throws Exception {
+        // Given
+        Files.writeString(csv, "latitude,longitude\n35.1,129.0\n35.2,129.1\n");
+        given(valueOperations.get(HotspotLoader.VERSION_KEY)).willReturn(Mono.empty());
+        givenRedisWritable();
+        HotspotReloadResult first = hotspotLoader.reload();
+        HotspotIndex loaded = hotspotIndexHolder.current();
+        given(valueOperations.get(HotspotLoader.VERSION_KEY)).willReturn(Mono.just(first.version()));
+
+        // When
+        HotspotReloadResult second = hotspotLoader.reload();
+
+        // Then
+        assertThat(second.changed()).isFalse();
+        assertThat(second.version()).isEqualTo(first.version());
+        assertThat(hotspotIndexHolder.current()).isSameAs(loaded);
+        then(geoOperations).should(times(1)).add(anyString(), anyMap());
+        then(eventPublisher).should(times(1)).publishEvent(any(HotspotIndexChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("바뀐 집합은 추가/제거된 좌표 수를 돌려준다")
+    void reload_ReportsDiff() throws Exception {
+        // Given
+        Files.writeString(csv, "latitude,longitude\n35.1,129.0\n35.2,129.1\n");
+        given(valueOperations.get(HotspotLoader.VERSION_KEY)).willReturn(Mono.empty());
+        givenRedisWritable();
+        hotspotLoader.reload();
+        Files.writeString(csv, "latitude,longitude\n35.2,129.1\n35.3,129.2\n35.4,129.3\n");
+
+        // When
+        HotspotReloadResult result = hotspotLoader.reload();
+
+        // Then
+        assertThat(result.changed()).isTrue();
+        assertThat(result.added()).isEqualTo(2);
+        assertThat(result.removed()).isEqualTo(1);
+        assertThat(hotspotIndexHolder.current().size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Redis 동기화가 실패해도 메모리 인덱스는 교체된다")
+    void reload_RedisFailureKeepsIndex() throws Exception {
+        // Given
+        Files.writeString(csv, "latitude,longitude\n35.1,129.0\n");
+        given(valueOperations.get(HotspotLoader.VERSION_KEY)).willReturn(Mono.error(new RuntimeException("Redis down")));
+
+        // When
+        HotspotReloadResult result = hotspotLoader.reload();
+
+        // Then
+        assertThat(result.changed()).isTrue();
+        assertThat(hotspotIndexHolder.current().size()).isEqualTo(1);
+        then(reactiveRedisTemplate).should(never()).opsForGeo();
+    }
+
+    @Test
+    @DisplayName("다른 Pod 가 적재 락을 잡고 있으면 Redis 에 쓰지 않고, 메모리 인덱스만 교체한다")
+    void reload_SkipsRedisWriteWhenLockHeld() throws Exception {
+        // Given
+        Files.writeString(csv, "latitude,longitude\n35.1,129.0\n35.2,129.1\n");
+        given(valueOperations.get(HotspotLoader.VERSION_KEY)).willReturn(Mono.empty());
+        given(valueOperations.setIfAbsent(eq(HotspotLoader.LOCK_KEY), anyString(), any(Duration.class))).willReturn(Mono.just(false));
+
+        // When
+        HotspotReloadResult result = hotspotLoader.reload();
+
+        // Then
+        assertThat(result.changed()).isTrue();
+        assertThat(hotspotIndexHolder.current().size()).isEqualTo(2);
+        then(reactiveRedisTemplate).should(never()).opsForGeo();
+        then(reactiveRedisTemplate).should(never()).execute(any(RedisScript.class), anyList(), anyList());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.recommendation_service.service;
+
+import com.example.recommendation_service.client.VertexAiClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class HotspotPrescoringSchedulerTest {
+
+    @Mock
+    private VertexAiClient vertexAiClient;
+
+    @Test
+    @DisplayName("사전 채점 중에 인덱스가 바뀌면 버리지 않고, 진행 중인 채점이 끝난 뒤 새 인덱스로 한 번 더 채점한다")
+    void indexChangeDuringRunIsRescoredAfterward() {
+        // Given
+        HotspotIndex previous = HotspotIndex.of(new String[]{"spot1"}, new double[]{129.001}, new double[]{35.1}, 2.0);
+        HotspotIndex current = HotspotIndex.of(new String[]{"spot1", "spot2"}, new double[]{129.001, 129.002},
+                new double[]{35.1, 35.1}, 2.0);
+        HotspotIndexHolder holder = new HotspotIndexHolder();
+        holder.publish(previous);
+        HotspotScoreTables scoreTables = new HotspotScoreTables();
+        HotspotPrescoringScheduler scheduler = new HotspotPrescoringScheduler(vertexAiClient, holder, scoreTables,
+                new HotspotPriors(holder),
+                new LocalDemandModel(holder, new DefaultResourceLoader(), new SimpleMeterRegistry(), LocalDemandModel.Mode.FALLBACK, ""),
+                100, 2, 0.9);
+        Sinks.One<double[]> firstRun = Sinks.one();
+        given(vertexAiClient.tryPredictBulk(anyList()))
+                .willReturn(firstRun.asMono(), Mono.just(new double[]{0.3, 0.6}));
+
+        // When: 첫 채점이 끝나기 전에 인덱스가 두 번 바뀜
+        scheduler.prescoreCurrentSlot();
+        holder.publish(current);
+        scheduler.onHotspotIndexChanged(new HotspotIndexChangedEvent(previous, current, "v2"));
+        scheduler.onHotspotIndexChanged(new HotspotIndexChangedEvent(previous, current, "v2"));
+        then(vertexAiClient).should(times(1)).tryPredictBulk(anyList());
+        firstRun.tryEmitValue(new double[]{0.5});
+
+        // Then: 재채점은 한 번만, 새 인덱스 기준 점수표가 게시됨
+        then(vertexAiClient).should(times(2)).tryPredictBulk(anyList());
+        HotspotScoreTable table = scoreTables.find(TimeSlot.now(), current);
+        assertThat(table).isNotNull();
+        assertThat(table.score(1)).isEqualTo(0.6);
+    }
+
+    @Test
+    @DisplayName("모든 chunk 가 실패하면 빈 점수표를 게시하지 않고 이전 점수표를 유지한다")
+    void failedRunKeepsPreviousTable() {
+        // Given: chunk 하나에 핫스팟 하나, Vertex 장애
+        HotspotIndex index = HotspotIndex.of(new String[]{"spot1", "spot2", "spot3"}, new double[]{129.001, 129.002, 129.003},
+                new double[]{35.1, 35.1, 35.1}, 2.0);
+        HotspotIndexHolder holder = new HotspotIndexHolder();
+        holder.publish(index);
+        HotspotScoreTables scoreTables = new HotspotScoreTables();
+        HotspotScoreTable previous = new HotspotScoreTable(TimeSlot.now(), index, new double[]{0.1, 0.2, 0.3});
+        scoreTables.publish(previous);
+        HotspotPrescoringScheduler scheduler = new HotspotPrescoringScheduler(vertexAiClient, holder, scoreTables,
+                new HotspotPriors(holder),
+                new LocalDemandModel(holder, new DefaultResourceLoader(), new SimpleMeterRegistry(), LocalDemandModel.Mode.FALLBACK, ""),
+                1, 2, 0.9);
+        given(vertexAiClient.tryPredictBulk(anyList()))
+                .willReturn(Mono.error(new RuntimeException("Circuit Open")));
+
+        // When
+        scheduler.prescoreCurrentSlot();
+
+        // Then
+        then(vertexAiClient).should(times(3)).tryPredictBulk(anyList());
+        assertThat(scoreTables.find(TimeSlot.now(), index)).isSameAs(previous);
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.recommendation_service.service;
+
+import com.example.recommendation_service.client.VertexAiClient;
+import com.example.recommendation_service.client.VertexPredictionBatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class HotspotScorerTest {
+
+    @Mock
+    private VertexAiClient vertexAiClient;
+
+    private PredictionScoreCache scoreCache;
+    private HotspotScoreTables scoreTables;
+    private HotspotIndexHolder hotspotIndexHolder;
+    private LocalDemandModel localDemandModel;
+    private HotspotScorer hotspotScorer;
+    private HotspotIndex index;
+    private HotspotIndex.Candidates candidates;
+    private TimeSlot slot;
+
+    @BeforeEach
+    void setUp() {
+        scoreCache = new PredictionScoreCache(1000, new SimpleMeterRegistry());
+        scoreTables = new HotspotScoreTables();
+        index = HotspotIndex.of(
+                new String[]{"spot1", "spot2", "spot3"},
+                new double[]{129.001, 129.002, 129.003},
+                new double[]{35.1, 35.1, 35.1}, 2.0);
+        hotspotIndexHolder = new HotspotIndexHolder();
+        hotspotIndexHolder.publish(index);
+        hotspotScorer = scorer(LocalDemandModel.Mode.FALLBACK);
+        candidates = index.radius(129.0, 35.1, 7.0);
+        slot = TimeSlot.now();
+    }
+
+    private HotspotScorer scorer(LocalDemandModel.Mode mode) {
+        localDemandModel = new LocalDemandModel(hotspotIndexHolder, new DefaultResourceLoader(), new SimpleMeterRegistry(), mode, "");
+        return new HotspotScorer(
+                new VertexPredictionBatcher(vertexAiClient, false, Duration.ofMillis(10), 200, new SimpleMeterRegistry()),
+                scoreCache, scoreTables, new HotspotPriors(hotspotIndexHolder), localDemandModel,
+                new RecommendationMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    @DisplayName("캐시에 없는 후보만 Vertex AI 로 보내고 결과를 원래 순서대로 합친다")
+    void score_OnlyMissesAreSentToVertex() {
+        // Given: spot2 는 이미 캐시됨
+        scoreCache.put("spot2", slot, 0.7);
+        given(vertexAiClient.tryPredictBulk(argThat(instances -> instances.size() == 2)))
+                .willReturn(Mono.just(new double[]{0.1, 0.3}));
+
+        // When & Then
+        StepVerifier.create(hotspotScorer.score(candidates, slot))
+                    .assertNext(scores -> assertThat(scores).containsExactly(0.1, 0.7, 0.3))
+                    .verifyComplete();
+
+        // 두 번째 요청은 전부 캐시 히트
+        StepVerifier.create(hotspotScorer.score(candidates, slot))
+                    .assertNext(scores -> assertThat(scores).containsExactly(0.1, 0.7, 0.3))
+                    .verifyComplete();
+        then(vertexAiClient).should(times(1)).tryPredictBulk(anyList());
+    }
+
+    @Test
+    @DisplayName("현재 슬롯 점수표가 있으면 Vertex AI 호출 없이 점수표로 채점하고, 빠진 핫스팟만 실시간 채점한다")
+    void score_UsesPrescoredTable() {
+        // Given: spot3 은 사전 채점 실패(NaN)
+        scoreTables.publish(new HotspotScoreTable(slot, index, new double[]{0.2, 0.8, Double.NaN}));
+        given(vertexAiClient.tryPredictBulk(argThat(instances -> instances.size() == 1)))
+                .willReturn(Mono.just(new double[]{0.5}));
+
+        // When & Then
+        StepVerifier.create(hotspotScorer.score(candidates, slot))
+                    .assertNext(scores -> assertThat(scores).containsExactly(0.2, 0.8, 0.5))
+                    .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("인덱스가 교체되어 점수표와 맞지 않으면(stale) 점수표를 사용하지 않는다")
+    void score_IgnoresStaleTable() {
+        // Given
+        HotspotIndex other = HotspotIndex.of(new String[]{"spot1", "spot2", "spot3"},
+                new double[]{129.001, 129.002, 129.003}, new double[]{35.1, 35.1, 35.1}, 2.0);
+        scoreTables.publish(new HotspotScoreTable(slot, other, new double[]{0.9, 0.9, 0.9}));
+        given(vertexAiClient.tryPredictBulk(argThat(instances -> instances.size() == 3)))
+                .willReturn(Mono.just(new double[]{0.1, 0.2, 0.3}));
+
+        // When & Then
+        StepVerifier.create(hotspotScorer.score(candidates, slot))
+                    .assertNext(scores -> assertThat(scores).containsExactly(0.1, 0.2, 0.3))
+                    .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Vertex AI 호출이 실패하면 0.0 점수를 돌려주되 캐싱하지 않는다")
+    void score_FallbackIsNotCached() {
+        // Given
+        given(vertexAiClient.tryPredictBulk(anyList()))
+                .willReturn(Mono.error(new RuntimeException("AI Error")));
+
+        // When & Then
+        StepVerifier.create(hotspotScorer.score(candidates, slot))
+                    .assertNext(scores -> assertThat(scores).containsExactly(0.0, 0.0, 0.0))
+                    .verifyComplete();
+        assertThat(scoreCache.get("spot1", slot)).isNaN();
+    }
+
+    @Test
+    @DisplayName("Vertex AI 호출이 실패하면 로컬 점수표로 채점하고, 점수표에 없는 후보만 0.0 으로 둔다")
+    void score_FallsBackToLocalModel() {
+        // Given: 이전 예측으로 spot1, spot3 점수가 로컬 점수표에 남아 있음
+        localDemandModel.record(index, 0, slot, 0.4);
+        localDemandModel.record(index, 2, slot, 0.9);
+        given(vertexAiClient.tryPredictBulk(anyList()))
+                .willReturn(Mono.error(new RuntimeException("Circuit Open")));
+
+        // When & Then
+        StepVerifier.create(hotspotScorer.score(candidates, slot))
+                    .assertNext(scores -> assertThat(scores).containsExactly(0.4, 0.0, 0.9))
+                    .verifyComplete();
+        assertThat(scoreCache.get("spot1", slot)).isNaN();
+    }
+
+    @Test
+    @DisplayName("Vertex AI 응답이 요청보다 적으면 모자란 후보는 로컬 점수표로 채우고 캐싱하지 않는다")
+    void score_PartialResponseFallsBackToLocalModel() {
+        // Given: 3건 요청에 1건만 응답, spot3 는 로컬 점수표에 있음
+        localDemandModel.record(index, 2, slot, 0.9);
+        given(vertexAiClient.tryPredictBulk(argThat(instances -> instances.size() == 3)))
+                .willReturn(Mono.just(new double[]{0.2}));
+        AtomicBoolean fallback = new AtomicBoolean(false);
+
+        // When & Then
+        StepVerifier.create(hotspotScorer.score(candidates, slot, Duration.ZERO, () -> fallback.set(true)))
+                    .assertNext(scores -> assertThat(scores).containsExactly(0.2, 0.0, 0.9))
+                    .verifyComplete();
+        assertThat(fallback).isTrue();
+        assertThat(scoreCache.get("spot1", slot)).isEqualTo(0.2);
+        assertThat(scoreCache.get("spot3", slot)).isNaN();
+    }
+
+    @Test
+    @DisplayName("기동 워밍업 요청은 Vertex AI 를 호출하지 않고 로컬 점수표로 채점하며 Fallback 으로 표시한다")
+    void score_WarmupSkipsVertex() {
+        // Given
+        localDemandModel.record(index, 1, slot, 0.5);
+        AtomicBoolean fallback = new AtomicBoolean(false);
+
+        // When & Then
+        StepVerifier.create(hotspotScorer.score(candidates, slot, Duration.ZERO, () -> fallback.set(true))
+                                         .contextWrite(context -> context.put(RecommendationMetrics.WARMUP_CONTEXT_KEY, true)))
+                    .assertNext(scores -> assertThat(scores).containsExactly(0.0, 0.5, 0.0))
+                    .verifyComplete();
+        assertThat(fallback).isTrue();
+        then(vertexAiClient).should(never()).tryPredictBulk(anyList());
+    }
+
+    @Test
+    @DisplayName("PRIMARY 모드에서는 로컬 점수표에 있는 후보를 Vertex AI 로 보내지 않는다")
+    void score_PrimaryModeSkipsVertexForKnownHotspots() {
+        // Given
+        hotspotScorer = scorer(LocalDemandModel.Mode.PRIMARY);
+        localDemandModel.record(index, 0, slot, 0.4);
+        localDemandModel.record(index, 1, slot, 0.6);
+        given(vertexAiClient.tryPredictBulk(argThat(instances -> instances.size() == 1)))
+                .willReturn(Mono.just(new double[]{0.2}));
+
+        // When & Then
+        StepVerifier.create(hotspotScorer.score(candidates, slot))
+                    .assertNext(scores -> assertThat(scores).containsExactly(0.4, 0.6, 0.2))
+                    .verifyComplete();
+        then(vertexAiClient).should(times(1)).tryPredictBulk(anyList());
+    }
+
+    @Test
+    @DisplayName("이미 지난 슬롯의 점수는 캐시에 저장되지 않는다")
+    void put_ExpiredSlotIsIgnored() {
+        // Given
+        TimeSlot past = TimeSlot.at(ZonedDateTime.now().minusHours(1));
+
+        // When
+        scoreCache.put("spot1", past, 0.9);
+
+        // Then
+        assertThat(scoreCache.get("spot1", past)).isNaN();
+        then(vertexAiClient).should(never()).tryPredictBulk(anyList());
+    }
+}
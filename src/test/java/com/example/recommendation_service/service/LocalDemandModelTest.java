@@ -0,0 +1,95 @@
+package com.example.recommendation_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalDemandModelTest {
+
+    @TempDir
+    Path tempDir;
+
+    private HotspotIndexHolder hotspotIndexHolder;
+    private HotspotIndex index;
+    private TimeSlot mondayNine;
+
+    @BeforeEach
+    void setUp() {
+        index = HotspotIndex.of(new String[]{"spot1", "spot2"},
+                new double[]{129.15710744041863, 129.06039602038658},
+                new double[]{35.1606243481329, 35.14101441099936}, 2.0);
+        hotspotIndexHolder = new HotspotIndexHolder();
+        hotspotIndexHolder.publish(index);
+        // 월요일(0) 09:00 -> slot 36
+        mondayNine = TimeSlot.at(ZonedDateTime.of(2026, 10, 19, 9, 0, 0, 0, ZoneId.systemDefault()));
+    }
+
+    private LocalDemandModel model(LocalDemandModel.Mode mode, String location) {
+        return new LocalDemandModel(hotspotIndexHolder, new DefaultResourceLoader(), new SimpleMeterRegistry(), mode, location);
+    }
+
+    @Test
+    @DisplayName("export CSV 를 좌표로 핫스팟에 매칭해 (요일, 슬롯) 점수를 제공한다")
+    void reload_LoadsExportedTable() throws Exception {
+        // Given
+        Path csv = tempDir.resolve("demand-table.csv");
+        Files.writeString(csv, """
+                latitude,longitude,day_of_week,time_slot,score
+                35.1606243481329,129.15710744041863,0,36,12.5
+                35.1606243481329,129.15710744041863,0,37,3.0
+                37.0,127.0,0,36,99.0
+                """);
+        LocalDemandModel model = model(LocalDemandModel.Mode.FALLBACK, csv.toUri().toString());
+
+        // When
+        model.reload();
+
+        // Then
+        assertThat(model.score(index, 0, mondayNine)).isEqualTo(12.5);
+        assertThat(model.score(index, 0, mondayNine.next())).isEqualTo(3.0);
+        assertThat(model.score(index, 1, mondayNine)).isNaN();
+    }
+
+    @Test
+    @DisplayName("실제 예측값으로 학습한 점수는 다시 로드해도 파일에 없는 칸이면 유지된다")
+    void reload_KeepsLearnedScores() throws Exception {
+        // Given
+        Path csv = tempDir.resolve("demand-table.csv");
+        Files.writeString(csv, "latitude,longitude,day_of_week,time_slot,score\n35.1606243481329,129.15710744041863,0,36,1.0\n");
+        LocalDemandModel model = model(LocalDemandModel.Mode.FALLBACK, csv.toUri().toString());
+        model.record(index, 1, mondayNine, 7.0);
+        model.record(index, 0, mondayNine, 2.0);
+
+        // When
+        model.reload();
+
+        // Then: 파일 값이 우선, 파일에 없는 칸은 학습값 유지
+        assertThat(model.score(index, 0, mondayNine)).isEqualTo(1.0);
+        assertThat(model.score(index, 1, mondayNine)).isEqualTo(7.0);
+    }
+
+    @Test
+    @DisplayName("OFF 모드이거나 현재 인덱스가 아닌 핫스팟은 점수를 제공하지 않는다")
+    void score_DisabledOrForeignIndex() {
+        // Given
+        LocalDemandModel off = model(LocalDemandModel.Mode.OFF, "");
+        off.record(index, 0, mondayNine, 1.0);
+        LocalDemandModel on = model(LocalDemandModel.Mode.FALLBACK, "");
+        HotspotIndex temporary = HotspotIndex.of(new String[]{"spot1"}, new double[]{129.0}, new double[]{35.0}, 2.0);
+        on.record(temporary, 0, mondayNine, 1.0);
+
+        // When & Then
+        assertThat(off.score(index, 0, mondayNine)).isNaN();
+        assertThat(on.score(temporary, 0, mondayNine)).isNaN();
+    }
+}
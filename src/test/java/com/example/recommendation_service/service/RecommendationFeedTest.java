@@ -0,0 +1,98 @@
+package com.example.recommendation_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class RecommendationFeedTest {
+
+    @Mock
+    private RecommendationService recommendationService;
+
+    @Test
+    @DisplayName("같은 셀의 구독자들은 셀 추천 계산 한 번을 공유한다")
+    void subscribersInSameCellShareComputation() {
+        // Given
+        RecommendationFeed feed = new RecommendationFeed(recommendationService, new SimpleMeterRegistry());
+        given(recommendationService.cellOf(anyDouble(), anyDouble())).willReturn("wy7b1hm");
+        given(recommendationService.getCellRecommendation(eq("wy7b1hm"), any()))
+                .willReturn(Mono.just("서면 추천").delayElement(Duration.ofMillis(50)));
+
+        // When & Then: 두 구독자가 동시에 구독 중
+        Flux<String> both = Flux.merge(feed.watch(129.0756, 35.1796).take(1), feed.watch(129.0757, 35.1797).take(1));
+        StepVerifier.create(both)
+                    .expectNext("서면 추천", "서면 추천")
+                    .verifyComplete();
+        then(recommendationService).should(times(1)).getCellRecommendation(eq("wy7b1hm"), any());
+    }
+
+    @Test
+    @DisplayName("기사가 이동해 셀이 바뀌면 새 셀 추천을 push 하고, 같은 셀 안의 이동은 무시한다")
+    void movingToAnotherCellSwitchesFeed() {
+        // Given
+        RecommendationFeed feed = new RecommendationFeed(recommendationService, new SimpleMeterRegistry());
+        given(recommendationService.cellOf(anyDouble(), anyDouble()))
+                .willAnswer(invocation -> GeoHash.encode(invocation.getArgument(0), invocation.getArgument(1), 7));
+        given(recommendationService.getCellRecommendation(eq(GeoHash.encode(129.0756, 35.1796, 7)), any()))
+                .willReturn(Mono.just("서면 추천"));
+        given(recommendationService.getCellRecommendation(eq(GeoHash.encode(129.1604, 35.1631, 7)), any()))
+                .willReturn(Mono.just("해운대 추천"));
+
+        Sinks.Many<double[]> positions = Sinks.many().unicast().onBackpressureBuffer();
+
+        // When & Then
+        StepVerifier.create(feed.watch(positions.asFlux()))
+                    .then(() -> positions.tryEmitNext(new double[]{129.0756, 35.1796}))
+                    .expectNext("서면 추천")
+                    .then(() -> positions.tryEmitNext(new double[]{129.07561, 35.17961}))
+                    .expectNoEvent(Duration.ofMillis(100))
+                    .then(() -> positions.tryEmitNext(new double[]{129.1604, 35.1631}))
+                    .expectNext("해운대 추천")
+                    .thenCancel()
+                    .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("한 슬롯의 셀 추천 계산이 실패해도 feed 는 끝나지 않고 다음 슬롯 추천을 push 한다")
+    void failingTickDoesNotEndFeed() {
+        // Given
+        TimeSlot first = TimeSlot.now();
+        TimeSlot second = first.next();
+        TimeSlot third = second.next();
+        Sinks.Many<TimeSlot> ticks = Sinks.many().multicast().onBackpressureBuffer();
+        RecommendationFeed feed = new RecommendationFeed(recommendationService, new SimpleMeterRegistry(), ticks.asFlux());
+        given(recommendationService.cellOf(anyDouble(), anyDouble())).willReturn("wy7b1hm");
+        given(recommendationService.getCellRecommendation("wy7b1hm", first)).willReturn(Mono.just("서면 추천"));
+        given(recommendationService.getCellRecommendation("wy7b1hm", second))
+                .willReturn(Mono.error(new IllegalStateException("scoring failed")));
+        given(recommendationService.getCellRecommendation("wy7b1hm", third)).willReturn(Mono.just("전포 추천"));
+
+        // When & Then
+        StepVerifier.create(feed.watch(129.0756, 35.1796))
+                    .then(() -> ticks.tryEmitNext(first))
+                    .expectNext("서면 추천")
+                    .then(() -> ticks.tryEmitNext(second))
+                    .expectNoEvent(Duration.ofMillis(100))
+                    .then(() -> ticks.tryEmitNext(third))
+                    .expectNext("전포 추천")
+                    .thenCancel()
+                    .verify(Duration.ofSeconds(5));
+    }
+}
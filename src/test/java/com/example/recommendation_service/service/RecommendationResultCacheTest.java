@@ -0,0 +1,63 @@
+package com.example.recommendation_service.service;
+
+import com.example.recommendation_service.service.RecommendationResultCache.CellRecommendation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class RecommendationResultCacheTest {
+
+    private RecommendationResultCache resultCache;
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        resultCache = new RecommendationResultCache(reactiveRedisTemplate, new SimpleMeterRegistry(), true, false, 6, 1000);
+    }
+
+    @Test
+    @DisplayName("Redis 저장 형식은 핫스팟 ID/점수/주소를 그대로 복원한다")
+    void encodeDecodeRoundTrip() {
+        // Given
+        CellRecommendation value = new CellRecommendation("spot7", 0.83, "부산광역시 부산진구 부전동");
+
+        // When
+        CellRecommendation decoded = RecommendationResultCache.decode(RecommendationResultCache.encode(value));
+
+        // Then
+        assertThat(decoded).isEqualTo(value);
+        assertThat(RecommendationResultCache.decode("깨진 값")).isNull();
+    }
+
+    @Test
+    @DisplayName("핫스팟 집합이 바뀌면 이전 버전의 셀 결과는 조회되지 않는다")
+    void hotspotChangeInvalidatesResults() {
+        // Given
+        TimeSlot slot = TimeSlot.now();
+        String cell = resultCache.cellOf(129.06, 35.16);
+        resultCache.onHotspotIndexChanged(new HotspotIndexChangedEvent(HotspotIndex.EMPTY, HotspotIndex.EMPTY, "v1"));
+        resultCache.put(cell, slot, new CellRecommendation("spot1", 0.9, "서면역"));
+
+        StepVerifier.create(resultCache.get(cell, slot))
+                    .expectNextMatches(cached -> cached.address().equals("서면역"))
+                    .verifyComplete();
+
+        // When
+        resultCache.onHotspotIndexChanged(new HotspotIndexChangedEvent(HotspotIndex.EMPTY, HotspotIndex.EMPTY, "v2"));
+
+        // Then
+        StepVerifier.create(resultCache.get(cell, slot))
+                    .verifyComplete();
+    }
+}
@@ -1,35 +1,45 @@
 package com.example.recommendation_service.service;
 
-import com.example.recommendation_service.client.NaverMapsClient;
 import com.example.recommendation_service.client.VertexAiClient;
+import com.example.recommendation_service.client.VertexPredictionBatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.data.geo.*;
 import org.springframework.data.redis.connection.RedisGeoCommands;
 import org.springframework.data.redis.core.ReactiveGeoOperations;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.util.unit.DataSize;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 
 @ExtendWith(MockitoExtension.class)
 class RecommendationServiceTest {
 
     private RecommendationService recommendationService;
+    private HotspotIndexHolder hotspotIndexHolder;
+    private SimpleMeterRegistry meterRegistry;
 
     @Mock
     private VertexAiClient vertexAiClient;
     @Mock
-    private NaverMapsClient naverMapsClient;
+    private GeocodeCache geocodeCache;
     @Mock
     private ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
     @Mock
@@ -37,10 +47,39 @@ class RecommendationServiceTest {
 
     @BeforeEach
     void setUp() {
-        // GeoOperations Mocking 연결
-        given(reactiveRedisTemplate.opsForGeo()).willReturn(reactiveGeoOperations);
+        hotspotIndexHolder = new HotspotIndexHolder();
+        HotspotScoreTables scoreTables = new HotspotScoreTables();
+        meterRegistry = new SimpleMeterRegistry();
+        RecommendationMetrics metrics = new RecommendationMetrics(meterRegistry);
+        HotspotPriors hotspotPriors = new HotspotPriors(hotspotIndexHolder);
+        HotspotScorer hotspotScorer = new HotspotScorer(
+                new VertexPredictionBatcher(vertexAiClient, false, Duration.ofMillis(10), 200, new SimpleMeterRegistry()),
+                new PredictionScoreCache(1000, new SimpleMeterRegistry()), scoreTables, hotspotPriors,
+                new LocalDemandModel(hotspotIndexHolder, new DefaultResourceLoader(), new SimpleMeterRegistry(),
+                        LocalDemandModel.Mode.FALLBACK, ""), metrics);
+        CandidatePruner candidatePruner = new CandidatePruner(hotspotPriors, scoreTables, new SimpleMeterRegistry(),
+                true, 40, 80, 3.0, 3.0, 0.0, 0.9);
+        recommendationService = new RecommendationService(hotspotScorer, candidatePruner, geocodeCache, reactiveRedisTemplate,
+                hotspotIndexHolder, new RequestCoalescer(new SimpleMeterRegistry()),
+                new RecommendationResultCache(reactiveRedisTemplate, meterRegistry, true, false, 6, 1000),
+                new HotspotAssignmentTracker(reactiveRedisTemplate, meterRegistry, true, false,
+                        Duration.ofMinutes(5), Duration.ofSeconds(30), 20),
+                new RequestRecorder(meterRegistry, false, 0.0, "build/recordings", DataSize.ofMegabytes(1), 1),
+                metrics, true, 7,
+                Duration.ofSeconds(3), Duration.ofMillis(500));
+    }
 
-        recommendationService = new RecommendationService(vertexAiClient, naverMapsClient, reactiveRedisTemplate);
+    private void givenHotspots(double... lonLat) {
+        int n = lonLat.length / 2;
+        String[] ids = new String[n];
+        double[] lons = new double[n];
+        double[] lats = new double[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = "spot" + (i + 1);
+            lons[i] = lonLat[i * 2];
+            lats[i] = lonLat[i * 2 + 1];
+        }
+        hotspotIndexHolder.publish(HotspotIndex.of(ids, lons, lats, 2.0));
     }
 
     @Test
@@ -50,27 +89,15 @@ class RecommendationServiceTest {
         double lon = 127.0;
         double lat = 37.5;
 
-        // 1. Redis GeoResult Mocking
-        Point point1 = new Point(127.01, 37.51); // 후보 1
-        Point point2 = new Point(127.02, 37.52); // 후보 2
-
-        GeoResult<RedisGeoCommands.GeoLocation<String>> result1 = new GeoResult<>(
-                new RedisGeoCommands.GeoLocation<>("hotspot1", point1), new Distance(1.0, Metrics.KILOMETERS));
-        GeoResult<RedisGeoCommands.GeoLocation<String>> result2 = new GeoResult<>(
-                new RedisGeoCommands.GeoLocation<>("hotspot2", point2), new Distance(2.0, Metrics.KILOMETERS));
-
-        given(reactiveGeoOperations.radius(anyString(), any(Circle.class), any(RedisGeoCommands.GeoRadiusCommandArgs.class)))
-                .willReturn(Flux.just(result1, result2));
+        // 1. 메모리 인덱스: 후보 1(가까움), 후보 2(조금 멂), 반경 밖 1곳
+        givenHotspots(127.01, 37.51, 127.02, 37.52, 128.0, 38.0);
 
-        // 2. Vertex AI Prediction Mocking
-        // point1은 0.5점, point2는 0.9점 (point2가 당선되어야 함)
-        given(vertexAiClient.predict(eq(127.01), eq(37.51), anyInt(), anyInt(), anyString()))
-                .willReturn(Mono.just(0.5));
-        given(vertexAiClient.predict(eq(127.02), eq(37.52), anyInt(), anyInt(), anyString()))
-                .willReturn(Mono.just(0.9));
+        // 2. Vertex AI Bulk Prediction Mocking (거리순: point1 0.5점, point2 0.9점 -> point2가 당선되어야 함)
+        given(vertexAiClient.tryPredictBulk(argThat(instances -> instances.size() == 2)))
+                .willReturn(Mono.just(new double[]{0.5, 0.9}));
 
         // 3. Naver Maps Reverse Geocoding Mocking (point2 좌표로 호출됨)
-        given(naverMapsClient.reverseGeocode(eq(127.02), eq(37.52)))
+        given(geocodeCache.reverseGeocode(eq(127.02), eq(37.52)))
                 .willReturn(Mono.just("서울특별시 강남구 역삼동"));
 
         // When
@@ -82,21 +109,26 @@ class RecommendationServiceTest {
                             message.contains("서울특별시 강남구 역삼동") &&
                                     message.contains("약 15분뒤"))
                     .verifyComplete();
+
+        // 인덱스가 로드되어 있으면 Redis 는 조회하지 않아야 함
+        then(reactiveRedisTemplate).should(never()).opsForGeo();
+
+        // 단계별 지연과 후보 수가 기록되어야 함
+        assertThat(meterRegistry.get("recommendation.stage.latency").tags("stage", "total", "outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("recommendation.stage.latency").tags("stage", "scoring", "outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("recommendation.stage.latency").tags("stage", "geocode", "outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("recommendation.candidates").tag("source", "index").summary().totalAmount()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("recommendation.scores").tag("source", "vertex").counter().count()).isEqualTo(2.0);
     }
 
     @Test
     @DisplayName("주변에 핫스팟이 아예 없는 경우 기본 메시지를 반환한다")
     void getBestLocationRecommendation_NoHotspots() {
         // Given
-        double lon = 127.0;
-        double lat = 37.5;
-
-        // Redis 결과 없음
-        given(reactiveGeoOperations.radius(anyString(), any(Circle.class), any(RedisGeoCommands.GeoRadiusCommandArgs.class)))
-                .willReturn(Flux.empty());
+        givenHotspots(129.0, 35.1);
 
         // When
-        Mono<String> result = recommendationService.getBestLocationRecommendation(lon, lat);
+        Mono<String> result = recommendationService.getBestLocationRecommendation(127.0, 37.5);
 
         // Then
         StepVerifier.create(result)
@@ -104,43 +136,132 @@ class RecommendationServiceTest {
                     .verifyComplete();
 
         // AI 예측이나 지도 API는 호출되지 않아야 함
-        then(vertexAiClient).should(never()).predict(anyDouble(), anyDouble(), anyInt(), anyInt(), anyString());
-        then(naverMapsClient).should(never()).reverseGeocode(anyDouble(), anyDouble());
+        then(vertexAiClient).should(never()).tryPredictBulk(anyList());
+        then(geocodeCache).should(never()).reverseGeocode(anyDouble(), anyDouble());
+        assertThat(meterRegistry.get("recommendation.fallback").tag("reason", "no-hotspots").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Vertex AI 호출이 실패하면 Fallback 점수(0.0)로 가장 가까운 핫스팟을 추천한다")
+    void getBestLocationRecommendation_AiFallback() {
+        // Given
+        givenHotspots(127.02, 37.52, 127.01, 37.51);
+
+        given(vertexAiClient.tryPredictBulk(anyList()))
+                .willReturn(Mono.error(new RuntimeException("AI Error")));
+
+        // 거리 오름차순 첫 후보 (127.01, 37.51)
+        given(geocodeCache.reverseGeocode(eq(127.01), eq(37.51)))
+                .willReturn(Mono.just("가까운 위치"));
+
+        // When
+        Mono<String> result = recommendationService.getBestLocationRecommendation(127.0, 37.5);
+
+        // Then
+        StepVerifier.create(result)
+                    .expectNextMatches(msg -> msg.contains("가까운 위치"))
+                    .verifyComplete();
+        assertThat(meterRegistry.get("recommendation.fallback").tag("reason", "scoring-error").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("recommendation.scores").tag("source", "fallback").counter().count()).isEqualTo(2.0);
     }
 
     @Test
-    @DisplayName("Vertex AI 예측 중 일부가 실패해도, 성공한 것 중 최고점을 찾는다")
-    void getBestLocationRecommendation_PartialAiFailure() {
+    @DisplayName("같은 셀/슬롯의 동시 요청은 하나의 계산을 공유한다")
+    void getBestLocationRecommendation_CoalescesConcurrentRequests() {
         // Given
-        Point point1 = new Point(127.01, 37.51); // AI 실패할 후보
-        Point point2 = new Point(127.02, 37.52); // AI 성공할 후보
+        givenHotspots(127.01, 37.51, 127.02, 37.52);
+
+        given(vertexAiClient.tryPredictBulk(anyList()))
+                .willReturn(Mono.just(new double[]{0.5, 0.9}).delayElement(Duration.ofMillis(100)));
+        given(geocodeCache.reverseGeocode(eq(127.02), eq(37.52)))
+                .willReturn(Mono.just("공유된 위치"));
+
+        // When: 수 미터 떨어진 두 기사가 동시에 요청
+        Mono<List<String>> results = Mono.zip(
+                recommendationService.getBestLocationRecommendation(127.0, 37.5),
+                recommendationService.getBestLocationRecommendation(127.0001, 37.5001)
+        ).map(tuple -> List.of(tuple.getT1(), tuple.getT2()));
+
+        // Then
+        StepVerifier.create(results)
+                    .assertNext(messages -> assertThat(messages).allMatch(msg -> msg.contains("공유된 위치")))
+                    .verifyComplete();
+        then(vertexAiClient).should(times(1)).tryPredictBulk(anyList());
+        then(geocodeCache).should(times(1)).reverseGeocode(anyDouble(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("메모리 인덱스가 비어 있으면 Redis GEO 반경 조회로 후보군을 찾는다")
+    void getBestLocationRecommendation_RedisFallbackWhenIndexEmpty() {
+        // Given
+        given(reactiveRedisTemplate.opsForGeo()).willReturn(reactiveGeoOperations);
+
+        Point point1 = new Point(127.01, 37.51);
+        Point point2 = new Point(127.02, 37.52);
 
         GeoResult<RedisGeoCommands.GeoLocation<String>> result1 = new GeoResult<>(
-                new RedisGeoCommands.GeoLocation<>("fail-spot", point1), new Distance(1.0, Metrics.KILOMETERS));
+                new RedisGeoCommands.GeoLocation<>("spot1", point1), new Distance(1.0, Metrics.KILOMETERS));
         GeoResult<RedisGeoCommands.GeoLocation<String>> result2 = new GeoResult<>(
-                new RedisGeoCommands.GeoLocation<>("success-spot", point2), new Distance(2.0, Metrics.KILOMETERS));
+                new RedisGeoCommands.GeoLocation<>("spot2", point2), new Distance(2.0, Metrics.KILOMETERS));
 
         given(reactiveGeoOperations.radius(anyString(), any(Circle.class), any(RedisGeoCommands.GeoRadiusCommandArgs.class)))
                 .willReturn(Flux.just(result1, result2));
 
-        // 1번 후보는 에러 -> onErrorResume에 의해 Mono.empty() -> 스트림에서 제외됨
-        given(vertexAiClient.predict(eq(127.01), eq(37.51), anyInt(), anyInt(), anyString()))
-                .willReturn(Mono.error(new RuntimeException("AI Error")));
+        given(vertexAiClient.tryPredictBulk(anyList()))
+                .willReturn(Mono.just(new double[]{0.9, 0.5}));
 
-        // 2번 후보는 성공
-        given(vertexAiClient.predict(eq(127.02), eq(37.52), anyInt(), anyInt(), anyString()))
-                .willReturn(Mono.just(0.8));
-
-        // Naver Maps (2번 후보 좌표)
-        given(naverMapsClient.reverseGeocode(eq(127.02), eq(37.52)))
-                .willReturn(Mono.just("성공한 위치"));
+        given(geocodeCache.reverseGeocode(eq(127.01), eq(37.51)))
+                .willReturn(Mono.just("Redis 후보 위치"));
 
         // When
         Mono<String> result = recommendationService.getBestLocationRecommendation(127.0, 37.5);
 
         // Then
         StepVerifier.create(result)
-                    .expectNextMatches(msg -> msg.contains("성공한 위치"))
+                    .expectNextMatches(msg -> msg.contains("Redis 후보 위치"))
                     .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("같은 셀/슬롯의 이어진 요청은 결과 캐시로 응답하고 Vertex AI / 지도 API 를 다시 호출하지 않는다")
+    void getBestLocationRecommendation_ServedFromResultCache() {
+        // Given
+        givenHotspots(127.01, 37.51, 127.02, 37.52);
+
+        given(vertexAiClient.tryPredictBulk(anyList()))
+                .willReturn(Mono.just(new double[]{0.5, 0.9}));
+        given(geocodeCache.reverseGeocode(eq(127.02), eq(37.52)))
+                .willReturn(Mono.just("캐시된 위치"));
+
+        // When: 같은 셀 안의 두 기사가 차례로 요청
+        String first = recommendationService.getBestLocationRecommendation(127.0, 37.5).block();
+        String second = recommendationService.getBestLocationRecommendation(127.0005, 37.5005).block();
+
+        // Then
+        assertThat(first).contains("캐시된 위치");
+        assertThat(second).isEqualTo(first);
+        then(vertexAiClient).should(times(1)).tryPredictBulk(anyList());
+        then(geocodeCache).should(times(1)).reverseGeocode(anyDouble(), anyDouble());
+        assertThat(meterRegistry.get("recommendation.result-cache.requests").tag("result", "local-hit").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Fallback 점수로 만든 추천은 결과 캐시에 저장하지 않는다")
+    void getBestLocationRecommendation_FallbackNotCached() {
+        // Given
+        givenHotspots(127.02, 37.52, 127.01, 37.51);
+
+        given(vertexAiClient.tryPredictBulk(anyList()))
+                .willReturn(Mono.error(new RuntimeException("AI Error")));
+        given(geocodeCache.reverseGeocode(eq(127.01), eq(37.51)))
+                .willReturn(Mono.just("가까운 위치"));
+
+        // When
+        recommendationService.getBestLocationRecommendation(127.0, 37.5).block();
+        recommendationService.getBestLocationRecommendation(127.0, 37.5).block();
+
+        // Then: 두 번째 요청도 다시 계산해야 함
+        then(vertexAiClient).should(times(2)).tryPredictBulk(anyList());
+        assertThat(meterRegistry.get("recommendation.result-cache.requests").tag("result", "miss").counter().count()).isEqualTo(2.0);
+    }
+}
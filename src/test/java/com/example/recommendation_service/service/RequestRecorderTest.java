@@ -0,0 +1,139 @@
+package com.example.recommendation_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestRecorderTest {
+
+    @TempDir
+    Path directory;
+
+    private static List<Path> files(Path directory) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static void runAll(List<Runnable> tasks) {
+        List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    @Test
+    @DisplayName("기록한 요청의 좌표, 후보 위치/점수, 선택 결과를 그대로 다시 읽는다")
+    void appendAndReadBack() throws Exception {
+        // Given
+        RequestRecorder recorder = new RequestRecorder(new SimpleMeterRegistry(), true, 1.0, directory.toString(),
+                DataSize.ofKilobytes(64), 4, Schedulers.immediate());
+        HotspotIndex index = HotspotIndex.of(new String[]{"spot1", "spot2"}, new double[]{129.06, 129.07},
+                new double[]{35.16, 35.17}, 2.0);
+        recorder.onHotspotIndexChanged(new HotspotIndexChangedEvent(HotspotIndex.EMPTY, index, "v1"));
+        HotspotIndex.Candidates candidates = index.radius(129.06, 35.16, 7.0);
+
+        // When
+        RequestRecorder.Sample sample = recorder.sample(129.06, 35.16);
+        sample.candidatesFound();
+        sample.scored(candidates, new double[]{0.4, 0.8}, index);
+        sample.chosen(candidates.index(1));
+        sample.geocoded();
+        recorder.append(sample, false);
+        recorder.append(recorder.sample(129.07, 35.17), true);
+        recorder.close();
+
+        // Then
+        List<Path> files = files(directory);
+        assertThat(files).hasSize(1);
+        RequestRecorder.Recording recording = RequestRecorder.read(files.get(0));
+        assertThat(recording.hotspotVersion()).isEqualTo("v1");
+        assertThat(recording.requests()).hasSize(2);
+
+        RequestRecorder.RecordedRequest first = recording.requests().get(0);
+        assertThat(first.lon()).isEqualTo(129.06);
+        assertThat(first.lat()).isEqualTo(35.16);
+        assertThat(first.outcome()).isEqualTo(RequestRecorder.OUTCOME_COMPUTED);
+        assertThat(first.positions()).containsExactly(candidates.index(0), candidates.index(1));
+        assertThat(first.scores()).containsExactly(0.4f, 0.8f);
+        assertThat(first.chosen()).isEqualTo(candidates.index(1));
+
+        RequestRecorder.RecordedRequest second = recording.requests().get(1);
+        assertThat(second.outcome()).isEqualTo(RequestRecorder.OUTCOME_ERROR);
+        assertThat(second.positions()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("세그먼트가 차면 새 파일로 넘어가고, 보관 개수를 넘는 오래된 파일은 지운다")
+    void rollsAndRetainsSegments() throws Exception {
+        // Given: 헤더 64 bytes + 레코드 2개(52 bytes)만 들어가는 세그먼트
+        RequestRecorder recorder = new RequestRecorder(new SimpleMeterRegistry(), true, 1.0, directory.toString(),
+                DataSize.ofBytes(64 + 52 * 2), 2, Schedulers.immediate());
+
+        // When
+        for (int i = 0; i < 7; i++) {
+            recorder.append(recorder.sample(129.0 + i * 0.01, 35.1), false);
+        }
+        recorder.close();
+
+        // Then: 4개 세그먼트 중 최근 2개만 남음
+        List<Path> files = files(directory);
+        assertThat(files).hasSize(2);
+        assertThat(RequestRecorder.read(files.get(0)).requests()).hasSize(2);
+        assertThat(RequestRecorder.read(files.get(1)).requests()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("세그먼트 파일은 background 에서 미리 만들고, 준비된 세그먼트가 없으면 기록하지 않는다")
+    void preparesSegmentsOffRequestThread() throws Exception {
+        // Given: background 작업을 직접 실행하는 scheduler, 레코드 2개가 들어가는 세그먼트
+        List<Runnable> tasks = new ArrayList<>();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RequestRecorder recorder = new RequestRecorder(meterRegistry, true, 1.0, directory.toString(),
+                DataSize.ofBytes(64 + 52 * 2), 4, Schedulers.fromExecutor(tasks::add));
+
+        // When: 첫 세그먼트가 만들어지기 전의 요청
+        recorder.append(recorder.sample(129.0, 35.1), false);
+
+        // Then: 요청 스레드에서 파일을 만들지 않고 버림
+        assertThat(files(directory)).isEmpty();
+        assertThat(count(meterRegistry, "dropped")).isEqualTo(1);
+
+        // When: background 에서 세그먼트 생성 후 3/4 을 넘게 기록
+        runAll(tasks);
+        recorder.append(recorder.sample(129.01, 35.1), false);
+        recorder.append(recorder.sample(129.02, 35.1), false);
+
+        // Then: 다음 세그먼트 생성은 예약만 됨
+        assertThat(files(directory)).hasSize(1);
+        assertThat(tasks).hasSize(1);
+
+        // When: 다음 세그먼트가 준비된 뒤 현재 세그먼트가 참
+        runAll(tasks);
+        recorder.append(recorder.sample(129.03, 35.1), false);
+        runAll(tasks);
+        recorder.close();
+
+        // Then: 준비된 세그먼트로 넘어가 기록
+        List<Path> files = files(directory);
+        assertThat(files).hasSize(2);
+        assertThat(RequestRecorder.read(files.get(0)).requests()).hasSize(2);
+        assertThat(RequestRecorder.read(files.get(1)).requests()).hasSize(1);
+        assertThat(count(meterRegistry, "recorded")).isEqualTo(3);
+        assertThat(count(meterRegistry, "dropped")).isEqualTo(1);
+    }
+
+    private static double count(SimpleMeterRegistry meterRegistry, String result) {
+        return meterRegistry.get("recommendation.recorder.requests").tag("result", result).counter().count();
+    }
+}
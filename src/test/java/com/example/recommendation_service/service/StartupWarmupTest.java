@@ -0,0 +1,147 @@
+package com.example.recommendation_service.service;
+
+import com.example.recommendation_service.client.NaverMapsClient;
+import com.example.recommendation_service.client.VertexAiClient;
+import com.example.recommendation_service.client.VertexPredictionBatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class StartupWarmupTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @Mock
+    private RecommendationService recommendationService;
+
+    @Mock
+    private VertexAiClient vertexAiClient;
+
+    @Mock
+    private GeocodeCache geocodeCache;
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private static HotspotIndex hotspots() {
+        return HotspotIndex.of(new String[]{"spot1", "spot2"}, new double[]{129.06, 129.07}, new double[]{35.16, 35.17}, 2.0);
+    }
+
+    @Test
+    @DisplayName("핫스팟이 처음 적재되면 degraded 경로와 전체 파이프라인을 정해진 횟수만큼 돌린 뒤 준비 상태가 된다")
+    void warmsUpOnFirstHotspotLoad() {
+        // Given
+        given(recommendationService.getDegradedRecommendation(anyDouble(), anyDouble())).willReturn(Mono.just("degraded"));
+        given(recommendationService.getBestLocationRecommendation(anyDouble(), anyDouble())).willReturn(Mono.just("full"));
+        StartupWarmup warmup = new StartupWarmup(recommendationService, meterRegistry, true, 20, 5, 4, Duration.ofSeconds(5));
+        assertThat(warmup.isReady()).isFalse();
+
+        // When
+        StepVerifier.create(warmup.run(hotspots()))
+                    .verifyComplete();
+
+        // Then
+        assertThat(warmup.isReady()).isTrue();
+        then(recommendationService).should(times(20)).getDegradedRecommendation(anyDouble(), anyDouble());
+        then(recommendationService).should(times(5)).getBestLocationRecommendation(anyDouble(), anyDouble());
+        assertThat(meterRegistry.get("recommendation.startup.warmup").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("워밍업이 timeout 을 넘기면 중단하고 준비 상태로 전환한다")
+    void timeoutStillBecomesReady() {
+        // Given
+        given(recommendationService.getDegradedRecommendation(anyDouble(), anyDouble())).willReturn(Mono.never());
+        StartupWarmup warmup = new StartupWarmup(recommendationService, meterRegistry, true, 10, 0, 4, Duration.ofMillis(50));
+
+        // When
+        StepVerifier.create(warmup.run(hotspots()))
+                    .verifyComplete();
+
+        // Then
+        assertThat(warmup.isReady()).isTrue();
+    }
+
+    @Test
+    @DisplayName("워밍업 요청은 단계별 지연 지표에 기록하지 않고, 실제 요청의 p99 가 목표 이하가 되면 기동 후 경과 시간을 기록한다")
+    void warmupRequestsExcludedFromMetrics() {
+        // Given
+        RecommendationMetrics metrics = new RecommendationMetrics(meterRegistry, Duration.ofSeconds(1), 10);
+
+        // When: 워밍업 요청 1회, 실제 요청 10회
+        metrics.time(RecommendationMetrics.Stage.TOTAL, Mono.just("warmup"))
+               .contextWrite(context -> context.put(RecommendationMetrics.WARMUP_CONTEXT_KEY, true))
+               .block();
+        for (int i = 0; i < 10; i++) {
+            metrics.time(RecommendationMetrics.Stage.TOTAL, Mono.just("served")).block();
+        }
+
+        // Then
+        assertThat(meterRegistry.get("recommendation.stage.latency").tags("stage", "total", "outcome", "success").timer().count()).isEqualTo(10);
+        assertThat(metrics.timeToGoodP99Seconds()).isPositive();
+    }
+
+    @Test
+    @DisplayName("워밍업은 가지치기 품질 측정까지 포함해 Vertex AI 를 호출하지 않고, 후보/점수/Fallback 지표에도 남기지 않는다")
+    void warmupNeverCallsVertex() {
+        // Given: 모든 요청을 품질 측정 대상으로 샘플링하고, 후보가 1개를 넘으면 가지치기
+        HotspotIndexHolder holder = new HotspotIndexHolder();
+        HotspotIndex index = hotspots();
+        holder.publish(index);
+        HotspotScoreTables scoreTables = new HotspotScoreTables();
+        HotspotPriors hotspotPriors = new HotspotPriors(holder);
+        RecommendationMetrics metrics = new RecommendationMetrics(meterRegistry);
+        HotspotScorer hotspotScorer = new HotspotScorer(
+                new VertexPredictionBatcher(vertexAiClient, false, Duration.ofMillis(10), 200, meterRegistry),
+                new PredictionScoreCache(1000, meterRegistry), scoreTables, hotspotPriors,
+                new LocalDemandModel(holder, new DefaultResourceLoader(), meterRegistry, LocalDemandModel.Mode.FALLBACK, ""),
+                metrics);
+        RecommendationService service = new RecommendationService(hotspotScorer,
+                new CandidatePruner(hotspotPriors, scoreTables, meterRegistry, true, 1, 80, 3.0, 3.0, 1.0, 0.9),
+                geocodeCache, reactiveRedisTemplate, holder, new RequestCoalescer(meterRegistry),
+                new RecommendationResultCache(reactiveRedisTemplate, meterRegistry, true, false, 6, 1000),
+                new HotspotAssignmentTracker(reactiveRedisTemplate, meterRegistry, true, false,
+                        Duration.ofMinutes(5), Duration.ofSeconds(30), 20),
+                new RequestRecorder(meterRegistry, false, 1.0, "build/recordings", DataSize.ofMegabytes(1), 1),
+                metrics, true, 7, Duration.ofSeconds(3), Duration.ofMillis(500));
+        given(geocodeCache.reverseGeocode(anyDouble(), anyDouble())).willReturn(Mono.just(NaverMapsClient.UNAVAILABLE_ADDRESS));
+        given(geocodeCache.cachedAddress(anyDouble(), anyDouble())).willReturn(Mono.empty());
+        StartupWarmup warmup = new StartupWarmup(service, meterRegistry, true, 4, 8, 2, Duration.ofSeconds(5));
+
+        // When
+        StepVerifier.create(warmup.run(index))
+                    .verifyComplete();
+
+        // Then
+        then(vertexAiClient).should(never()).tryPredictBulk(anyList());
+        assertThat(meterRegistry.get("recommendation.candidates").tags("source", "index").summary().count()).isZero();
+        assertThat(meterRegistry.get("recommendation.scores").tags("source", "local").counter().count()).isZero();
+        assertThat(meterRegistry.get("recommendation.pruning.quality").tags("outcome", "match").counter().count()).isZero();
+        assertThat(meterRegistry.get("recommendation.pruning.quality").tags("outcome", "miss").counter().count()).isZero();
+    }
+}